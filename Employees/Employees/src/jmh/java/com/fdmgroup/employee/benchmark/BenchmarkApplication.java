@@ -0,0 +1,74 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fdmgroup.employee.EmployeesApplication;
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+/**
+ * Starts the application without a web server against its embedded H2
+ * database, for use from benchmark setup methods.
+ */
+public final class BenchmarkApplication {
+	private static final int SEED_CHUNK = 5000;
+
+	private BenchmarkApplication() {
+	}
+
+	/**
+	 * @param properties - Extra "key=value" properties for this run.
+	 * @return - The started context, with the seed data of LoadDatabase disabled.
+	 */
+	public static ConfigurableApplicationContext start(String... properties) {
+		return start(WebApplicationType.NONE, properties);
+	}
+
+	/**
+	 * @param properties - Extra "key=value" properties for this run.
+	 * @return - The started context, serving HTTP on a random free port.
+	 */
+	public static ConfigurableApplicationContext startWeb(String... properties) {
+		String[] withPort = Arrays.copyOf(properties, properties.length + 1);
+		withPort[properties.length] = "server.port=0";
+		return start(WebApplicationType.SERVLET, withPort);
+	}
+
+	private static ConfigurableApplicationContext start(WebApplicationType type, String... properties) {
+		// DevTools would otherwise restart the application, and re-run the caller's main method
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		// Passed as command line arguments so that they override application.properties
+		String[] args = Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new);
+		return new SpringApplicationBuilder(EmployeesApplication.class).web(type).profiles("test")
+				.properties("logging.level.root=WARN").run(args);
+	}
+
+	/**
+	 * Inserts generated employees in batched transactions, one chunk in memory at
+	 * a time.
+	 *
+	 * @param context - The started context.
+	 * @param count   - The number of employees to insert.
+	 */
+	public static void seed(ConfigurableApplicationContext context, int count) {
+		EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+		TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+		SplittableRandom random = new SplittableRandom(42);
+		for (int start = 0; start < count; start += SEED_CHUNK) {
+			List<Employee> chunk = new ArrayList<>(SEED_CHUNK);
+			for (int i = start; i < Math.min(count, start + SEED_CHUNK); i++) {
+				chunk.add(EmployeeFixtures.employee(random, i));
+			}
+			transactionTemplate.executeWithoutResult(status -> employeeRepository.saveAll(chunk));
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.fdmgroup.employee.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.service.EmployeeService;
+
+/**
+ * An application context whose database holds a configurable number of
+ * employees, shared by all threads of a benchmark trial.
+ */
+@State(Scope.Benchmark)
+public class EmployeeDatabaseState {
+	@Param({ "10000", "100000", "1000000" })
+	public int employees;
+
+	public ConfigurableApplicationContext context;
+	public EmployeeRepository employeeRepository;
+	public EmployeeService employeeService;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = BenchmarkApplication.start(properties());
+		BenchmarkApplication.seed(context, employees);
+		employeeRepository = context.getBean(EmployeeRepository.class);
+		employeeService = context.getBean(EmployeeService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	/**
+	 * @return - Extra application properties for the trial.
+	 */
+	protected String[] properties() {
+		return new String[0];
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.fdmgroup.employee.model.Employee;
+
+/**
+ * Deterministic employee data for the benchmarks, shaped like the seed data
+ * in LoadDatabase.
+ */
+public final class EmployeeFixtures {
+	static final String[] FIRST_NAMES = { "Daliah", "Anya", "Anastasia", "Madalina", "Robert", "John", "Jane", "Maria",
+			"Andrei", "Elena", "Mihai", "Olga", "Pierre", "Sofia", "Lucas", "Emma", "Noah", "Mia", "Ivan", "Ana" };
+	static final String[] LAST_NAMES = { "Wehbe", "Alexandrovna", "Acasandrei", "Daniel", "Doe", "Smith", "Popescu",
+			"Ionescu", "Petrova", "Dubois", "Garcia", "Muller", "Rossi", "Novak", "Kowalski", "Baciu", "Brown", "Lee",
+			"Martin", "Horvat" };
+	static final String[] CITIES = { "London England", "Manchester England", "Moscow Russia", "Brasov Romania",
+			"Cluj-Napoca Romania", "Bucharest Romania", "Paris France", "Berlin Germany", "Madrid Spain",
+			"Rome Italy" };
+
+	private EmployeeFixtures() {
+	}
+
+	/**
+	 * @param count - The number of employees to generate.
+	 * @param seed  - The random seed, the same seed gives the same employees.
+	 * @return - New, unsaved employees.
+	 */
+	public static List<Employee> employees(int count, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		List<Employee> employees = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			employees.add(employee(random, i));
+		}
+		return employees;
+	}
+
+	/**
+	 * @param count - The number of rows to generate.
+	 * @param seed  - The random seed.
+	 * @return - The same employees as employees(count, seed), as CSV with a
+	 *         header line.
+	 */
+	public static String csv(int count, long seed) {
+		StringBuilder csv = new StringBuilder("firstName,lastName,hireDate,address\n");
+		for (Employee employee : employees(count, seed)) {
+			csv.append(employee.getFirstName()).append(',').append(employee.getLastName()).append(',')
+					.append(employee.getHireDate()).append(',').append(employee.getAddress()).append('\n');
+		}
+		return csv.toString();
+	}
+
+	static Employee employee(SplittableRandom random, int i) {
+		// A numeric suffix keeps the names varied enough for substring searches
+		String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + (i % 97 == 0 ? "" : (char) ('a' + i % 26));
+		String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + (i % 1000);
+		LocalDate hireDate = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(9000));
+		String address = (1 + random.nextInt(300)) + " " + (char) ('A' + random.nextInt(26)) + " Street "
+				+ CITIES[random.nextInt(CITIES.length)];
+		return new Employee(firstName, lastName, hireDate, address);
+	}
+
+}
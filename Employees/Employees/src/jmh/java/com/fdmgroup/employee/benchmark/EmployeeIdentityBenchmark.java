@@ -0,0 +1,127 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.search.IntHashSet;
+import com.fdmgroup.employee.search.IntObjectHashMap;
+
+/**
+ * Employee identity on the dedup and lookup paths, without a database.
+ * Employee.hashCode is the same for every employee, so employees are never
+ * hash keys themselves: the dedup benchmarks key by id, boxed in a HashSet or
+ * primitive in an IntHashSet. "fieldHash" replays the former Objects.hash over
+ * every field as a baseline for the constant hashCode; run with "-prof gc"
+ * (the profile default) to compare the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeIdentityBenchmark {
+
+	@Param({ "1000" })
+	public int candidates;
+
+	List<Employee> employees;
+	// Every employee twice, as a search matching both the first and last name returns them
+	List<Employee> duplicated;
+	int[] lookups;
+	Map<Integer, Employee> boxedIndex;
+	IntObjectHashMap<Employee> primitiveIndex;
+
+	@Setup
+	public void setUp() {
+		employees = EmployeeFixtures.employees(candidates, 42);
+		for (int i = 0; i < candidates; i++) {
+			employees.get(i).setId(1000 + i * 7);
+		}
+		duplicated = new ArrayList<>(employees);
+		duplicated.addAll(employees);
+		lookups = new int[candidates];
+		boxedIndex = new HashMap<>();
+		primitiveIndex = new IntObjectHashMap<>(candidates);
+		for (int i = 0; i < candidates; i++) {
+			Employee employee = employees.get(i);
+			lookups[i] = employees.get((i * 31) % candidates).getId();
+			boxedIndex.put(employee.getId(), employee);
+			primitiveIndex.put(employee.getId(), employee);
+		}
+	}
+
+	@Benchmark
+	public void fieldHash(Blackhole blackhole) {
+		for (Employee employee : employees) {
+			blackhole.consume(Objects.hash(employee.getAddress(), employee.getFirstName(), employee.getHireDate(),
+					employee.getId(), employee.getLastName()));
+		}
+	}
+
+	@Benchmark
+	public void constantHash(Blackhole blackhole) {
+		for (Employee employee : employees) {
+			blackhole.consume(employee.hashCode());
+		}
+	}
+
+	@Benchmark
+	public int dedupHashSet() {
+		Set<Integer> seen = new HashSet<>(duplicated.size() * 2);
+		int count = 0;
+		for (Employee employee : duplicated) {
+			if (seen.add(employee.getId())) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int dedupIntHashSet() {
+		IntHashSet seen = new IntHashSet(duplicated.size());
+		int count = 0;
+		for (Employee employee : duplicated) {
+			if (seen.add(employee.getId())) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public void lookupBoxedMap(Blackhole blackhole) {
+		for (int id : lookups) {
+			blackhole.consume(boxedIndex.get(id));
+		}
+	}
+
+	@Benchmark
+	public void lookupIntObjectMap(Blackhole blackhole) {
+		for (int id : lookups) {
+			blackhole.consume(primitiveIndex.get(id));
+		}
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.service.EmployeeImportService;
+import com.fdmgroup.employee.service.ImportReport;
+
+/**
+ * Compares the bulk CSV import with saving the same rows one entity at a
+ * time. Each invocation inserts every row into an emptied table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EmployeeImportBenchmark {
+	@Param({ "10000" })
+	int rows;
+
+	ConfigurableApplicationContext context;
+	EmployeeRepository employeeRepository;
+	EmployeeImportService employeeImportService;
+	String csv;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		context = BenchmarkApplication.start();
+		employeeRepository = context.getBean(EmployeeRepository.class);
+		employeeImportService = context.getBean(EmployeeImportService.class);
+		csv = EmployeeFixtures.csv(rows, 42);
+	}
+
+	@Setup(Level.Invocation)
+	public void emptyTable() {
+		employeeRepository.deleteAllInBatch();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	@Benchmark
+	public int perEntitySaveLoop() throws IOException {
+		BufferedReader reader = new BufferedReader(new StringReader(csv));
+		reader.readLine();
+		int saved = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			String[] fields = line.split(",");
+			employeeRepository.save(new Employee(fields[0], fields[1], LocalDate.parse(fields[2]), fields[3]));
+			saved++;
+		}
+		return saved;
+	}
+
+	@Benchmark
+	public ImportReport bulkImport() throws IOException {
+		return employeeImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
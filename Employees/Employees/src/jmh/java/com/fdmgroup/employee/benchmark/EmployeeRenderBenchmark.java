@@ -0,0 +1,94 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.fdmgroup.employee.cache.EmployeeRowCache;
+import com.fdmgroup.employee.controller.EmployeeTableWriter;
+import com.fdmgroup.employee.model.Employee;
+
+/**
+ * Render time of the employee list against the number of rows, without a
+ * database or a server: showEmployees.html with its th:each loop, the same
+ * template around the cached rows (cold and warm), and the streamed page of
+ * EmployeeTableWriter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeRenderBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int rows;
+
+	List<Employee> employees;
+	SpringTemplateEngine templateEngine;
+	EmployeeRowCache warmCache;
+
+	@Setup
+	public void setUp() {
+		employees = EmployeeFixtures.employees(rows, 42);
+		for (int i = 0; i < rows; i++) {
+			employees.get(i).setId(i + 1);
+		}
+		templateEngine = new SpringTemplateEngine();
+		ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+		templateResolver.setPrefix("templates/");
+		templateResolver.setSuffix(".html");
+		templateResolver.setCacheable(true);
+		templateEngine.setTemplateResolver(templateResolver);
+		warmCache = new EmployeeRowCache(true, rows);
+		warmCache.rows(employees);
+	}
+
+	@Benchmark
+	public String templateLoop() {
+		return templateEngine.process("showEmployees", new Context(Locale.ROOT, Map.of("employees", employees)));
+	}
+
+	@Benchmark
+	public String templateColdRows() {
+		EmployeeRowCache coldCache = new EmployeeRowCache(false, rows);
+		return templateEngine.process("showEmployees",
+				new Context(Locale.ROOT, Map.of("employees", employees, "rows", coldCache.rows(employees))));
+	}
+
+	@Benchmark
+	public String templateCachedRows() {
+		return templateEngine.process("showEmployees",
+				new Context(Locale.ROOT, Map.of("employees", employees, "rows", warmCache.rows(employees))));
+	}
+
+	@Benchmark
+	public String streamCachedRows() {
+		StringWriter page = new StringWriter(rows * 128);
+		EmployeeTableWriter tableWriter = new EmployeeTableWriter(new PrintWriter(page), 100, warmCache);
+		tableWriter.writeHeader();
+		employees.forEach(tableWriter::writeRow);
+		tableWriter.writeFooter();
+		return page.toString();
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fdmgroup.employee.model.Employee;
+
+/**
+ * The queries of EmployeeRepository on their own, without the service around
+ * them.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeRepositoryBenchmark {
+
+	@Benchmark
+	public Optional<Employee> findById(EmployeeDatabaseState state) {
+		return state.employeeRepository.findById(1 + ThreadLocalRandom.current().nextInt(state.employees));
+	}
+
+	@Benchmark
+	public List<Employee> findByAddressContainsIgnoreCase(EmployeeDatabaseState state) {
+		return state.employeeRepository.findByAddressContainsIgnoreCase("cluj");
+	}
+
+	@Benchmark
+	public List<Employee> findByFirstNameContainsIgnoreCase(EmployeeDatabaseState state) {
+		return state.employeeRepository.findByFirstNameContainsIgnoreCase("ana");
+	}
+
+	@Benchmark
+	public List<Employee> findByLastNameContainsIgnoreCase(EmployeeDatabaseState state) {
+		return state.employeeRepository.findByLastNameContainsIgnoreCase("wehbe1");
+	}
+
+	@Benchmark
+	public List<Employee> findByFirstNameAndLastNameIgnoreCase(EmployeeDatabaseState state) {
+		return state.employeeRepository.findByFirstNameAndLastNameIgnoreCase("olga", "dubois12");
+	}
+
+	@Benchmark
+	public List<Employee> findByFullNameContainsIgnoreCase(EmployeeDatabaseState state) {
+		return state.employeeRepository.findByFullNameContainsIgnoreCase("dubois12");
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.service.EmployeePage;
+
+/**
+ * Hot paths of EmployeeService. Throughput and SampleTime modes give ops/ms and
+ * latency percentiles; run with "-prof gc" (the profile default) for the
+ * allocation rate per operation.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeServiceBenchmark {
+
+	@Benchmark
+	public List<Employee> listAll(SearchModeState state) {
+		return state.employeeService.listAll();
+	}
+
+	@Benchmark
+	public EmployeePage listFirstPage(SearchModeState state) {
+		return state.employeeService.listPage(0, 50);
+	}
+
+	@Benchmark
+	public Employee getEmployee(SearchModeState state) {
+		return state.employeeService.getEmployee(1 + ThreadLocalRandom.current().nextInt(state.employees));
+	}
+
+	@Benchmark
+	public List<Employee> findByFirstName(SearchModeState state) {
+		return state.employeeService.findByFirstName("ana");
+	}
+
+	@Benchmark
+	public List<Employee> findByLastName(SearchModeState state) {
+		return state.employeeService.findByLastName("wehbe1");
+	}
+
+	@Benchmark
+	public List<Employee> listByAddress(SearchModeState state) {
+		return state.employeeService.listByAddress("cluj");
+	}
+
+	@Benchmark
+	public List<Employee> searchEmployeesOneWord(SearchModeState state) {
+		return state.employeeService.searchEmployees("dubois12");
+	}
+
+	@Benchmark
+	public List<Employee> searchEmployeesTwoWords(SearchModeState state) {
+		return state.employeeService.searchEmployees("Olga Dubois12");
+	}
+
+	@Benchmark
+	public Employee createEmployee(SearchModeState state) {
+		return state.employeeService
+				.createEmployee(new Employee("Bench", "Mark", LocalDate.of(2023, 1, 1), "1 A Street London England"));
+	}
+
+}
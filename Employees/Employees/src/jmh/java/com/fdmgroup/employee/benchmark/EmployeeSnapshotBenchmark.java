@@ -0,0 +1,79 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fdmgroup.employee.model.EmployeeView;
+import com.fdmgroup.employee.service.EmployeeViewPage;
+import com.fdmgroup.employee.snapshot.EmployeeSnapshot;
+
+/**
+ * The view methods of EmployeeService read from the database against the
+ * off-heap snapshot. The footprint of the snapshot and the estimated heap of
+ * the same entities are printed once per trial; run with "-prof gc" (the
+ * profile default) for the allocation rate per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeSnapshotBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class SnapshotState extends EmployeeDatabaseState {
+		@Param({ "false", "true" })
+		public boolean snapshot;
+
+		@Override
+		protected String[] properties() {
+			return new String[] { "employee.snapshot.enabled=" + snapshot };
+		}
+
+		@Setup
+		public void load() {
+			if (snapshot) {
+				System.out.println(context.getBean(EmployeeSnapshot.class).footprint());
+			}
+		}
+	}
+
+	@Benchmark
+	public List<EmployeeView> searchViewsOneWord(SnapshotState state) {
+		return state.employeeService.searchViews(
+				EmployeeFixtures.LAST_NAMES[ThreadLocalRandom.current().nextInt(EmployeeFixtures.LAST_NAMES.length)]
+						+ ThreadLocalRandom.current().nextInt(100));
+	}
+
+	@Benchmark
+	public List<EmployeeView> searchViewsTwoWords(SnapshotState state) {
+		return state.employeeService.searchViews("ana wehbe");
+	}
+
+	@Benchmark
+	public EmployeeViewPage listViewPage(SnapshotState state) {
+		return state.employeeService.listViewPage(ThreadLocalRandom.current().nextInt(state.employees), 50);
+	}
+
+	@Benchmark
+	public long streamAllViews(SnapshotState state) {
+		LongAdder count = new LongAdder();
+		state.employeeService.streamAllViews(view -> count.increment());
+		return count.sum();
+	}
+
+}
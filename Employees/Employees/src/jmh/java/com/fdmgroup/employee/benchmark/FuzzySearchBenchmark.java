@@ -0,0 +1,81 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.search.FuzzyWordIndex;
+import com.fdmgroup.employee.search.IntObjectHashMap;
+
+/**
+ * Fuzzy lookups in the word index of last names, without a database. "fixture"
+ * names repeat like the seed data (about 20000 distinct words for a million
+ * employees); "distinct" gives every employee a name of its own, the worst
+ * case for the size of the index.
+ */
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FuzzySearchBenchmark {
+
+	@Param({ "1000000" })
+	public int names;
+
+	@Param({ "fixture", "distinct" })
+	public String vocabulary;
+
+	FuzzyWordIndex lastNames;
+
+	@Setup
+	public void setUp() {
+		lastNames = new FuzzyWordIndex();
+		if (vocabulary.equals("fixture")) {
+			List<Employee> employees = EmployeeFixtures.employees(names, 42);
+			for (int slot = 0; slot < names; slot++) {
+				lastNames.add(slot, employees.get(slot).getLastName());
+			}
+		} else {
+			SplittableRandom random = new SplittableRandom(42);
+			for (int slot = 0; slot < names; slot++) {
+				lastNames.add(slot, randomName(random));
+			}
+		}
+		// As after EmployeeSearchIndex loads
+		lastNames.compact();
+	}
+
+	@Benchmark
+	public IntObjectHashMap<Integer> oneTypo() {
+		return lastNames.search("alexandrvna", 1);
+	}
+
+	@Benchmark
+	public IntObjectHashMap<Integer> twoTypos() {
+		return lastNames.search("duboiss12", 2);
+	}
+
+	private static String randomName(SplittableRandom random) {
+		char[] name = new char[6 + random.nextInt(7)];
+		for (int i = 0; i < name.length; i++) {
+			name[i] = (char) ('a' + random.nextInt(26));
+		}
+		return new String(name);
+	}
+
+}
@@ -0,0 +1,173 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Closed-loop HTTP load test against an embedded instance of the application.
+ * A fixed number of clients send a mix of listing, search and create requests
+ * for a set duration, once per config and mode, and the throughput and
+ * latency percentiles of every request type are printed per config and mode.
+ * A config is "default" for application.properties alone, or the name of a
+ * profile applied on top of it.
+ *
+ * <pre>
+ * mvn -Pbenchmark,java21 test-compile exec:exec@load-test -Dload.args="--modes=platform,virtual --concurrency=400"
+ * mvn -Pbenchmark test-compile exec:exec@load-test -Dload.args="--configs=default,performance --modes=platform"
+ * </pre>
+ *
+ * Options: --configs (default, or profile names), --modes (platform, virtual),
+ * --employees, --concurrency, --warmup and --duration (seconds).
+ */
+public class HttpLoadTest {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = options(args);
+		List<String> configs = Arrays.asList(options.getOrDefault("configs", "default").split(","));
+		List<String> modes = Arrays.asList(options.getOrDefault("modes", "platform,virtual").split(","));
+		int employees = Integer.parseInt(options.getOrDefault("employees", "10000"));
+		int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+		int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+		int duration = Integer.parseInt(options.getOrDefault("duration", "20"));
+
+		System.out.printf("%-12s %-10s %-8s %9s %10s %8s %8s %8s %8s %7s%n", "config", "mode", "request", "count",
+				"req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+		for (String config : configs) {
+			for (String mode : modes) {
+				boolean virtual = mode.equals("virtual");
+				String virtualThreads = "employee.virtual-threads.enabled=" + virtual;
+				ConfigurableApplicationContext context = config.equals("default")
+						? BenchmarkApplication.startWeb(virtualThreads)
+						: BenchmarkApplication.startWeb("spring.profiles.active=" + config, virtualThreads);
+				try {
+					if (virtual && !context.containsBean("virtualThreadProtocolHandlerCustomizer")) {
+						throw new IllegalStateException("The virtual mode needs a JDK 21 build with the java21 profile");
+					}
+					BenchmarkApplication.seed(context, employees);
+					String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+					Map<String, Recorder> results = run(baseUrl, employees, concurrency, warmup, duration);
+					results.forEach((request, recorder) -> recorder.print(config, mode, request, duration));
+				} finally {
+					context.close();
+				}
+			}
+		}
+	}
+
+	static Map<String, Recorder> run(String baseUrl, int employees, int concurrency, int warmupSeconds,
+			int durationSeconds) throws InterruptedException {
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10)).build();
+		Map<String, Recorder> results = new LinkedHashMap<>();
+		for (String request : List.of("list", "search", "create")) {
+			results.put(request, new Recorder());
+		}
+		long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+		long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+		ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			clients.execute(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				while (System.nanoTime() < stopAt) {
+					int draw = random.nextInt(100);
+					String request = draw < 60 ? "list" : draw < 90 ? "search" : "create";
+					HttpRequest httpRequest = switch (request) {
+					case "list" -> HttpRequest
+							.newBuilder(URI.create(baseUrl + "/show-employees?size=50&after=" + random.nextInt(employees)))
+							.GET().build();
+					case "search" -> form(baseUrl + "/search-employees",
+							"searchInput=" + encode(EmployeeFixtures.LAST_NAMES[random.nextInt(EmployeeFixtures.LAST_NAMES.length)]
+									+ random.nextInt(1000)));
+					default -> form(baseUrl + "/submit-new-employee",
+							"firstName=Load&lastName=Test&hireDate=2023-01-01&address=" + encode("1 A Street London England"));
+					};
+					long start = System.nanoTime();
+					boolean ok;
+					try {
+						ok = client.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+					} catch (Exception e) {
+						ok = false;
+					}
+					long end = System.nanoTime();
+					if (start >= measureFrom && end <= stopAt) {
+						results.get(request).record(end - start, ok);
+					}
+				}
+			});
+		}
+		clients.shutdown();
+		clients.awaitTermination(warmupSeconds + durationSeconds + 60L, TimeUnit.SECONDS);
+		return results;
+	}
+
+	private static HttpRequest form(String url, String body) {
+		return HttpRequest.newBuilder(URI.create(url)).header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+	static Map<String, String> options(String[] args) {
+		Map<String, String> options = new LinkedHashMap<>();
+		for (String arg : args) {
+			if (arg.startsWith("--") && arg.contains("=")) {
+				options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+			}
+		}
+		return options;
+	}
+
+	/**
+	 * Latencies of one request type, in nanoseconds.
+	 */
+	static final class Recorder {
+		private long[] latencies = new long[1024];
+		private int count;
+		private int errors;
+
+		synchronized void record(long nanos, boolean ok) {
+			if (!ok) {
+				errors++;
+			}
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = nanos;
+		}
+
+		synchronized void print(String config, String mode, String request, int durationSeconds) {
+			long[] sorted = Arrays.copyOf(latencies, count);
+			Arrays.sort(sorted);
+			System.out.printf("%-12s %-10s %-8s %9d %10.1f %8.2f %8.2f %8.2f %8.2f %7d%n", config, mode, request, count,
+					count / (double) durationSeconds, millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99),
+					millis(sorted, 1.0), errors);
+		}
+
+		private static double millis(long[] sorted, double percentile) {
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile * sorted.length) - 1;
+			return sorted[Math.max(0, index)] / 1_000_000.0;
+		}
+	}
+
+}
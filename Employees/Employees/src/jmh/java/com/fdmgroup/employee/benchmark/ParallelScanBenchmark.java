@@ -0,0 +1,79 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fdmgroup.employee.model.EmployeeView;
+import com.fdmgroup.employee.snapshot.EmployeeSnapshot;
+
+/**
+ * Scans of the snapshot by one request thread, with the fork-join pool of the
+ * snapshot sized from one thread up to one per processor ("0"). The
+ * substring, city, hire-date and search scans cover the predicates the
+ * finders evaluate; compare the scores across the threads parameter for the
+ * scaling on the host, which is bounded by its number of cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelScanBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class ScanState extends EmployeeDatabaseState {
+		@Param({ "1", "2", "4", "0" })
+		public int threads;
+
+		EmployeeSnapshot snapshot;
+
+		@Override
+		protected String[] properties() {
+			// A threshold of 1 keeps even the smallest trial parallel
+			return new String[] { "employee.snapshot.enabled=true", "employee.snapshot.parallel.threads=" + threads,
+					"employee.snapshot.parallel.threshold=1" };
+		}
+
+		@Setup(Level.Trial)
+		public void load() {
+			snapshot = context.getBean(EmployeeSnapshot.class);
+			System.out.println("Snapshot of " + snapshot.size() + " employees, " + threads + " threads, "
+					+ Runtime.getRuntime().availableProcessors() + " processors");
+		}
+	}
+
+	@Benchmark
+	public List<EmployeeView> addressContains(ScanState state) {
+		return state.snapshot.findByAddress("street 1");
+	}
+
+	@Benchmark
+	public List<EmployeeView> cityPrefix(ScanState state) {
+		return state.snapshot.findByCity("bra", true);
+	}
+
+	@Benchmark
+	public List<EmployeeView> hiredInAYear(ScanState state) {
+		return state.snapshot.findByHireDateBetween(LocalDate.of(2015, 1, 1), LocalDate.of(2015, 12, 31));
+	}
+
+	@Benchmark
+	public List<EmployeeView> searchTwoWords(ScanState state) {
+		return state.snapshot.search("ana wehbe");
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fdmgroup.employee.search.EmployeeSearchIndex;
+
+/**
+ * The first use of the search index after a restart: loading every employee
+ * from the database against reopening the snapshot written by a previous run,
+ * checked against the database by a count and the highest id.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchIndexReopenBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class IndexState extends EmployeeDatabaseState {
+		Path directory;
+
+		@Setup(Level.Trial)
+		public void persist() throws IOException {
+			directory = Files.createTempDirectory("search-index");
+			EmployeeSearchIndex index = open(directory.toString());
+			index.size();
+			index.close();
+			System.out.println("Snapshot: " + Files.size(directory.resolve("search-index.bin")) + " bytes");
+		}
+
+		@TearDown(Level.Trial)
+		public void delete() throws IOException {
+			try (Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+			}
+		}
+
+		EmployeeSearchIndex open(String directory) {
+			return new EmployeeSearchIndex(employeeRepository, 2, directory, 10000);
+		}
+	}
+
+	@Benchmark
+	public int loadFromDatabase(IndexState state) {
+		return state.open("").size();
+	}
+
+	@Benchmark
+	public int reopenFromDisk(IndexState state) {
+		EmployeeSearchIndex index = state.open(state.directory.toString());
+		int size = index.size();
+		index.close();
+		return size;
+	}
+
+}
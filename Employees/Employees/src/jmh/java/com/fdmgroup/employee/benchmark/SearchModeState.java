@@ -0,0 +1,21 @@
+package com.fdmgroup.employee.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A seeded database where the service searches either with the repository
+ * queries or with the in-memory search index.
+ */
+@State(Scope.Benchmark)
+public class SearchModeState extends EmployeeDatabaseState {
+	@Param({ "false", "true" })
+	public boolean searchIndex;
+
+	@Override
+	protected String[] properties() {
+		return new String[] { "employee.search.index.enabled=" + searchIndex };
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request of a freshly started application process, before and
+ * after the cold start measures of the startup profile. Every run starts a new
+ * JVM from the unpackaged jar built by the startup Maven profile and times it
+ * from launch until GET /api/employees?size=1 answers 200, which needs the web
+ * server, the database and JPA to be up.
+ *
+ * <pre>
+ * mvn -Pstartup package -DskipTests
+ * mvn -Pbenchmark test-compile exec:exec@startup-benchmark -Dstartup.args="--runs=5"
+ * </pre>
+ *
+ * Modes: default (no profile, the baseline), startup (the startup Spring
+ * profile: lazy beans and the SQL seed), aot (startup with the ahead-of-time
+ * processed beans) and cds (aot with the class-data-sharing archive). Options:
+ * --modes, --runs and --target (the Maven build directory).
+ */
+public class StartupBenchmark {
+	private static final Duration READY_TIMEOUT = Duration.ofSeconds(120);
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = HttpLoadTest.options(args);
+		List<String> modes = Arrays.asList(options.getOrDefault("modes", "default,startup,aot,cds").split(","));
+		int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+		Path target = Path.of(options.getOrDefault("target", "target"));
+		Path archive = target.resolve("startup/app.jsa");
+		String classpath = jar(target) + File.pathSeparator + target.resolve("startup/lib/*");
+
+		System.out.printf("%-8s %5s %8s %8s %8s%n", "mode", "runs", "min ms", "p50 ms", "max ms");
+		for (String mode : modes) {
+			long[] millis = new long[runs];
+			for (int run = 0; run < runs; run++) {
+				millis[run] = timeToFirstRequest(command(mode, classpath, archive), target.resolve(mode + ".log"));
+			}
+			Arrays.sort(millis);
+			System.out.printf("%-8s %5d %8d %8d %8d%n", mode, runs, millis[0], millis[runs / 2], millis[runs - 1]);
+		}
+	}
+
+	private static List<String> command(String mode, String classpath, Path archive) {
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		if (mode.equals("cds")) {
+			if (!Files.exists(archive)) {
+				throw new IllegalStateException("No " + archive + ", build it with mvn -Pstartup package");
+			}
+			command.add("-XX:SharedArchiveFile=" + archive);
+		}
+		if (mode.equals("aot") || mode.equals("cds")) {
+			command.add("-Dspring.aot.enabled=true");
+		}
+		command.add("-cp");
+		command.add(classpath);
+		command.add("com.fdmgroup.employee.EmployeesApplication");
+		if (!mode.equals("default")) {
+			command.add("--spring.profiles.active=startup");
+		}
+		return command;
+	}
+
+	private static long timeToFirstRequest(List<String> command, Path log) throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		List<String> withPort = new ArrayList<>(command);
+		withPort.add("--server.port=" + port);
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?size=1"))
+				.build();
+
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(withPort).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+		try {
+			while (System.nanoTime() - start < READY_TIMEOUT.toNanos()) {
+				if (!process.isAlive()) {
+					throw new IllegalStateException("The application exited with " + process.exitValue() + ", see " + log);
+				}
+				try {
+					if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+					}
+				} catch (ConnectException e) {
+					// Not listening yet
+				}
+				Thread.sleep(5);
+			}
+			throw new IllegalStateException("No response within " + READY_TIMEOUT + ", see " + log);
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	// The jar left unpackaged by the startup profile, with the AOT processed beans in it
+	private static Path jar(Path target) throws IOException {
+		try (var files = Files.list(target)) {
+			return files.filter(file -> file.toString().endsWith(".jar")).findFirst()
+					.orElseThrow(() -> new IllegalStateException("No jar in " + target + ", run mvn -Pstartup package"));
+		}
+	}
+
+}
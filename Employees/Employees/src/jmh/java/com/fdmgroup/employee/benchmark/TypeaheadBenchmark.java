@@ -0,0 +1,81 @@
+package com.fdmgroup.employee.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.SearchKeys;
+import com.fdmgroup.employee.search.PrefixTrie;
+import com.fdmgroup.employee.search.Suggestion;
+
+/**
+ * Typeahead lookups in the prefix trie of full names, without a database or
+ * HTTP, with the trie filled like EmployeeTypeahead fills it. SampleTime
+ * reports the percentiles of a single lookup; "add" is the cost createEmployee
+ * pays to keep the trie in step.
+ */
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TypeaheadBenchmark {
+
+	@Param({ "100000", "1000000" })
+	public int employees;
+
+	PrefixTrie fullNames;
+	int added;
+
+	@Setup
+	public void setUp() {
+		fullNames = new PrefixTrie(10);
+		for (Employee employee : EmployeeFixtures.employees(employees, 42)) {
+			add(employee.getFirstName() + " " + employee.getLastName());
+		}
+	}
+
+	@Benchmark
+	public List<Suggestion> oneLetter() {
+		return fullNames.complete(SearchKeys.fold("A"), 10);
+	}
+
+	@Benchmark
+	public List<Suggestion> firstName() {
+		return fullNames.complete(SearchKeys.fold("Anastasia"), 10);
+	}
+
+	@Benchmark
+	public List<Suggestion> fullName() {
+		return fullNames.complete(SearchKeys.fold("Anastasiab Alex"), 10);
+	}
+
+	@Benchmark
+	public List<Suggestion> noMatch() {
+		return fullNames.complete(SearchKeys.fold("Zz"), 10);
+	}
+
+	@Benchmark
+	public int add() {
+		add("Daliah Wehbe" + (added++ % 1000));
+		return fullNames.size();
+	}
+
+	private void add(String fullName) {
+		fullNames.add(SearchKeys.fold(fullName), fullName, 1);
+	}
+
+}
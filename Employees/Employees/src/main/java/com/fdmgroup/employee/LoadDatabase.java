@@ -1,9 +1,12 @@
 package com.fdmgroup.employee;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 
 import com.fdmgroup.employee.repository.*;
 import com.fdmgroup.employee.model.*;
@@ -13,26 +16,39 @@ import com.fdmgroup.employee.model.Employee;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
 
 @Configuration
 @Profile("!test") 
 public class LoadDatabase {
+	// The same employees as below, as one INSERT with their keys and address parts filled in
+	static final String SEED_SCRIPT = "db/seed/employees.sql";
 
+	// Where the seed employees come from, see employee.seed.mode
+	enum SeedMode {
+		REPOSITORY, SQL, NONE
+	}
 
 	@Bean
-	CommandLineRunner initDatabase(EmployeeRepository employeeRepository) {
+	CommandLineRunner initDatabase(EmployeeRepository employeeRepository, DataSource dataSource,
+			@Value("${employee.seed.mode:repository}") SeedMode seedMode) {
 		return args -> {
+			if (seedMode == SeedMode.NONE) {
+				return;
+			}
+			if (seedMode == SeedMode.SQL) {
+				new ResourceDatabasePopulator(new ClassPathResource(SEED_SCRIPT)).execute(dataSource);
+				return;
+			}
 			Employee employee1 = new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England");
 			Employee employee2 = new Employee("Anya", "Wehbe",  LocalDate.of(2019, 6, 17), "23 B Street Manchester England");
 			Employee employee3 = new Employee("Anastasia", "Alexandrovna",  LocalDate.of(2019, 6, 17), "24 C Street Moscow Russia");
 			Employee employee4 = new Employee("Madalina", "Acasandrei",  LocalDate.of(2019, 6, 17), "25 D Street Brasov Romania");
 			Employee employee5 = new Employee("Robert", "Daniel",  LocalDate.of(2019, 6, 17), "26 E Street Cluj-Napoca Romania");
 		
-			employeeRepository.save(employee1);
-			employeeRepository.save(employee2);
-			employeeRepository.save(employee3);
-			employeeRepository.save(employee4);
-			employeeRepository.save(employee5);
+			employeeRepository.saveAll(List.of(employee1, employee2, employee3, employee4, employee5));
 		};
 	}
 }
@@ -0,0 +1,229 @@
+package com.fdmgroup.employee.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.SearchKeys;
+import com.fdmgroup.employee.search.EmployeeSearchEngine;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded caches for employees by id and for the results of the search
+ * queries, keyed by the case-folded search term. Both caches evict with
+ * Caffeine's W-TinyLFU policy and expire entries after a time to live.
+ *
+ * A created employee only evicts the cached results it could appear in: a
+ * first-name search is dropped if the new first name contains its term, and
+ * so on. When the cache is disabled every call goes straight to the loader.
+ * A result that was loading while results were evicted is returned but not
+ * cached, as it may have been read before the new employee was saved.
+ *
+ * The statistics of both caches are published as the cache.* meters, tagged
+ * with the cache name.
+ */
+@Component
+public class EmployeeCache implements MeterBinder {
+	// Above this many new employees, dropping every cached result is cheaper than matching them
+	private final static int BULK_INVALIDATION_THRESHOLD = 100;
+
+	/**
+	 * The cached queries, each with the rule deciding whether a new employee
+	 * changes its result.
+	 */
+	public enum Query {
+		FIRST_NAME, LAST_NAME, ADDRESS, FULL_NAME, SEARCH;
+
+		boolean affectedBy(Employee employee, String term) {
+			switch (this) {
+			case FIRST_NAME:
+				return fold(employee.getFirstName()).contains(term);
+			case LAST_NAME:
+				return fold(employee.getLastName()).contains(term);
+			case ADDRESS:
+				return fold(employee.getAddress()).contains(term);
+			case FULL_NAME:
+				return term.equals(fullNameTerm(employee.getFirstName(), employee.getLastName()));
+			default:
+				return EmployeeSearchEngine.matches(employee, term);
+			}
+		}
+	}
+
+	record QueryKey(Query query, String term) {
+	}
+
+	private final boolean enabled;
+	private final Cache<Integer, Employee> employees;
+	private final Cache<QueryKey, List<Employee>> queries;
+	// Counts evictions of query results, so a load can tell whether one ran meanwhile
+	private final AtomicLong invalidations = new AtomicLong();
+
+	/**
+	 * @param enabled             - Whether results are cached at all.
+	 * @param employeesMaximumSize - The maximum number of employees cached by id.
+	 * @param queriesMaximumSize  - The maximum number of cached query results.
+	 * @param timeToLive          - How long an entry stays cached after it was
+	 *                            loaded.
+	 */
+	@Autowired
+	public EmployeeCache(@Value("${employee.cache.enabled:false}") boolean enabled,
+			@Value("${employee.cache.employees.maximum-size:10000}") long employeesMaximumSize,
+			@Value("${employee.cache.queries.maximum-size:1000}") long queriesMaximumSize,
+			@Value("${employee.cache.time-to-live:10m}") Duration timeToLive) {
+		this.enabled = enabled;
+		this.employees = Caffeine.newBuilder().maximumSize(employeesMaximumSize).expireAfterWrite(timeToLive)
+				.recordStats().build();
+		this.queries = Caffeine.newBuilder().maximumSize(queriesMaximumSize).expireAfterWrite(timeToLive)
+				.recordStats().build();
+	}
+
+	/**
+	 * Returns the cached employee with the given id, loading it on a miss.
+	 * Missing employees are not cached.
+	 *
+	 * @param id     - The employee id.
+	 * @param loader - Loads the employee, or returns null if it does not exist.
+	 * @return - The employee, or null.
+	 */
+	public Employee getEmployee(int id, IntFunction<Employee> loader) {
+		if (!enabled) {
+			return loader.apply(id);
+		}
+		return employees.get(id, key -> loader.apply(key));
+	}
+
+	/**
+	 * Returns the cached result of a query, loading it on a miss. Cached results
+	 * are unmodifiable.
+	 *
+	 * @param query  - The query.
+	 * @param term   - The search term; terms differing only by case share an
+	 *               entry.
+	 * @param loader - Runs the query.
+	 * @return - The query result.
+	 */
+	public List<Employee> query(Query query, String term, Supplier<List<Employee>> loader) {
+		if (!enabled) {
+			return loader.get();
+		}
+		QueryKey key = new QueryKey(query, fold(term));
+		List<Employee> cached = queries.getIfPresent(key);
+		if (cached != null) {
+			return cached;
+		}
+		long invalidationsBefore = invalidations.get();
+		List<Employee> result = List.copyOf(loader.get());
+		// An eviction counts before it removes, so a result put after the check is still removed
+		queries.asMap().compute(key,
+				(ignored, current) -> invalidations.get() == invalidationsBefore ? result : current);
+		return result;
+	}
+
+	/**
+	 * @param firstName - The first name.
+	 * @param lastName  - The last name.
+	 * @return - The term under which an exact full-name query is cached.
+	 */
+	public static String fullNameTerm(String firstName, String lastName) {
+		// NUL cannot be typed into the search form, so it separates the two names unambiguously
+		return fold(firstName) + '\0' + fold(lastName);
+	}
+
+	/**
+	 * Caches a newly saved employee and evicts the query results it belongs to.
+	 *
+	 * @param employee - The saved employee.
+	 */
+	public void employeeCreated(Employee employee) {
+		if (!enabled) {
+			return;
+		}
+		employees.put(employee.getId(), employee);
+		invalidations.incrementAndGet();
+		queries.asMap().keySet().removeIf(key -> key.query().affectedBy(employee, key.term()));
+	}
+
+	/**
+	 * Evicts the query results affected by a batch of new employees.
+	 *
+	 * @param created - The saved employees.
+	 */
+	public void employeesCreated(Collection<Employee> created) {
+		if (!enabled) {
+			return;
+		}
+		if (created.size() > BULK_INVALIDATION_THRESHOLD) {
+			invalidations.incrementAndGet();
+			queries.invalidateAll();
+			return;
+		}
+		created.forEach(this::employeeCreated);
+	}
+
+	/**
+	 * @return - The statistics of both caches.
+	 */
+	public List<CacheReport> report() {
+		// Run pending evictions so that the sizes and counters are current
+		employees.cleanUp();
+		queries.cleanUp();
+		return List.of(CacheReport.of("employees", employees.estimatedSize(), employees.stats()),
+				CacheReport.of("queries", queries.estimatedSize(), queries.stats()));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, employees, "employees");
+		CaffeineCacheMetrics.monitor(registry, queries, "queries");
+	}
+
+	/**
+	 * Drops every cached entry.
+	 */
+	public void clear() {
+		employees.invalidateAll();
+		invalidations.incrementAndGet();
+		queries.invalidateAll();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	private static String fold(String value) {
+		return value == null ? "" : SearchKeys.fold(value);
+	}
+
+	/**
+	 * Counters of one cache.
+	 *
+	 * @param name      - The cache name.
+	 * @param size      - The approximate number of entries.
+	 * @param hits      - Lookups answered from the cache.
+	 * @param misses    - Lookups that ran the loader.
+	 * @param evictions - Entries removed by the size or time bound.
+	 * @param hitRate   - Hits divided by lookups.
+	 */
+	public record CacheReport(String name, long size, long hits, long misses, long evictions, double hitRate) {
+		static CacheReport of(String name, long size, CacheStats stats) {
+			return new CacheReport(name, size, stats.hitCount(), stats.missCount(), stats.evictionCount(),
+					stats.hitRate());
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.fdmgroup.employee.cache;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import com.fdmgroup.employee.model.Employee;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * The table row of every employee listed, rendered to HTML once and kept by
+ * id, so that a listing concatenates cached rows instead of evaluating and
+ * escaping every field again.
+ *
+ * A cached row remembers the fields it was rendered from and is only reused
+ * while the employee still has them: an employee changed through any write
+ * path, the bulk import and the write-behind queue included, is rendered again
+ * on its next listing. When the cache is disabled every row is rendered.
+ *
+ * The statistics are published as the cache.* meters of the "rows" cache.
+ */
+@Component
+public class EmployeeRowCache implements MeterBinder {
+
+	/**
+	 * A rendered row and the fields it shows.
+	 */
+	record Row(String firstName, String lastName, LocalDate hireDate, String address, String html) {
+		boolean shows(Employee employee) {
+			return Objects.equals(firstName, employee.getFirstName()) && Objects.equals(lastName, employee.getLastName())
+					&& Objects.equals(hireDate, employee.getHireDate()) && Objects.equals(address, employee.getAddress());
+		}
+	}
+
+	private final boolean enabled;
+	private final Cache<Integer, Row> rows;
+
+	/**
+	 * @param enabled     - Whether rendered rows are cached and listings use
+	 *                    them.
+	 * @param maximumSize - The maximum number of cached rows.
+	 */
+	@Autowired
+	public EmployeeRowCache(@Value("${employee.render.row-cache.enabled:false}") boolean enabled,
+			@Value("${employee.render.row-cache.maximum-size:100000}") long maximumSize) {
+		this.enabled = enabled;
+		this.rows = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+	}
+
+	/**
+	 * @param employee - The employee to show.
+	 * @return - The table row of the employee, ending with a line break.
+	 */
+	public String row(Employee employee) {
+		if (!enabled) {
+			return render(employee);
+		}
+		Row row = rows.getIfPresent(employee.getId());
+		if (row == null || !row.shows(employee)) {
+			row = new Row(employee.getFirstName(), employee.getLastName(), employee.getHireDate(),
+					employee.getAddress(), render(employee));
+			rows.put(employee.getId(), row);
+		}
+		return row.html();
+	}
+
+	/**
+	 * @param employees - The employees to show.
+	 * @return - The table rows of the employees, in order.
+	 */
+	public String rows(List<Employee> employees) {
+		// Rows are rarely longer than this, so the builder seldom grows
+		StringBuilder html = new StringBuilder(employees.size() * 128);
+		for (Employee employee : employees) {
+			html.append(row(employee));
+		}
+		return html.toString();
+	}
+
+	/**
+	 * @param employee - The employee to show.
+	 * @return - The table row of the employee, the cells escaped as th:text
+	 *         escapes them.
+	 */
+	static String render(Employee employee) {
+		return "\t\t\t<tr><td>" + employee.getId() + "</td><td>" + escape(employee.getFirstName()) + "</td><td>"
+				+ escape(employee.getLastName()) + "</td><td>" + escape(employee.getHireDate()) + "</td><td>"
+				+ escape(employee.getAddress()) + "</td></tr>\n";
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, rows, "rows");
+	}
+
+	/**
+	 * Drops every cached row.
+	 */
+	public void clear() {
+		rows.invalidateAll();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	// Renders null as an empty cell, like th:text does
+	private static String escape(Object value) {
+		return value == null ? "" : HtmlUtils.htmlEscape(value.toString());
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.fdmgroup.employee.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Lets at most as many repository calls run at once as there are connections
+ * in the pool. With a virtual thread per request there is no worker pool to
+ * bound concurrency, so without this every waiting request would sit inside
+ * the connection pool until its connection timeout.
+ *
+ * Calls made inside a transaction already hold their connection and are not
+ * counted again.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "employee.virtual-threads.enabled", havingValue = "true")
+public class ConnectionPoolLimiter {
+	private final Semaphore permits;
+	private final long timeoutMillis;
+
+	/**
+	 * @param maximumPoolSize - The size of the connection pool.
+	 * @param timeoutMillis   - How long a call waits for a permit before failing.
+	 */
+	@Autowired
+	public ConnectionPoolLimiter(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+			@Value("${spring.datasource.hikari.connection-timeout:30000}") long timeoutMillis) {
+		this.permits = new Semaphore(maximumPoolSize, true);
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	@Around("target(com.fdmgroup.employee.repository.EmployeeRepository)")
+	public Object limit(ProceedingJoinPoint call) throws Throwable {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return call.proceed();
+		}
+		if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+			throw new CannotGetJdbcConnectionException(
+					"No database connection became available within " + timeoutMillis + " ms");
+		}
+		try {
+			return call.proceed();
+		} finally {
+			permits.release();
+		}
+	}
+
+	public int availablePermits() {
+		return permits.availablePermits();
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.fdmgroup.employee.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops the application as soon as it is ready when
+ * employee.startup.exit-on-ready is true. The startup build profile runs the
+ * application this way once to record the classes it loads into a
+ * class-data-sharing archive. The property is read when the event arrives, not
+ * through a condition, because an AOT build fixes its conditions at build
+ * time.
+ */
+@Component
+public class TrainingRunExit implements ApplicationListener<ApplicationReadyEvent> {
+	private final static Logger log = LoggerFactory.getLogger(TrainingRunExit.class);
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		if (event.getApplicationContext().getEnvironment().getProperty("employee.startup.exit-on-ready",
+				Boolean.class, false)) {
+			log.info("Training run finished, exiting");
+			System.exit(SpringApplication.exit(event.getApplicationContext()));
+		}
+	}
+
+}
@@ -0,0 +1,356 @@
+package com.fdmgroup.employee.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.EmployeeQuery;
+import com.fdmgroup.employee.model.EmployeeView;
+import com.fdmgroup.employee.search.Suggestion;
+import com.fdmgroup.employee.search.TypeaheadField;
+import com.fdmgroup.employee.service.EmployeeLocationService;
+import com.fdmgroup.employee.service.EmployeeQueryResult;
+import com.fdmgroup.employee.service.EmployeeQueryService;
+import com.fdmgroup.employee.service.EmployeeService;
+import com.fdmgroup.employee.service.EmployeeTenureService;
+import com.fdmgroup.employee.service.EmployeeViewPage;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * JSON API over the employees, next to the HTML views of EmployeeController.
+ *
+ * Every GET response carries the version of the employee data as its ETag. A
+ * request whose If-None-Match still matches is answered with 304 Not Modified
+ * before any query runs.
+ */
+@RestController
+@RequestMapping("/api/employees")
+public class EmployeeApiController {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeApiController.class);
+	private EmployeeService employeeService;
+	private EmployeeLocationService locationService;
+	private EmployeeTenureService tenureService;
+	private EmployeeQueryService queryService;
+	private ObjectMapper objectMapper;
+	private ObjectWriter viewWriter;
+
+	@Autowired
+	public EmployeeApiController(EmployeeService employeeService, EmployeeLocationService locationService,
+			EmployeeTenureService tenureService, EmployeeQueryService queryService, ObjectMapper objectMapper) {
+		this.employeeService = employeeService;
+		this.locationService = locationService;
+		this.tenureService = tenureService;
+		this.queryService = queryService;
+		this.objectMapper = objectMapper;
+		// Rows are flushed by the response buffer, not one by one
+		this.viewWriter = objectMapper.writerFor(EmployeeView.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	/**
+	 * Lists all employees, or one page of them when a page size is given, as
+	 * {"employees": [...], "nextCursor": id or null}. The employees are written
+	 * to the response as they are read, without building the list first.
+	 *
+	 * @param pageSize - The number of employees per page, or null for all.
+	 * @param afterId  - The last id of the previous page.
+	 * @param request  - The request, checked for a matching If-None-Match.
+	 * @param response - The response the JSON is written to.
+	 * @throws IOException - If the response cannot be written.
+	 */
+	@GetMapping
+	public void listEmployees(@RequestParam(name = "size", required = false) Integer pageSize,
+			@RequestParam(name = "after", defaultValue = "0") int afterId, ServletWebRequest request,
+			HttpServletResponse response) throws IOException {
+		log.info("Entering listEmployees");
+		if (notModified(request)) {
+			log.info("Exiting listEmployees");
+			return;
+		}
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		try (JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+			json.writeStartObject();
+			json.writeArrayFieldStart("employees");
+			Integer nextCursor = null;
+			if (pageSize == null) {
+				employeeService.streamAllViews(view -> write(json, view));
+			} else {
+				EmployeeViewPage page = employeeService.listViewPage(afterId, pageSize);
+				page.employees().forEach(view -> write(json, view));
+				nextCursor = page.nextCursor();
+			}
+			json.writeEndArray();
+			json.writeFieldName("nextCursor");
+			if (nextCursor == null) {
+				json.writeNull();
+			} else {
+				json.writeNumber(nextCursor);
+			}
+			json.writeEndObject();
+		}
+		log.info("Exiting listEmployees");
+	}
+
+	/**
+	 * Retrieves an employee by their ID.
+	 *
+	 * @param id      - The ID of the employee.
+	 * @param request - The request, checked for a matching If-None-Match.
+	 * @return - The employee, or 404 if there is none with this ID.
+	 */
+	@GetMapping("/{id}")
+	public ResponseEntity<EmployeeView> getEmployee(@PathVariable("id") int id, ServletWebRequest request) {
+		log.info("Entering getEmployee");
+		if (notModified(request)) {
+			log.info("Exiting getEmployee");
+			return null;
+		}
+		EmployeeView view = employeeService.getView(id);
+		log.info("Exiting getEmployee");
+		return view == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(view);
+	}
+
+	/**
+	 * Searches employees by first name, last name or both, ranked as on the
+	 * search page.
+	 *
+	 * @param searchInput - The search input.
+	 * @param fuzzy       - Whether to tolerate typos in the names.
+	 * @param request     - The request, checked for a matching If-None-Match.
+	 * @return - The matching employees.
+	 */
+	@GetMapping("/search")
+	public List<EmployeeView> searchEmployees(@RequestParam("q") String searchInput,
+			@RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy, ServletWebRequest request) {
+		log.info("Entering searchEmployees");
+		if (notModified(request)) {
+			log.info("Exiting searchEmployees");
+			return null;
+		}
+		List<EmployeeView> views = fuzzy
+				? employeeService.searchEmployees(searchInput, true).stream().map(EmployeeView::of).toList()
+				: employeeService.searchViews(searchInput);
+		log.info("Exiting searchEmployees");
+		return views;
+	}
+
+	/**
+	 * Completes what is typed in a search box, as [{"value": ..., "count": n}],
+	 * the values shared by the most employees first. Answered from an in-memory
+	 * prefix trie, for example ?field=lastName&amp;prefix=weh.
+	 *
+	 * @param field   - "firstName", "lastName", "fullName" or "city".
+	 * @param prefix  - The start of the value, compared without case and accents.
+	 * @param limit   - The largest number of completions.
+	 * @param request - The request, checked for a matching If-None-Match.
+	 * @return - The completions, or 400 for an unknown field.
+	 */
+	@GetMapping("/suggestions")
+	public ResponseEntity<List<Suggestion>> suggest(@RequestParam("field") String field,
+			@RequestParam(name = "prefix", defaultValue = "") String prefix,
+			@RequestParam(name = "limit", defaultValue = "10") int limit, ServletWebRequest request) {
+		log.info("Entering suggest");
+		if (notModified(request)) {
+			log.info("Exiting suggest");
+			return null;
+		}
+		try {
+			List<Suggestion> suggestions = employeeService.suggest(TypeaheadField.fromParameter(field), prefix, limit);
+			log.info("Exiting suggest");
+			return ResponseEntity.ok(suggestions);
+		} catch (IllegalArgumentException e) {
+			log.info("Exiting suggest");
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Lists the employees matching any combination of criteria, as
+	 * {"employees": [...], "total": n, "totalExact": true or false}. The
+	 * criteria run as one query, sorted and limited by the database, for
+	 * example ?lastName=wehbe&amp;country=England&amp;hiredFrom=2019-01-01&amp;hiredTo=2019-12-31.
+	 *
+	 * @param query   - The criteria, sort and limit.
+	 * @param request - The request, checked for a matching If-None-Match.
+	 * @return - The first matching employees and their total, or 400 for an
+	 *         unsupported sort.
+	 */
+	@GetMapping("/query")
+	public ResponseEntity<EmployeeQueryResult> queryEmployees(@ModelAttribute EmployeeQuery query,
+			ServletWebRequest request) {
+		log.info("Entering queryEmployees");
+		if (notModified(request)) {
+			log.info("Exiting queryEmployees");
+			return null;
+		}
+		try {
+			EmployeeQueryResult result = queryService.query(query);
+			log.info("Exiting queryEmployees");
+			return ResponseEntity.ok(result);
+		} catch (IllegalArgumentException e) {
+			log.info("Exiting queryEmployees");
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Lists the employees of a city, parsed from their addresses.
+	 *
+	 * @param city    - The city.
+	 * @param prefix  - Whether the city only needs to start with the provided one.
+	 * @param request - The request, checked for a matching If-None-Match.
+	 * @return - The employees of the city.
+	 */
+	@GetMapping("/by-city")
+	public List<EmployeeView> listByCity(@RequestParam("city") String city,
+			@RequestParam(name = "prefix", defaultValue = "false") boolean prefix, ServletWebRequest request) {
+		log.info("Entering listByCity");
+		if (notModified(request)) {
+			log.info("Exiting listByCity");
+			return null;
+		}
+		List<EmployeeView> views = locationService.listViewsByCity(city, prefix);
+		log.info("Exiting listByCity");
+		return views;
+	}
+
+	/**
+	 * Lists the employees of a country, parsed from their addresses.
+	 *
+	 * @param country - The country.
+	 * @param prefix  - Whether the country only needs to start with the provided
+	 *                one.
+	 * @param request - The request, checked for a matching If-None-Match.
+	 * @return - The employees of the country.
+	 */
+	@GetMapping("/by-country")
+	public List<EmployeeView> listByCountry(@RequestParam("country") String country,
+			@RequestParam(name = "prefix", defaultValue = "false") boolean prefix, ServletWebRequest request) {
+		log.info("Entering listByCountry");
+		if (notModified(request)) {
+			log.info("Exiting listByCountry");
+			return null;
+		}
+		List<EmployeeView> views = locationService.listViewsByCountry(country, prefix);
+		log.info("Exiting listByCountry");
+		return views;
+	}
+
+	/**
+	 * Lists the employees hired between two dates.
+	 *
+	 * @param from    - The first hire date, as 2019-06-17.
+	 * @param to      - The last hire date.
+	 * @param request - The request, checked for a matching If-None-Match.
+	 * @return - The employees hired in the range, earliest first.
+	 */
+	@GetMapping("/hired")
+	public List<EmployeeView> listHiredBetween(
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			ServletWebRequest request) {
+		log.info("Entering listHiredBetween");
+		if (notModified(request)) {
+			log.info("Exiting listHiredBetween");
+			return null;
+		}
+		List<EmployeeView> views = tenureService.listViewsHiredBetween(from, to);
+		log.info("Exiting listHiredBetween");
+		return views;
+	}
+
+	/**
+	 * Lists the employees whose work anniversary falls between two dates, by
+	 * default in the seven days from today.
+	 *
+	 * @param from    - The first day, or null for today.
+	 * @param to      - The last day, or null for six days after the first.
+	 * @param request - The request, checked for a matching If-None-Match.
+	 * @return - The employees, each once, in the order of their first
+	 *         anniversary in the range.
+	 */
+	@GetMapping("/anniversaries")
+	public List<EmployeeView> listAnniversaries(
+			@RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			ServletWebRequest request) {
+		log.info("Entering listAnniversaries");
+		LocalDate first = from != null ? from : LocalDate.now();
+		LocalDate last = to != null ? to : first.plusDays(6);
+		// The days are part of the ETag, as the default window moves every midnight
+		if (notModified(request, first + ":" + last)) {
+			log.info("Exiting listAnniversaries");
+			return null;
+		}
+		List<EmployeeView> views = tenureService.listAnniversaries(first, last).stream().map(EmployeeView::of)
+				.toList();
+		log.info("Exiting listAnniversaries");
+		return views;
+	}
+
+	/**
+	 * Creates an employee from the JSON request body; its id is ignored.
+	 *
+	 * @param view - The employee details.
+	 * @return - 201 with the created employee and its location, or 400 if a field
+	 *         is missing.
+	 */
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<EmployeeView> createEmployee(@RequestBody EmployeeView view) {
+		log.info("Entering createEmployee");
+		Employee saved = employeeService.createEmployee(view.toEmployee());
+		log.info("Exiting createEmployee");
+		if (saved == null) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.created(URI.create("/api/employees/" + saved.getId())).body(EmployeeView.of(saved));
+	}
+
+	// Sets the ETag of the current data and tells whether the client already has it
+	private boolean notModified(ServletWebRequest request) {
+		request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+		return request.checkNotModified(employeeService.dataVersion());
+	}
+
+	// As above, for a response that also depends on what the request resolved
+	// to rather than only on its URL
+	private boolean notModified(ServletWebRequest request, String variant) {
+		request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+		return request.checkNotModified(employeeService.dataVersion() + ":" + variant);
+	}
+
+	private void write(JsonGenerator json, EmployeeView view) {
+		try {
+			viewWriter.writeValue(json, view);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
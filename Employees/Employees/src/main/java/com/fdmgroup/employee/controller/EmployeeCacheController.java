@@ -0,0 +1,31 @@
+package com.fdmgroup.employee.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fdmgroup.employee.cache.EmployeeCache;
+import com.fdmgroup.employee.cache.EmployeeCache.CacheReport;
+
+@RestController
+public class EmployeeCacheController {
+	private EmployeeCache employeeCache;
+
+	@Autowired
+	public EmployeeCacheController(EmployeeCache employeeCache) {
+		this.employeeCache = employeeCache;
+	}
+
+	/**
+	 * Reports the size, hits, misses and evictions of the employee caches.
+	 * 
+	 * @return - One report per cache, serialized as JSON.
+	 */
+	@GetMapping("/cache-stats")
+	public List<CacheReport> displayCacheStats() {
+		return employeeCache.report();
+	}
+
+}
@@ -1,5 +1,6 @@
 package com.fdmgroup.employee.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -14,18 +15,27 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.fdmgroup.employee.cache.EmployeeRowCache;
 import com.fdmgroup.employee.model.Employee;
 import com.fdmgroup.employee.repository.EmployeeRepository;
 import com.fdmgroup.employee.service.*;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 @Controller
 public class EmployeeController {
 	private final static Logger log = LoggerFactory.getLogger(Controller.class);
+	private final static int STREAM_FLUSH_ROWS = 100;
 	private EmployeeService employeeService;
+	private EmployeeWriteBehindService writeBehindService;
+	private EmployeeRowCache rowCache;
 
 	@Autowired
-	public EmployeeController(EmployeeService employeeService) {
+	public EmployeeController(EmployeeService employeeService, EmployeeWriteBehindService writeBehindService,
+			EmployeeRowCache rowCache) {
 		this.employeeService = employeeService;
+		this.writeBehindService = writeBehindService;
+		this.rowCache = rowCache;
 	}
 
 	/**
@@ -48,7 +58,9 @@ public class EmployeeController {
 	}
 
 	/**
-	 * Handles the submission of a new employee form.
+	 * Handles the submission of a new employee form. With write-behind enabled a
+	 * new employee is queued instead of saved, and the employee list shows the
+	 * ticket it can be followed with.
 	 * 
 	 * @param employee           - An instance of the Employee class containing the
 	 *                           employee details.
@@ -59,7 +71,10 @@ public class EmployeeController {
 	@PostMapping("/submit-new-employee")
 	public String handleSubmitNewEmployee(@ModelAttribute Employee employee, RedirectAttributes redirectAttributes) {
 		log.info("Entering handleSubmitNewEmployee");
-		log.info("Creating employee: " + employee);
+		log.info("Creating employee: {}", employee);
+		if (writeBehindService.isEnabled() && employee.getId() == 0) {
+			return submitNewEmployee(employee, redirectAttributes);
+		}
 		if (employeeService.createEmployee(employee) == null) {
 			redirectAttributes.addFlashAttribute("errorMessage",
 					"Unable to add Employee, please check that all fields are filled in.");
@@ -71,34 +86,91 @@ public class EmployeeController {
 		return "redirect:/show-employees";
 	}
 
+	private String submitNewEmployee(Employee employee, RedirectAttributes redirectAttributes) {
+		EmployeeTicket ticket;
+		try {
+			ticket = writeBehindService.submit(employee);
+		} catch (WriteBehindQueueFullException e) {
+			redirectAttributes.addFlashAttribute("errorMessage",
+					"Too many employees are being added right now, please try again.");
+			redirectAttributes.addFlashAttribute("employee", employee);
+			log.info("Exiting handleSubmitNewEmployee");
+			return "redirect:/create-employee";
+		}
+		if (ticket == null) {
+			redirectAttributes.addFlashAttribute("errorMessage",
+					"Unable to add Employee, please check that all fields are filled in.");
+			redirectAttributes.addFlashAttribute("employee", employee);
+			log.info("Exiting handleSubmitNewEmployee");
+			return "redirect:/create-employee";
+		}
+		redirectAttributes.addFlashAttribute("message",
+				"Employee queued, follow it at /employee-tickets/" + ticket.id());
+		log.info("Exiting handleSubmitNewEmployee");
+		return "redirect:/show-employees";
+	}
+
 	/**
-	 * Displays the list of all employees.
-	 * 
-	 * @param model - The model object to add attributes.
+	 * Displays the list of all employees, or one page of it when a page size is
+	 * given.
+	 *
+	 * @param model    - The model object to add attributes.
+	 * @param pageSize - The number of employees per page, or null to show all.
+	 * @param afterId  - The last id of the previous page.
 	 * @return - The view name for the showEmployees page.
 	 */
 	@GetMapping("/show-employees")
-	public String displayShowEmployees(Model model) {
+	public String displayShowEmployees(Model model, @RequestParam(name = "size", required = false) Integer pageSize,
+			@RequestParam(name = "after", defaultValue = "0") int afterId) {
 		log.info("Entering displayShowEmployee");
 		log.info("Showing employees");
-		model.addAttribute("employees", employeeService.listAll());
+		if (pageSize == null) {
+			addEmployees(model, employeeService.listAll());
+		} else {
+			EmployeePage page = employeeService.listPage(afterId, pageSize);
+			addEmployees(model, page.employees());
+			model.addAttribute("pageSize", pageSize);
+			model.addAttribute("nextCursor", page.nextCursor());
+		}
 		// log.info("employees deployed: " + employeeService.listAll());
 		log.info("Exiting displayShowEmployee");
 		return "showEmployees";
 	}
 
+	/**
+	 * Streams the list of all employees, writing each table row as soon as it is
+	 * read from the database.
+	 *
+	 * @param response - The response the page is written to.
+	 * @throws IOException - If the response writer cannot be obtained.
+	 */
+	@GetMapping("/show-employees/stream")
+	public void streamShowEmployees(HttpServletResponse response) throws IOException {
+		log.info("Entering streamShowEmployees");
+		response.setContentType("text/html;charset=UTF-8");
+		EmployeeTableWriter tableWriter = new EmployeeTableWriter(response.getWriter(), STREAM_FLUSH_ROWS, rowCache);
+		tableWriter.writeHeader();
+		employeeService.streamAll(tableWriter::writeRow);
+		tableWriter.writeFooter();
+		log.info("Exiting streamShowEmployees");
+	}
+
 	/**
 	 * Handles the search by address functionality.
 	 * 
 	 * @param model   - The model object to add attributes.
 	 * @param address - The address to search for.
+	 * @param fuzzy   - Whether to tolerate typos.
 	 * @return - The view name for the showEmployees page.
 	 */
 	@PostMapping("search-by-address")
-	public String handleSearchByAdress(Model model, @RequestParam("address") String address) {
+	public String handleSearchByAdress(Model model, @RequestParam("address") String address,
+			@RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy) {
 		log.info("Entering handleSearchByAdress");
-		if (!employeeService.listByAddress(address).isEmpty()) {
-			model.addAttribute("employees", employeeService.listByAddress(address));
+		List<Employee> employees = fuzzy ? employeeService.listByAddress(address, true)
+				: employeeService.listByAddress(address);
+		if (!employees.isEmpty()) {
+			addEmployees(model, employees);
 			log.info("Exiting handleSearchByAdress");
 			return "showEmployees";
 		}
@@ -111,13 +183,17 @@ public class EmployeeController {
 	 * 
 	 * @param model     - The model object to add attributes.
 	 * @param firstName - The first name to search for.
+	 * @param fuzzy     - Whether to tolerate typos.
 	 * @return - The view name for the showEmployees page.
 	 */
 	@PostMapping("search-by-name")
-	public String handleSearchByFirstName(Model model, @RequestParam("firstName") String firstName) {
+	public String handleSearchByFirstName(Model model, @RequestParam("firstName") String firstName,
+			@RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy) {
 		log.info("Entering handleSearchByFirstName");
-		if (!employeeService.findByFirstName(firstName).isEmpty()) {
-			model.addAttribute("employees", employeeService.findByFirstName(firstName));
+		List<Employee> employees = fuzzy ? employeeService.findByFirstName(firstName, true)
+				: employeeService.findByFirstName(firstName);
+		if (!employees.isEmpty()) {
+			addEmployees(model, employees);
 			log.info("Exiting handleSearchByFirstName");
 			return "showEmployees";
 		}
@@ -130,13 +206,17 @@ public class EmployeeController {
 	 * 
 	 * @param model    - The model object to add attributes.
 	 * @param lastName - The last name to search for.
+	 * @param fuzzy    - Whether to tolerate typos.
 	 * @return - The view name for the showEmployees page.
 	 */
 	@PostMapping("search-by-last-name")
-	public String handleSearchByLastName(Model model, @RequestParam("lastName") String lastName) {
+	public String handleSearchByLastName(Model model, @RequestParam("lastName") String lastName,
+			@RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy) {
 		log.info("Entering handleSearchByLastName");
-		if (!employeeService.findByLastName(lastName).isEmpty()) {
-			model.addAttribute("employees", employeeService.findByLastName(lastName));
+		List<Employee> employees = fuzzy ? employeeService.findByLastName(lastName, true)
+				: employeeService.findByLastName(lastName);
+		if (!employees.isEmpty()) {
+			addEmployees(model, employees);
 			log.info("Exiting handleSearchByLastName1");
 			return "showEmployees";
 		}
@@ -149,22 +229,29 @@ public class EmployeeController {
 	 * 
 	 * @param model    - The model object to add attributes.
 	 * @param fullName - The full name to search for.
+	 * @param fuzzy    - Whether to tolerate typos.
 	 * @return - The view name for the showEmployees page.
 	 */
 	@PostMapping("search-by-full-name")
-	public String handleSearchByFullName(Model model, @RequestParam("fullName") String fullName) {
+	public String handleSearchByFullName(Model model, @RequestParam("fullName") String fullName,
+			@RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy) {
 		log.info("Entering handleSearchByFullName");
 
-		// Split the full name into first name and last name
-		String[] nameParts = fullName.split(" ");
+		// Split the full name into first name and last name, at the first run of spaces
+		String[] nameParts = fullName.strip().split("\\s+", 2);
+		if (nameParts.length < 2) {
+			log.info("Exiting handleSearchByFullName");
+			return "errorPage";
+		}
 		String firstName = nameParts[0];
 		String lastName = nameParts[1];
 
 		// Perform the search using both first name and last name
-		List<Employee> employees = employeeService.findByFullName(firstName, lastName);
+		List<Employee> employees = fuzzy ? employeeService.findByFullName(firstName, lastName, true)
+				: employeeService.findByFullName(firstName, lastName);
 
 		if (!employees.isEmpty()) {
-			model.addAttribute("employees", employees);
+			addEmployees(model, employees);
 			log.info("Exiting handleSearchByFullName");
 			return "showEmployees";
 		}
@@ -179,17 +266,20 @@ public class EmployeeController {
 	 * 
 	 * @param model       - The model object to add attributes.
 	 * @param searchInput - The search input to perform the search.
+	 * @param fuzzy       - Whether to tolerate typos.
 	 * @return - The view name for the showEmployees page.
 	 */
 	@PostMapping("/search-employees")
-	public String handleSearchEmployees(Model model, @RequestParam("searchInput") String searchInput) {
+	public String handleSearchEmployees(Model model, @RequestParam("searchInput") String searchInput,
+			@RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy) {
 		log.info("Entering handleSearchEmployees");
 
 		// Perform the search using the searchInput
-		List<Employee> employees = employeeService.searchEmployees(searchInput);
+		List<Employee> employees = fuzzy ? employeeService.searchEmployees(searchInput, true)
+				: employeeService.searchEmployees(searchInput);
 
 		if (!employees.isEmpty()) {
-			model.addAttribute("employees", employees);
+			addEmployees(model, employees);
 			log.info("Exiting handleSearchEmployees");
 			return "showEmployees";
 		}
@@ -198,6 +288,14 @@ public class EmployeeController {
 		return "errorPage";
 	}
 
+	// With the row cache, the table body is the cached rows instead of a th:each over the employees
+	private void addEmployees(Model model, List<Employee> employees) {
+		model.addAttribute("employees", employees);
+		if (rowCache.isEnabled()) {
+			model.addAttribute("rows", rowCache.rows(employees));
+		}
+	}
+
 //	@PostMapping("/submit-new-employee")
 //	public String handleSubmitNewEmployee(Model model, @Valid @ModelAttribute("employee") Employee employee, BindingResult bindingResult) {
 //	    if (bindingResult.hasErrors()) {
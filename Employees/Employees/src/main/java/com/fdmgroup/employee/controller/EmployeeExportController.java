@@ -0,0 +1,67 @@
+package com.fdmgroup.employee.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fdmgroup.employee.service.EmployeeExportService;
+import com.fdmgroup.employee.service.ExportFormat;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+public class EmployeeExportController {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeExportController.class);
+	private EmployeeExportService employeeExportService;
+
+	@Autowired
+	public EmployeeExportController(EmployeeExportService employeeExportService) {
+		this.employeeExportService = employeeExportService;
+	}
+
+	/**
+	 * Streams the whole employee directory as a file download.
+	 * 
+	 * @param format   - csv (the default) or ndjson.
+	 * @param gzip     - Whether to send a gzip file (employees.csv.gz) instead of
+	 *                 the plain one.
+	 * @param response - The response the export is written to.
+	 * @throws IOException - If the response cannot be written.
+	 */
+	@GetMapping("/export-employees")
+	public void handleExportEmployees(@RequestParam(name = "format", defaultValue = "csv") String format,
+			@RequestParam(name = "gzip", defaultValue = "false") boolean gzip, HttpServletResponse response)
+			throws IOException {
+		log.info("Entering handleExportEmployees");
+		ExportFormat exportFormat;
+		try {
+			exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown export format: " + format);
+			log.info("Exiting handleExportEmployees");
+			return;
+		}
+		String fileName = "employees." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+		response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+		if (gzip) {
+			try (GZIPOutputStream output = new GZIPOutputStream(response.getOutputStream(), 64 * 1024)) {
+				employeeExportService.export(exportFormat, output);
+			}
+		} else {
+			OutputStream output = response.getOutputStream();
+			employeeExportService.export(exportFormat, output);
+		}
+		log.info("Exiting handleExportEmployees");
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.fdmgroup.employee.controller;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fdmgroup.employee.service.EmployeeTenureService;
+import com.fdmgroup.employee.service.HireCount;
+
+/**
+ * Hires per month and per year, read from the in-memory histogram.
+ */
+@RestController
+@RequestMapping("/api/hires")
+public class EmployeeHireController {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeHireController.class);
+	private EmployeeTenureService tenureService;
+
+	@Autowired
+	public EmployeeHireController(EmployeeTenureService tenureService) {
+		this.tenureService = tenureService;
+	}
+
+	/**
+	 * @param from - The first month, as 2019-06, or null for the first month
+	 *             with hires.
+	 * @param to   - The last month, or null for the last month with hires.
+	 * @return - The hires of every month in the range, or 400 if it spans more
+	 *         than 200 years.
+	 */
+	@GetMapping("/monthly")
+	public ResponseEntity<List<HireCount>> listMonthlyHires(
+			@RequestParam(name = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+			@RequestParam(name = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+		log.info("Entering listMonthlyHires");
+		try {
+			List<HireCount> counts = tenureService.hiresByMonth(from, to);
+			log.info("Exiting listMonthlyHires");
+			return ResponseEntity.ok(counts);
+		} catch (IllegalArgumentException e) {
+			log.info("Exiting listMonthlyHires");
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * @param from - The first year, or null for the first year with hires.
+	 * @param to   - The last year, or null for the last year with hires.
+	 * @return - The hires of every year in the range, or 400 if it spans more
+	 *         than 200 years.
+	 */
+	@GetMapping("/yearly")
+	public ResponseEntity<List<HireCount>> listYearlyHires(
+			@RequestParam(name = "from", required = false) Integer from,
+			@RequestParam(name = "to", required = false) Integer to) {
+		log.info("Entering listYearlyHires");
+		try {
+			List<HireCount> counts = tenureService.hiresByYear(from, to);
+			log.info("Exiting listYearlyHires");
+			return ResponseEntity.ok(counts);
+		} catch (IllegalArgumentException e) {
+			log.info("Exiting listYearlyHires");
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+}
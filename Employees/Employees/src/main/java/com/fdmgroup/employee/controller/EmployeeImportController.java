@@ -0,0 +1,40 @@
+package com.fdmgroup.employee.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fdmgroup.employee.service.EmployeeImportService;
+import com.fdmgroup.employee.service.ImportReport;
+
+@RestController
+public class EmployeeImportController {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeImportController.class);
+	private EmployeeImportService employeeImportService;
+
+	@Autowired
+	public EmployeeImportController(EmployeeImportService employeeImportService) {
+		this.employeeImportService = employeeImportService;
+	}
+
+	/**
+	 * Imports employees from the CSV request body.
+	 * 
+	 * @param csv - The request body, one employee per line.
+	 * @return - The import report, serialized as JSON.
+	 * @throws IOException - If the request body cannot be read.
+	 */
+	@PostMapping(path = "/import-employees", consumes = { "text/csv", "text/plain" })
+	public ImportReport handleImportEmployees(InputStream csv) throws IOException {
+		log.info("Entering handleImportEmployees");
+		ImportReport report = employeeImportService.importCsv(csv);
+		log.info("Exiting handleImportEmployees");
+		return report;
+	}
+
+}
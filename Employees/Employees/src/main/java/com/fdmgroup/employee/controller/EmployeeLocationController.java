@@ -0,0 +1,53 @@
+package com.fdmgroup.employee.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fdmgroup.employee.model.LocationHeadcount;
+import com.fdmgroup.employee.service.EmployeeLocationService;
+
+/**
+ * Headcounts per country and per city, read from the precomputed counts.
+ */
+@RestController
+@RequestMapping("/api/locations")
+public class EmployeeLocationController {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeLocationController.class);
+	private EmployeeLocationService locationService;
+
+	@Autowired
+	public EmployeeLocationController(EmployeeLocationService locationService) {
+		this.locationService = locationService;
+	}
+
+	/**
+	 * @return - The headcount of every country, largest first.
+	 */
+	@GetMapping("/countries")
+	public List<LocationHeadcount> listCountries() {
+		log.info("Entering listCountries");
+		List<LocationHeadcount> headcounts = locationService.countryHeadcounts();
+		log.info("Exiting listCountries");
+		return headcounts;
+	}
+
+	/**
+	 * @param country - The country whose cities are listed.
+	 * @return - The headcount of every city of the country, largest first.
+	 */
+	@GetMapping("/cities")
+	public List<LocationHeadcount> listCities(@RequestParam("country") String country) {
+		log.info("Entering listCities");
+		List<LocationHeadcount> headcounts = locationService.cityHeadcounts(country);
+		log.info("Exiting listCities");
+		return headcounts;
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.fdmgroup.employee.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fdmgroup.employee.snapshot.EmployeeSnapshot;
+import com.fdmgroup.employee.snapshot.SnapshotFootprint;
+
+@RestController
+public class EmployeeSnapshotController {
+	private EmployeeSnapshot snapshot;
+
+	@Autowired
+	public EmployeeSnapshotController(EmployeeSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Reports the memory taken by the employee snapshot, loading it if needed,
+	 * against the estimated heap of the same employees as entities.
+	 * 
+	 * @return - The footprint, serialized as JSON.
+	 */
+	@GetMapping("/snapshot-stats")
+	public SnapshotFootprint displaySnapshotStats() {
+		return snapshot.footprint();
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.fdmgroup.employee.controller;
+
+import java.io.PrintWriter;
+
+import com.fdmgroup.employee.cache.EmployeeRowCache;
+import com.fdmgroup.employee.model.Employee;
+
+/**
+ * Writes the same page as showEmployees.html straight to the response, one
+ * table row at a time, so that listings of any size can be sent without
+ * building a model first. Rows come from the row cache.
+ */
+public class EmployeeTableWriter {
+	private static final String HEADER = """
+			<!DOCTYPE html>
+			<html>
+			<head>
+			<meta charset="UTF-8">
+			<title>Show All Employees</title>
+			</head>
+			<body>
+				<h1>Show all employees</h1>
+				<table>
+					<thead>
+						<tr>
+							<th>ID</th>
+							<th>FIRST NAME</th>
+							<th>LAST NAME</th>
+							<th>HIRE DATE</th>
+							<th>ADDRESS</th>
+						</tr>
+					</thead>
+					<tbody>
+			""";
+	private static final String FOOTER = """
+					</tbody>
+				</table>
+				<a href="/">Back to homepage</a>
+			</body>
+			</html>
+			""";
+
+	private final PrintWriter writer;
+	private final int flushRows;
+	private final EmployeeRowCache rowCache;
+	private int rows;
+
+	/**
+	 * @param writer    - The response writer.
+	 * @param flushRows - The number of rows after which the writer is flushed.
+	 * @param rowCache  - Renders the rows.
+	 */
+	public EmployeeTableWriter(PrintWriter writer, int flushRows, EmployeeRowCache rowCache) {
+		this.writer = writer;
+		this.flushRows = flushRows;
+		this.rowCache = rowCache;
+	}
+
+	public void writeHeader() {
+		writer.write(HEADER);
+		writer.flush();
+	}
+
+	public void writeRow(Employee employee) {
+		writer.write(rowCache.row(employee));
+		if (++rows % flushRows == 0) {
+			writer.flush();
+		}
+	}
+
+	public void writeFooter() {
+		writer.write(FOOTER);
+		writer.flush();
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.fdmgroup.employee.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fdmgroup.employee.service.EmployeeTicket;
+import com.fdmgroup.employee.service.EmployeeWriteBehindService;
+
+@RestController
+public class EmployeeTicketController {
+	private EmployeeWriteBehindService writeBehindService;
+
+	@Autowired
+	public EmployeeTicketController(EmployeeWriteBehindService writeBehindService) {
+		this.writeBehindService = writeBehindService;
+	}
+
+	/**
+	 * Reports whether an employee submitted to the write-behind queue has been
+	 * saved yet.
+	 * 
+	 * @param id - The ticket id returned when the employee was queued.
+	 * @return - The ticket as JSON, or 404 if it is unknown or has expired.
+	 */
+	@GetMapping("/employee-tickets/{id}")
+	public ResponseEntity<EmployeeTicket> displayTicket(@PathVariable("id") String id) {
+		EmployeeTicket ticket = writeBehindService.getTicket(id);
+		return ticket == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(ticket);
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.fdmgroup.employee.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.fdmgroup.employee.model.SearchKeys;
+
+/**
+ * Fills the search key columns of the existing employees. The folding is done
+ * in Java by SearchKeys, the same code the entity uses, because accent folding
+ * has no portable SQL function.
+ */
+public class V3__Backfill_employee_search_keys extends BaseJavaMigration {
+	private static final int BATCH_SIZE = 500;
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		backfill(context.getConnection());
+	}
+
+	/**
+	 * @param connection - A connection to a database at schema version 2 or later.
+	 * @return - The number of employees updated.
+	 * @throws SQLException - If reading or updating the employees fails.
+	 */
+	public static int backfill(Connection connection) throws SQLException {
+		int updated = 0;
+		try (Statement select = connection.createStatement();
+				ResultSet rows = select.executeQuery("SELECT id, first_name, last_name, address FROM employee"
+						+ " WHERE first_name_key IS NULL AND last_name_key IS NULL AND address_key IS NULL");
+				PreparedStatement update = connection.prepareStatement(
+						"UPDATE employee SET first_name_key = ?, last_name_key = ?, address_key = ? WHERE id = ?")) {
+			while (rows.next()) {
+				update.setString(1, SearchKeys.fold(rows.getString("first_name")));
+				update.setString(2, SearchKeys.fold(rows.getString("last_name")));
+				update.setString(3, SearchKeys.fold(rows.getString("address")));
+				update.setInt(4, rows.getInt("id"));
+				update.addBatch();
+				if (++updated % BATCH_SIZE == 0) {
+					update.executeBatch();
+				}
+			}
+			update.executeBatch();
+		}
+		return updated;
+	}
+
+}
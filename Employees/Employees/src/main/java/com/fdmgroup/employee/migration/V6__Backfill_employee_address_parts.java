@@ -0,0 +1,65 @@
+package com.fdmgroup.employee.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.fdmgroup.employee.model.AddressParts;
+import com.fdmgroup.employee.model.SearchKeys;
+
+/**
+ * Parses the address of the existing employees into street, city and country
+ * with AddressParts, the same code the entity uses, and then counts them into
+ * employee_location_count. The GROUP BY over employee runs once here; from then
+ * on the counts are kept up to date on every insert.
+ */
+public class V6__Backfill_employee_address_parts extends BaseJavaMigration {
+	private static final int BATCH_SIZE = 500;
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		backfill(context.getConnection());
+	}
+
+	/**
+	 * @param connection - A connection to a database at schema version 5 or later.
+	 * @return - The number of employees updated.
+	 * @throws SQLException - If reading or updating the employees fails.
+	 */
+	public static int backfill(Connection connection) throws SQLException {
+		int updated = 0;
+		try (Statement select = connection.createStatement();
+				ResultSet rows = select.executeQuery("SELECT id, address FROM employee"
+						+ " WHERE street IS NULL AND city IS NULL AND country IS NULL AND address IS NOT NULL");
+				PreparedStatement update = connection.prepareStatement("UPDATE employee SET street = ?, city = ?,"
+						+ " country = ?, city_key = ?, country_key = ? WHERE id = ?")) {
+			while (rows.next()) {
+				AddressParts parts = AddressParts.parse(rows.getString("address"));
+				update.setString(1, parts.street());
+				update.setString(2, parts.city());
+				update.setString(3, parts.country());
+				update.setString(4, SearchKeys.fold(parts.city()));
+				update.setString(5, SearchKeys.fold(parts.country()));
+				update.setInt(6, rows.getInt("id"));
+				update.addBatch();
+				if (++updated % BATCH_SIZE == 0) {
+					update.executeBatch();
+				}
+			}
+			update.executeBatch();
+		}
+		try (Statement recount = connection.createStatement()) {
+			recount.executeUpdate("DELETE FROM employee_location_count");
+			recount.executeUpdate("INSERT INTO employee_location_count (country_key, city_key, country, city, headcount)"
+					+ " SELECT COALESCE(country_key, ''), COALESCE(city_key, ''), MIN(country), MIN(city), COUNT(*)"
+					+ " FROM employee GROUP BY COALESCE(country_key, ''), COALESCE(city_key, '')");
+		}
+		return updated;
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.fdmgroup.employee.model;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The street, city and country of a free-text address. Addresses are written
+ * "street, city, country" or, like the seed data, without commas as
+ * "22 A Street London England": the street runs up to its street type word,
+ * the country is the last word (or a known two-word country) and the city is
+ * what lies between them. Parts that cannot be told apart are left null.
+ *
+ * @param street  - The street part, may be null.
+ * @param city    - The city part, may be null.
+ * @param country - The country part, may be null.
+ */
+public record AddressParts(String street, String city, String country) {
+	public static final AddressParts EMPTY = new AddressParts(null, null, null);
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	// Words ending a street name: "22 A Street"
+	private static final Set<String> STREET_SUFFIXES = Set.of("street", "st", "road", "rd", "avenue", "ave", "lane",
+			"ln", "boulevard", "blvd", "way", "drive", "dr", "place", "pl", "square", "sq", "close", "court", "crescent",
+			"terrace", "row", "strasse", "ulitsa");
+	// Words starting a street name, followed by the name itself: "3 Rue Elysee"
+	private static final Set<String> STREET_PREFIXES = Set.of("rue", "via", "calle", "strada", "str", "avenida",
+			"allee");
+	private static final Set<String> TWO_WORD_COUNTRIES = Set.of("united kingdom", "united states", "new zealand",
+			"south africa", "south korea", "north macedonia", "czech republic", "saudi arabia", "costa rica",
+			"sri lanka", "hong kong", "el salvador");
+
+	/**
+	 * @param address - The free-text address, may be null.
+	 * @return - The parts of the address, EMPTY for a blank one.
+	 */
+	public static AddressParts parse(String address) {
+		if (address == null || address.isBlank()) {
+			return EMPTY;
+		}
+		String[] sections = address.split(",");
+		if (sections.length >= 3) {
+			String street = String.join(",", Arrays.copyOf(sections, sections.length - 2));
+			return new AddressParts(blankToNull(street), blankToNull(sections[sections.length - 2]),
+					blankToNull(sections[sections.length - 1]));
+		}
+		String[] words = WHITESPACE.split(address.replace(',', ' ').strip());
+		int countryStart = words.length - 1;
+		if (words.length >= 3 && TWO_WORD_COUNTRIES
+				.contains(SearchKeys.fold(words[words.length - 2] + " " + words[words.length - 1]))) {
+			countryStart = words.length - 2;
+		}
+		int streetEnd = streetEnd(words);
+		if (streetEnd > 0 && streetEnd >= countryStart) {
+			// Nothing is left after the street
+			return new AddressParts(address.strip(), null, null);
+		}
+		if (streetEnd == 0 && countryStart >= 2) {
+			// No street type word: take the word before the country as the city
+			streetEnd = countryStart - 1;
+		}
+		return new AddressParts(join(words, 0, streetEnd), join(words, streetEnd, countryStart),
+				join(words, countryStart, words.length));
+	}
+
+	// The number of leading words making up the street, 0 if no street type word is found
+	private static int streetEnd(String[] words) {
+		for (int i = words.length - 1; i >= 0; i--) {
+			String word = SearchKeys.fold(words[i]);
+			if (STREET_SUFFIXES.contains(word)) {
+				return i + 1;
+			}
+			if (STREET_PREFIXES.contains(word)) {
+				return i + 2;
+			}
+		}
+		return 0;
+	}
+
+	private static String join(String[] words, int from, int to) {
+		return from >= to ? null : String.join(" ", Arrays.copyOfRange(words, from, to));
+	}
+
+	private static String blankToNull(String value) {
+		return value.isBlank() ? null : value.strip();
+	}
+
+}
@@ -1,18 +1,39 @@
 package com.fdmgroup.employee.model;
 
 import java.time.LocalDate;
-import java.util.Objects;
+
+import com.fdmgroup.employee.repository.EmployeeLocationCountListener;
+
 //import javax.validation.constraints.NotBlank;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
 @Entity
+// The schema itself is created by the Flyway migrations in db/migration
+@Table(indexes = { @Index(name = "idx_employee_full_name_key", columnList = "firstNameKey, lastNameKey"),
+		@Index(name = "idx_employee_last_name_key", columnList = "lastNameKey"),
+		@Index(name = "idx_employee_address_key", columnList = "addressKey"),
+		@Index(name = "idx_employee_city_key", columnList = "cityKey"),
+		@Index(name = "idx_employee_country_key", columnList = "countryKey, cityKey"),
+		@Index(name = "idx_employee_hire_date", columnList = "hireDate"),
+		@Index(name = "idx_employee_hire_month_day", columnList = "hireMonthDay") })
+@EntityListeners(EmployeeLocationCountListener.class)
 public class Employee {
 	@Id
-	@SequenceGenerator(name = "EMPLOYEE_ID_GEN", sequenceName = "EMPLOYEE_ID_SEQ", allocationSize = 1)
+	// Ids are handed out in pooled blocks so that inserts do not each need a sequence call
+	@SequenceGenerator(name = "EMPLOYEE_ID_GEN", sequenceName = "EMPLOYEE_ID_SEQ", allocationSize = 50)
 	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "EMPLOYEE_ID_GEN")
 	private int id;
 
@@ -21,6 +42,23 @@ public class Employee {
 	private String lastName;
 	private LocalDate hireDate;
 	private String address;
+	// Case- and accent-folded copies of the searched columns, see SearchKeys
+	private String firstNameKey;
+	private String lastNameKey;
+	private String addressKey;
+	// The address parsed into its parts, see AddressParts, with folded keys for lookups
+	private String street;
+	private String city;
+	private String country;
+	private String cityKey;
+	private String countryKey;
+	// The month and day of the hire date as month * 100 + day, for anniversaries
+	private Integer hireMonthDay;
+	// The location this employee is counted under in employee_location_count
+	@Transient
+	private String countedCountryKey;
+	@Transient
+	private String countedCityKey;
 	
 
 	// Empty constructor
@@ -34,6 +72,7 @@ public class Employee {
 		this.lastName = lastName;
 		this.hireDate = hireDate;
 		this.address = address;
+		updateSearchKeys();
 	}
 
 	// Getters and Setters
@@ -51,6 +90,7 @@ public class Employee {
 
 	public void setFirstName(String firstName) {
 		this.firstName = firstName;
+		this.firstNameKey = SearchKeys.fold(firstName);
 	}
 
 	public String getLastName() {
@@ -59,6 +99,7 @@ public class Employee {
 
 	public void setLastName(String lastName) {
 		this.lastName = lastName;
+		this.lastNameKey = SearchKeys.fold(lastName);
 	}
 
 	public LocalDate getHireDate() {
@@ -67,6 +108,7 @@ public class Employee {
 
 	public void setHireDate(LocalDate hireDate) {
 		this.hireDate = hireDate;
+		this.hireMonthDay = monthDay(hireDate);
 	}
 
 	public String getAddress() {
@@ -75,6 +117,90 @@ public class Employee {
 
 	public void setAddress(String address) {
 		this.address = address;
+		this.addressKey = SearchKeys.fold(address);
+		updateAddressParts();
+	}
+
+	public String getFirstNameKey() {
+		return firstNameKey;
+	}
+
+	public String getLastNameKey() {
+		return lastNameKey;
+	}
+
+	public String getAddressKey() {
+		return addressKey;
+	}
+
+	public String getStreet() {
+		return street;
+	}
+
+	public String getCity() {
+		return city;
+	}
+
+	public String getCountry() {
+		return country;
+	}
+
+	public String getCityKey() {
+		return cityKey;
+	}
+
+	public String getCountryKey() {
+		return countryKey;
+	}
+
+	public Integer getHireMonthDay() {
+		return hireMonthDay;
+	}
+
+	/**
+	 * @param date - A date, may be null.
+	 * @return - The month and day of the date as month * 100 + day, or null.
+	 */
+	public static Integer monthDay(LocalDate date) {
+		return date == null ? null : date.getMonthValue() * 100 + date.getDayOfMonth();
+	}
+
+	public String getCountedCountryKey() {
+		return countedCountryKey;
+	}
+
+	public String getCountedCityKey() {
+		return countedCityKey;
+	}
+
+	// Recomputed on every write, so the keys cannot drift from the columns they fold
+	@PrePersist
+	@PreUpdate
+	void updateSearchKeys() {
+		firstNameKey = SearchKeys.fold(firstName);
+		lastNameKey = SearchKeys.fold(lastName);
+		addressKey = SearchKeys.fold(address);
+		hireMonthDay = monthDay(hireDate);
+		updateAddressParts();
+	}
+
+	// Runs after EmployeeLocationCountListener, which moves the count from the
+	// counted location to the current one
+	@PostLoad
+	@PostPersist
+	@PostUpdate
+	void markCounted() {
+		countedCountryKey = countryKey;
+		countedCityKey = cityKey;
+	}
+
+	private void updateAddressParts() {
+		AddressParts parts = AddressParts.parse(address);
+		street = parts.street();
+		city = parts.city();
+		country = parts.country();
+		cityKey = SearchKeys.fold(city);
+		countryKey = SearchKeys.fold(country);
 	}
 	
 
@@ -84,23 +210,29 @@ public class Employee {
 
 	
 
+	// Identity is the database id, as for the persistence context: two saved
+	// employees are equal when their ids are, whatever their fields hold, and an
+	// unsaved employee (id 0) is only equal to itself. The hash is the same for
+	// every employee, so it does not change when save assigns the id and an
+	// employee added to a HashSet before it was saved is still found after. It is
+	// Employee.class rather than getClass() so that Hibernate proxies hash alike.
+	// As every employee lands in the same bucket, Employee must not be used as a
+	// key of a HashMap or an element of a HashSet: key them by id instead, as
+	// IntObjectHashMap and IntHashSet do. To compare the fields, use
+	// EmployeeFieldsComparator
 	@Override
 	public int hashCode() {
-		return Objects.hash(address, firstName, hireDate, id, lastName);
+		return Employee.class.hashCode();
 	}
 
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
+		// instanceof and getId() so that Hibernate proxies compare equal too
+		if (!(obj instanceof Employee other))
 			return false;
-		Employee other = (Employee) obj;
-		return Objects.equals(address, other.address) && Objects.equals(firstName, other.firstName)
-				&& Objects.equals(hireDate, other.hireDate) && id == other.id
-				&& Objects.equals(lastName, other.lastName);
+		return id != 0 && id == other.getId();
 	}
 
 	@Override
@@ -0,0 +1,40 @@
+package com.fdmgroup.employee.model;
+
+import java.util.Comparator;
+
+/**
+ * Orders employees by every field: last name, first name, hire date, address,
+ * then id, with nulls first. Employee.equals only compares ids, so this is the
+ * way to check that two employees hold the same data: compare(a, b) == 0.
+ */
+public final class EmployeeFieldsComparator implements Comparator<Employee> {
+	public static final EmployeeFieldsComparator INSTANCE = new EmployeeFieldsComparator();
+
+	private static final Comparator<Employee> ORDER = Comparator
+			.comparing(Employee::getLastName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+			.thenComparing(Employee::getFirstName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+			.thenComparing(Employee::getHireDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparing(Employee::getAddress, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+			.thenComparingInt(Employee::getId);
+
+	private EmployeeFieldsComparator() {
+	}
+
+	@Override
+	public int compare(Employee left, Employee right) {
+		return ORDER.compare(left, right);
+	}
+
+	/**
+	 * @param left  - An employee, may be null.
+	 * @param right - An employee, may be null.
+	 * @return - True if both are null, or if all their fields are equal.
+	 */
+	public static boolean sameFields(Employee left, Employee right) {
+		if (left == null || right == null) {
+			return left == right;
+		}
+		return INSTANCE.compare(left, right) == 0;
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.fdmgroup.employee.model;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * The criteria of a query over the employees, bound from the parameters of
+ * /api/employees/query. Every criterion given must match; null ones are left
+ * out. Text criteria ignore case and accents, as the search finders do.
+ *
+ * @param name      - Contained in the first or the last name.
+ * @param firstName - Contained in the first name.
+ * @param lastName  - Contained in the last name.
+ * @param address   - Contained in the address.
+ * @param city      - The city parsed from the address.
+ * @param country   - The country parsed from the address.
+ * @param hiredFrom - The first hire date, inclusive.
+ * @param hiredTo   - The last hire date, inclusive.
+ * @param sort      - id, firstName, lastName or hireDate, optionally followed
+ *                  by ",desc"; null sorts by id.
+ * @param limit     - The maximum number of employees returned; null for the
+ *                  default.
+ */
+public record EmployeeQuery(String name, String firstName, String lastName, String address, String city,
+		String country, @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hiredFrom,
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hiredTo, String sort, Integer limit) {
+
+}
@@ -0,0 +1,31 @@
+package com.fdmgroup.employee.model;
+
+import java.time.LocalDate;
+
+/**
+ * The public fields of an employee, as read by the projection queries of the
+ * repository and returned by the REST API. Building one selects only these
+ * columns and leaves no entity in the persistence context.
+ *
+ * @param id        - The employee id, 0 for an employee still to be created.
+ * @param firstName - The first name.
+ * @param lastName  - The last name.
+ * @param hireDate  - The hire date.
+ * @param address   - The address.
+ */
+public record EmployeeView(int id, String firstName, String lastName, LocalDate hireDate, String address) {
+
+	public static EmployeeView of(Employee employee) {
+		return new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(),
+				employee.getHireDate(), employee.getAddress());
+	}
+
+	/**
+	 * @return - A new, unsaved employee with the fields of this view; the id is
+	 *         left to the sequence.
+	 */
+	public Employee toEmployee() {
+		return new Employee(firstName, lastName, hireDate, address);
+	}
+
+}
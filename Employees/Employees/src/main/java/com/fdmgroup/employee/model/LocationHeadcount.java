@@ -0,0 +1,13 @@
+package com.fdmgroup.employee.model;
+
+/**
+ * The number of employees in a country, or in a city of a country.
+ *
+ * @param country   - The country, or null for addresses without one.
+ * @param city      - The city, or null for a whole country or addresses
+ *                  without one.
+ * @param headcount - The number of employees.
+ */
+public record LocationHeadcount(String country, String city, long headcount) {
+
+}
@@ -0,0 +1,71 @@
+package com.fdmgroup.employee.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Folds text into the form kept in the search key columns of Employee: lower
+ * case and without accents, so "José" and "JOSE" both become "jose". Search
+ * terms are folded the same way before they are compared with the keys, which
+ * lets the database compare plain column values and use their indexes.
+ */
+public final class SearchKeys {
+	/** The escape character of the LIKE patterns built here. */
+	public static final char LIKE_ESCAPE = '!';
+	private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+	private SearchKeys() {
+	}
+
+	/**
+	 * @param value - The raw value, may be null.
+	 * @return - The value lower-cased and without accents, or null if it was null.
+	 */
+	public static String fold(String value) {
+		if (value == null) {
+			return null;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) > 0x7F) {
+				String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+				return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+			}
+		}
+		// Plain ASCII, the common case, has nothing to decompose
+		return value.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * @param term - The search term, may be null to match every value.
+	 * @return - A LIKE pattern, escaped with LIKE_ESCAPE, matching keys that
+	 *         contain the folded term.
+	 */
+	public static String containsPattern(String term) {
+		return '%' + escape(term) + '%';
+	}
+
+	/**
+	 * @param term - The search term, may be null to match every value.
+	 * @return - A LIKE pattern, escaped with LIKE_ESCAPE, matching keys that
+	 *         start with the folded term.
+	 */
+	public static String prefixPattern(String term) {
+		return escape(term) + '%';
+	}
+
+	// Folds the term and escapes the LIKE wildcards so that they are matched literally
+	private static String escape(String term) {
+		String folded = term == null ? "" : fold(term);
+		StringBuilder escaped = new StringBuilder(folded.length() + 2);
+		for (int i = 0; i < folded.length(); i++) {
+			char c = folded.charAt(i);
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+				escaped.append(LIKE_ESCAPE);
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.fdmgroup.employee.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fdmgroup.employee.model.Employee;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Keeps employee_location_count up to date with every employee Hibernate
+ * inserts, updates or deletes, whichever repository method or batch did it.
+ * The changes of a transaction are summed per location and written just before
+ * it commits, one MERGE per location, so a batch of a thousand employees in
+ * the same city costs one statement and a rolled back one costs none. The
+ * callbacks of inserts run when Hibernate flushes, which is usually inside the
+ * commit, so the write is left to Hibernate's own before-completion step,
+ * which comes after that flush.
+ *
+ * Created by Hibernate through the Spring bean container, one per entity type.
+ */
+public class EmployeeLocationCountListener {
+	// Empty keys stand for a missing part, so that they can be part of the primary key
+	private static final String MERGE = "MERGE INTO employee_location_count c USING (VALUES (CAST(? AS VARCHAR(255)),"
+			+ " CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS BIGINT)))"
+			+ " AS s(country_key, city_key, country, city, delta)"
+			+ " ON c.country_key = s.country_key AND c.city_key = s.city_key"
+			+ " WHEN MATCHED THEN UPDATE SET headcount = c.headcount + s.delta"
+			+ " WHEN NOT MATCHED THEN INSERT (country_key, city_key, country, city, headcount)"
+			+ " VALUES (s.country_key, s.city_key, s.country, s.city, s.delta)";
+	private JdbcTemplate jdbcTemplate;
+
+	public EmployeeLocationCountListener(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	@PostPersist
+	void employeePersisted(Employee employee) {
+		count(employee.getCountryKey(), employee.getCityKey(), employee.getCountry(), employee.getCity(), 1);
+	}
+
+	@PostUpdate
+	void employeeUpdated(Employee employee) {
+		if (!same(employee.getCountedCountryKey(), employee.getCountryKey())
+				|| !same(employee.getCountedCityKey(), employee.getCityKey())) {
+			count(employee.getCountedCountryKey(), employee.getCountedCityKey(), null, null, -1);
+			count(employee.getCountryKey(), employee.getCityKey(), employee.getCountry(), employee.getCity(), 1);
+		}
+	}
+
+	@PostRemove
+	void employeeRemoved(Employee employee) {
+		count(employee.getCountedCountryKey(), employee.getCountedCityKey(), null, null, -1);
+	}
+
+	private void count(String countryKey, String cityKey, String country, String city, int delta) {
+		Location location = new Location(orEmpty(countryKey), orEmpty(cityKey));
+		Change change = new Change(country, city, delta);
+		Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+		if (changes == null) {
+			SessionImplementor session = transactionSession();
+			if (session == null) {
+				write(Map.of(location, change));
+				return;
+			}
+			changes = new Changes();
+			TransactionSynchronizationManager.bindResource(this, changes);
+			session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) changes);
+			session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) changes);
+		}
+		changes.byLocation.merge(location, change, Change::plus);
+	}
+
+	// The session of the Spring managed transaction, if there is one
+	private static SessionImplementor transactionSession() {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return null;
+		}
+		for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+			if (resource instanceof EntityManagerHolder holder) {
+				return holder.getEntityManager().unwrap(SessionImplementor.class);
+			}
+		}
+		return null;
+	}
+
+	private void write(Map<Location, Change> changes) {
+		List<Object[]> rows = new ArrayList<>(changes.size());
+		changes.forEach((location, change) -> {
+			if (change.delta() != 0) {
+				rows.add(new Object[] { location.countryKey(), location.cityKey(), change.country(), change.city(),
+						change.delta() });
+			}
+		});
+		if (!rows.isEmpty()) {
+			jdbcTemplate.batchUpdate(MERGE, rows);
+		}
+	}
+
+	private static boolean same(String a, String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	private static String orEmpty(String key) {
+		return key == null ? "" : key;
+	}
+
+	private record Location(String countryKey, String cityKey) {
+	}
+
+	// The spelling of the first employee counted at a location is kept for display
+	private record Change(String country, String city, long delta) {
+		Change plus(Change other) {
+			return new Change(country != null ? country : other.country, city != null ? city : other.city,
+					delta + other.delta);
+		}
+	}
+
+	private class Changes implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+		private final Map<Location, Change> byLocation = new LinkedHashMap<>();
+
+		@Override
+		public void doBeforeTransactionCompletion(SessionImplementor session) {
+			write(byLocation);
+		}
+
+		@Override
+		public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(EmployeeLocationCountListener.this);
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.fdmgroup.employee.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.fdmgroup.employee.model.LocationHeadcount;
+import com.fdmgroup.employee.model.SearchKeys;
+
+/**
+ * Reads the headcounts kept in employee_location_count by
+ * EmployeeLocationCountListener. The table has one row per city and country,
+ * so none of these queries touch the employee table.
+ */
+@Repository
+public class EmployeeLocationCounts {
+	private static final RowMapper<LocationHeadcount> HEADCOUNT = (row, rowNum) -> new LocationHeadcount(
+			row.getString("country"), row.getString("city"), row.getLong("headcount"));
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public EmployeeLocationCounts(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * @return - The headcount of every country with employees, largest first.
+	 */
+	public List<LocationHeadcount> countries() {
+		return jdbcTemplate.query("SELECT MIN(country) AS country, NULL AS city, SUM(headcount) AS headcount"
+				+ " FROM employee_location_count GROUP BY country_key HAVING SUM(headcount) > 0"
+				+ " ORDER BY headcount DESC, country", HEADCOUNT);
+	}
+
+	/**
+	 * @param country - The country, in any case and with or without accents.
+	 * @return - The headcount of every city of the country with employees,
+	 *         largest first.
+	 */
+	public List<LocationHeadcount> cities(String country) {
+		return jdbcTemplate.query("SELECT country, city, headcount FROM employee_location_count"
+				+ " WHERE country_key = ? AND headcount > 0 ORDER BY headcount DESC, city", HEADCOUNT,
+				country == null ? "" : SearchKeys.fold(country));
+	}
+
+}
@@ -1,29 +1,141 @@
 package com.fdmgroup.employee.repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.EmployeeView;
+import com.fdmgroup.employee.model.SearchKeys;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
+// The "IgnoreCase" finders compare folded terms with the folded key columns of
+// Employee (see SearchKeys) instead of applying LOWER to every row, so prefix
+// and exact lookups are index range scans and seeks
+public interface EmployeeRepository extends JpaRepository<Employee, Integer>, EmployeeRepositoryCustom {
 
 	
 	//
-	List<Employee> findByAddressContainsIgnoreCase(String address);
+	default List<Employee> findByAddressContainsIgnoreCase(String address) {
+		return findByAddressKeyLike(SearchKeys.containsPattern(address));
+	}
 	//
-	List<Employee> findByFirstNameContainsIgnoreCase(String firstName);
+	default List<Employee> findByFirstNameContainsIgnoreCase(String firstName) {
+		return findByFirstNameKeyLike(SearchKeys.containsPattern(firstName));
+	}
 	//
-	List<Employee> findByLastNameContainsIgnoreCase(String lastName);
+	default List<Employee> findByLastNameContainsIgnoreCase(String lastName) {
+		return findByLastNameKeyLike(SearchKeys.containsPattern(lastName));
+	}
 	//
+	default List<Employee> findByFirstNameStartingWithIgnoreCase(String prefix) {
+		return findByFirstNameKeyLike(SearchKeys.prefixPattern(prefix));
+	}
 	//
-	List<Employee> findByFirstNameAndLastNameIgnoreCase(String firstName, String lastName);
+	default List<Employee> findByLastNameStartingWithIgnoreCase(String prefix) {
+		return findByLastNameKeyLike(SearchKeys.prefixPattern(prefix));
+	}
 	//
+	default List<Employee> findByFirstNameAndLastNameIgnoreCase(String firstName, String lastName) {
+		return findByFirstNameKeyAndLastNameKey(SearchKeys.fold(firstName), SearchKeys.fold(lastName));
+	}
 	//
-	@Query("SELECT e FROM Employee e WHERE LOWER(e.firstName) LIKE %:searchTerm% OR LOWER(e.lastName) LIKE %:searchTerm%")
-	List<Employee> findByFullNameContainsIgnoreCase(@Param("searchTerm") String searchTerm);
+	default List<Employee> findByFullNameContainsIgnoreCase(String searchTerm) {
+		return findByNameKeysLike(SearchKeys.containsPattern(searchTerm));
+	}
+	//
+	// City and country lookups seek the indexes on the parsed address parts
+	default List<Employee> findByCity(String city) {
+		return findByCityKey(SearchKeys.fold(city));
+	}
+	//
+	default List<Employee> findByCityStartingWith(String prefix) {
+		return findByCityKeyLike(SearchKeys.prefixPattern(prefix));
+	}
+	//
+	default List<Employee> findByCountry(String country) {
+		return findByCountryKey(SearchKeys.fold(country));
+	}
+	//
+	default List<Employee> findByCountryStartingWith(String prefix) {
+		return findByCountryKeyLike(SearchKeys.prefixPattern(prefix));
+	}
+	//
+	List<Employee> findByCityKey(String cityKey);
+	//
+	List<Employee> findByCountryKey(String countryKey);
+	//
+	@Query("SELECT e FROM Employee e WHERE e.cityKey LIKE :pattern ESCAPE '!'")
+	List<Employee> findByCityKeyLike(@Param("pattern") String pattern);
+	//
+	@Query("SELECT e FROM Employee e WHERE e.countryKey LIKE :pattern ESCAPE '!'")
+	List<Employee> findByCountryKeyLike(@Param("pattern") String pattern);
+	//
+	// Hire date ranges and anniversaries are range scans of their indexes
+	List<Employee> findByHireDateBetweenOrderByHireDateAscIdAsc(LocalDate from, LocalDate to);
+	//
+	List<Employee> findByHireMonthDayBetweenOrderByHireMonthDayAscIdAsc(int from, int to);
+	//
+	@Query("SELECT YEAR(e.hireDate), MONTH(e.hireDate), COUNT(e) FROM Employee e WHERE e.hireDate IS NOT NULL"
+			+ " GROUP BY YEAR(e.hireDate), MONTH(e.hireDate)")
+	List<Object[]> countHiresByMonth();
+	//
+	// Value counts the typeahead is loaded from, most frequent spellings first
+	@Query("SELECT e.firstName, COUNT(e) FROM Employee e WHERE e.firstName IS NOT NULL GROUP BY e.firstName"
+			+ " ORDER BY COUNT(e) DESC")
+	List<Object[]> countByFirstName();
+	//
+	@Query("SELECT e.lastName, COUNT(e) FROM Employee e WHERE e.lastName IS NOT NULL GROUP BY e.lastName"
+			+ " ORDER BY COUNT(e) DESC")
+	List<Object[]> countByLastName();
+	//
+	@Query("SELECT e.firstName, e.lastName, COUNT(e) FROM Employee e"
+			+ " WHERE e.firstName IS NOT NULL AND e.lastName IS NOT NULL GROUP BY e.firstName, e.lastName"
+			+ " ORDER BY COUNT(e) DESC")
+	List<Object[]> countByFullName();
+	//
+	@Query("SELECT e.city, COUNT(e) FROM Employee e WHERE e.city IS NOT NULL GROUP BY e.city ORDER BY COUNT(e) DESC")
+	List<Object[]> countByCity();
+	//
+	// The patterns of the key queries are built by SearchKeys, escaped with '!'
+	@Query("SELECT e FROM Employee e WHERE e.addressKey LIKE :pattern ESCAPE '!'")
+	List<Employee> findByAddressKeyLike(@Param("pattern") String pattern);
+	//
+	@Query("SELECT e FROM Employee e WHERE e.firstNameKey LIKE :pattern ESCAPE '!'")
+	List<Employee> findByFirstNameKeyLike(@Param("pattern") String pattern);
+	//
+	@Query("SELECT e FROM Employee e WHERE e.lastNameKey LIKE :pattern ESCAPE '!'")
+	List<Employee> findByLastNameKeyLike(@Param("pattern") String pattern);
+	//
+	@Query("SELECT e FROM Employee e WHERE e.firstNameKey LIKE :pattern ESCAPE '!' OR e.lastNameKey LIKE :pattern ESCAPE '!'")
+	List<Employee> findByNameKeysLike(@Param("pattern") String pattern);
+	//
+	List<Employee> findByFirstNameKeyAndLastNameKey(String firstNameKey, String lastNameKey);
+	//
+	// One scan for the whole free-text search
+	@Query("SELECT e FROM Employee e WHERE e.firstNameKey LIKE :term ESCAPE '!' OR e.lastNameKey LIKE :term ESCAPE '!'"
+			+ " OR e.firstNameKey LIKE :firstName ESCAPE '!' OR e.lastNameKey LIKE :lastName ESCAPE '!'")
+	List<Employee> searchByNames(@Param("term") String term, @Param("firstName") String firstName,
+			@Param("lastName") String lastName);
+	//
+	// Keyset page: seeks past the last id of the previous page instead of using OFFSET
+	List<Employee> findByIdGreaterThanOrderByIdAsc(int id, Pageable pageable);
+	//
+	// Checked by the persisted search index against its own last id when it reopens
+	@Query("SELECT COALESCE(MAX(e.id), 0) FROM Employee e")
+	int findMaxId();
+	//
+	// Projections: only the columns of EmployeeView are selected and no entity is hydrated
+	@Query("SELECT new com.fdmgroup.employee.model.EmployeeView(e.id, e.firstName, e.lastName, e.hireDate, e.address)"
+			+ " FROM Employee e WHERE e.id > :id ORDER BY e.id")
+	List<EmployeeView> findViewsByIdGreaterThan(@Param("id") int id, Pageable pageable);
+	//
+	@Query("SELECT new com.fdmgroup.employee.model.EmployeeView(e.id, e.firstName, e.lastName, e.hireDate, e.address)"
+			+ " FROM Employee e WHERE e.id = :id")
+	Optional<EmployeeView> findViewById(@Param("id") int id);
 
 }
@@ -0,0 +1,62 @@
+package com.fdmgroup.employee.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.EmployeeView;
+
+public interface EmployeeRepositoryCustom {
+
+	/**
+	 * Reads every employee in id order through a forward-only cursor and hands
+	 * each one to the consumer. Entities are detached once consumed, so the
+	 * persistence context never holds more than one row.
+	 * 
+	 * @param consumer - Receives the employees one at a time.
+	 */
+	void streamAll(Consumer<Employee> consumer);
+
+	/**
+	 * Reads every employee in id order through a forward-only cursor, selecting
+	 * only the columns of EmployeeView.
+	 * 
+	 * @param consumer - Receives the views one at a time.
+	 */
+	void streamAllViews(Consumer<EmployeeView> consumer);
+
+	/**
+	 * Reads the id, first name, last name, hire date and address columns of
+	 * every employee in id order through a forward-only JDBC cursor, bypassing
+	 * the persistence context entirely.
+	 * 
+	 * @param handler - Called once per row, with the result set positioned on it.
+	 */
+	void exportRows(RowCallbackHandler handler);
+
+	/**
+	 * Selects the columns of EmployeeView of the employees matching the
+	 * specification, sorted and limited by the database.
+	 * 
+	 * @param specification - The criteria.
+	 * @param sort          - The order of the employees.
+	 * @param limit         - The maximum number of employees.
+	 * @return - The first employees in the given order.
+	 */
+	List<EmployeeView> findViews(Specification<Employee> specification, Sort sort, int limit);
+
+	/**
+	 * Counts the employees matching the specification, reading no more than cap
+	 * of their ids.
+	 * 
+	 * @param specification - The criteria.
+	 * @param cap           - The largest count returned.
+	 * @return - The number of matching employees, or cap if there are more.
+	 */
+	long countUpTo(Specification<Employee> specification, int cap);
+
+}
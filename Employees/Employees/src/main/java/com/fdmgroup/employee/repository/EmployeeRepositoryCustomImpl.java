@@ -0,0 +1,115 @@
+package com.fdmgroup.employee.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.EmployeeView;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+	@PersistenceContext
+	private EntityManager entityManager;
+	private int fetchSize;
+	private JdbcTemplate jdbcTemplate;
+	private int exportFetchSize;
+
+	public EmployeeRepositoryCustomImpl(@Value("${employee.stream.fetch-size:500}") int fetchSize,
+			JdbcTemplate jdbcTemplate, @Value("${employee.export.fetch-size:1000}") int exportFetchSize) {
+		this.fetchSize = fetchSize;
+		this.jdbcTemplate = jdbcTemplate;
+		this.exportFetchSize = exportFetchSize;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void streamAll(Consumer<Employee> consumer) {
+		try (Stream<Employee> employees = entityManager
+				.createQuery("SELECT e FROM Employee e ORDER BY e.id", Employee.class)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.getResultStream()) {
+			employees.forEach(employee -> {
+				consumer.accept(employee);
+				entityManager.detach(employee);
+			});
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void streamAllViews(Consumer<EmployeeView> consumer) {
+		try (Stream<EmployeeView> views = entityManager.createQuery(
+				"SELECT new com.fdmgroup.employee.model.EmployeeView(e.id, e.firstName, e.lastName, e.hireDate, e.address)"
+						+ " FROM Employee e ORDER BY e.id",
+				EmployeeView.class).setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize).getResultStream()) {
+			views.forEach(consumer);
+		}
+	}
+
+	// Runs in a read-only transaction because some drivers, PostgreSQL among
+	// them, only honour the fetch size with auto-commit off
+	@Override
+	@Transactional(readOnly = true)
+	public void exportRows(RowCallbackHandler handler) {
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(
+					"SELECT id, first_name, last_name, hire_date, address FROM employee ORDER BY id",
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			statement.setFetchSize(exportFetchSize);
+			return statement;
+		}, handler);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<EmployeeView> findViews(Specification<Employee> specification, Sort sort, int limit) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<EmployeeView> query = builder.createQuery(EmployeeView.class);
+		Root<Employee> employee = query.from(Employee.class);
+		query.select(builder.construct(EmployeeView.class, employee.get("id"), employee.get("firstName"),
+				employee.get("lastName"), employee.get("hireDate"), employee.get("address")));
+		where(query, employee, builder, specification);
+		query.orderBy(QueryUtils.toOrders(sort, employee, builder));
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+
+	// Reads ids rather than counting, so a broad query stops at the cap instead of scanning every match
+	@Override
+	@Transactional(readOnly = true)
+	public long countUpTo(Specification<Employee> specification, int cap) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Integer> query = builder.createQuery(Integer.class);
+		Root<Employee> employee = query.from(Employee.class);
+		query.select(employee.get("id"));
+		where(query, employee, builder, specification);
+		return entityManager.createQuery(query).setMaxResults(cap).getResultList().size();
+	}
+
+	private static void where(CriteriaQuery<?> query, Root<Employee> employee, CriteriaBuilder builder,
+			Specification<Employee> specification) {
+		Predicate predicate = specification.toPredicate(employee, query, builder);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.fdmgroup.employee.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.EmployeeQuery;
+import com.fdmgroup.employee.model.SearchKeys;
+
+/**
+ * Compiles an EmployeeQuery into one Specification, so any combination of
+ * criteria runs as a single query. Like the "IgnoreCase" finders of
+ * EmployeeRepository, the predicates compare folded terms with the folded key
+ * columns, which lets city, country and hire date criteria seek their indexes.
+ */
+public final class EmployeeSpecifications {
+
+	private EmployeeSpecifications() {
+	}
+
+	/**
+	 * @param query - The criteria.
+	 * @return - A specification matching the employees that meet every
+	 *         criterion given.
+	 */
+	public static Specification<Employee> of(EmployeeQuery query) {
+		Specification<Employee> specification = Specification.where(null);
+		if (query.name() != null) {
+			specification = specification.and(contains("firstNameKey", query.name())
+					.or(contains("lastNameKey", query.name())));
+		}
+		if (query.firstName() != null) {
+			specification = specification.and(contains("firstNameKey", query.firstName()));
+		}
+		if (query.lastName() != null) {
+			specification = specification.and(contains("lastNameKey", query.lastName()));
+		}
+		if (query.address() != null) {
+			specification = specification.and(contains("addressKey", query.address()));
+		}
+		if (query.city() != null) {
+			specification = specification.and(equalsKey("cityKey", query.city()));
+		}
+		if (query.country() != null) {
+			specification = specification.and(equalsKey("countryKey", query.country()));
+		}
+		if (query.hiredFrom() != null) {
+			specification = specification.and((employee, criteria, builder) -> builder
+					.greaterThanOrEqualTo(employee.get("hireDate"), query.hiredFrom()));
+		}
+		if (query.hiredTo() != null) {
+			specification = specification.and((employee, criteria, builder) -> builder
+					.lessThanOrEqualTo(employee.get("hireDate"), query.hiredTo()));
+		}
+		return specification;
+	}
+
+	private static Specification<Employee> contains(String key, String term) {
+		String pattern = SearchKeys.containsPattern(term);
+		return (employee, criteria, builder) -> builder.like(employee.get(key), pattern, SearchKeys.LIKE_ESCAPE);
+	}
+
+	private static Specification<Employee> equalsKey(String key, String value) {
+		String folded = SearchKeys.fold(value);
+		return (employee, criteria, builder) -> builder.equal(employee.get(key), folded);
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.fdmgroup.employee.request;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import jakarta.servlet.ServletRequest;
+
+/**
+ * Counts the repository calls made while handling each HTTP request, so tests
+ * can assert how many queries a page costs. Calls made outside of a request are
+ * not counted.
+ */
+@Aspect
+@Component
+public class RepositoryCallCounter {
+	public static final String ATTRIBUTE = RepositoryCallCounter.class.getName();
+
+	@Around("target(com.fdmgroup.employee.repository.EmployeeRepository)")
+	public Object count(ProceedingJoinPoint call) throws Throwable {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			AtomicInteger calls = (AtomicInteger) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+			if (calls == null) {
+				calls = new AtomicInteger();
+				attributes.setAttribute(ATTRIBUTE, calls, RequestAttributes.SCOPE_REQUEST);
+			}
+			calls.incrementAndGet();
+		}
+		return call.proceed();
+	}
+
+	/**
+	 * @param request - A request that has been handled.
+	 * @return - The number of repository calls made while handling it.
+	 */
+	public static int callsOf(ServletRequest request) {
+		AtomicInteger calls = (AtomicInteger) request.getAttribute(ATTRIBUTE);
+		return calls == null ? 0 : calls.get();
+	}
+
+}
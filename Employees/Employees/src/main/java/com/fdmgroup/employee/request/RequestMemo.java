@@ -0,0 +1,73 @@
+package com.fdmgroup.employee.request;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Remembers computed results for the rest of the current HTTP request, so a
+ * controller, and a template through {@code @requestMemo}, can ask for the same
+ * result again without repeating the queries behind it. The results are kept
+ * as a request attribute and are gone when the request ends.
+ *
+ * Outside of a request, for example during the bulk import or in benchmarks,
+ * nothing is remembered and every call computes its result.
+ */
+@Component
+public class RequestMemo {
+	private static final String ATTRIBUTE = RequestMemo.class.getName();
+
+	/**
+	 * @param name     - What is computed, such as the service method.
+	 * @param key      - The arguments it is computed from; may be null.
+	 * @param supplier - Computes the result on the first call of the request.
+	 * @return - The result computed earlier in this request, or the new result.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String name, Object key, Supplier<T> supplier) {
+		Map<List<Object>, Object> results = results(true);
+		if (results == null) {
+			return supplier.get();
+		}
+		List<Object> memoKey = Arrays.asList(name, key);
+		if (results.containsKey(memoKey)) {
+			return (T) results.get(memoKey);
+		}
+		T result = supplier.get();
+		results.put(memoKey, result);
+		return result;
+	}
+
+	/**
+	 * Forgets everything remembered in this request, after a change that could
+	 * make the results stale.
+	 */
+	public void clear() {
+		Map<List<Object>, Object> results = results(false);
+		if (results != null) {
+			results.clear();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<List<Object>, Object> results(boolean create) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return null;
+		}
+		Map<List<Object>, Object> results = (Map<List<Object>, Object>) attributes.getAttribute(ATTRIBUTE,
+				RequestAttributes.SCOPE_REQUEST);
+		if (results == null && create) {
+			results = new HashMap<>();
+			attributes.setAttribute(ATTRIBUTE, results, RequestAttributes.SCOPE_REQUEST);
+		}
+		return results;
+	}
+
+}
@@ -0,0 +1,389 @@
+package com.fdmgroup.employee.search;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fdmgroup.employee.model.Employee;
+
+/**
+ * The on-disk form of EmployeeSearchIndex, in one directory: a snapshot file
+ * with the indexed employees and the trigram posting lists of their names and
+ * addresses, and a write-ahead log of the employees added since.
+ *
+ * The snapshot starts with a magic number, the format version and a
+ * generation, and ends with a CRC-32C of everything before it. It is read
+ * through a memory mapping and only ever replaced whole, by writing a new file
+ * and moving it over the old one. Opening it reads the ids, the search keys and
+ * the posting lists; an employee is only built from the mapping when it is
+ * first returned, so a reopen does not pay for the entities of the whole
+ * table. The log starts with the generation of the
+ * snapshot it follows, and every record carries its own length and CRC-32C,
+ * so a torn last record is cut off and a log older than the snapshot is
+ * discarded.
+ *
+ * Log records are not forced to disk one by one: the database stays the
+ * source of truth, and EmployeeSearchIndex reads whatever a lost log tail
+ * held from the repository when it reopens. The class is not thread safe,
+ * callers are expected to guard it.
+ */
+final class EmployeeIndexStore {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeIndexStore.class);
+	static final int SNAPSHOT_MAGIC = 0x45494458;
+	static final int LOG_MAGIC = 0x45494c47;
+	static final int FORMAT_VERSION = 1;
+	static final String SNAPSHOT_FILE = "search-index.bin";
+	static final String LOG_FILE = "search-index.log";
+	private static final int LOG_HEADER_BYTES = 16;
+	// Stands for a missing hire date; no real epoch day is this far in the past
+	private static final int NO_DATE = Integer.MIN_VALUE;
+
+	/**
+	 * The content of a snapshot file.
+	 *
+	 * @param generation - Incremented by every checkpoint.
+	 * @param size       - The number of employees.
+	 * @param ids        - The employee ids by slot.
+	 * @param rows       - The employees by slot.
+	 * @param firstNames - The first name index.
+	 * @param lastNames  - The last name index.
+	 * @param addresses  - The address index.
+	 */
+	record Snapshot(long generation, int size, int[] ids, Rows rows, TrigramIndex firstNames, TrigramIndex lastNames,
+			TrigramIndex addresses) {
+	}
+
+	/**
+	 * The employees of a snapshot, built from the mapping on request. The
+	 * mapping stays valid after the file is replaced or the channel is closed.
+	 */
+	static final class Rows {
+		private final ByteBuffer buffer;
+		private final int[] offsets;
+
+		private Rows(ByteBuffer buffer, int[] offsets) {
+			this.buffer = buffer;
+			this.offsets = offsets;
+		}
+
+		/**
+		 * @param slot - The slot of the employee.
+		 * @return - A new Employee instance, safe to call from several threads.
+		 */
+		Employee employee(int slot) {
+			return readRow(buffer.duplicate().position(offsets[slot]));
+		}
+	}
+
+	private final Path directory;
+	private FileChannel logChannel;
+	private int loggedRecords;
+
+	/**
+	 * @param directory - The directory of the snapshot and the log, created if
+	 *                  needed.
+	 */
+	EmployeeIndexStore(Path directory) {
+		this.directory = directory;
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Maps and reads the snapshot file.
+	 *
+	 * @return - The snapshot, or null if there is none, or it is from another
+	 *         format version, or its checksum does not match.
+	 */
+	Snapshot open() {
+		Path file = directory.resolve(SNAPSHOT_FILE);
+		if (!Files.exists(file)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < 28 || channel.size() > Integer.MAX_VALUE) {
+				log.warn("Ignoring search index snapshot {}: unexpected size {}", file, channel.size());
+				return null;
+			}
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			int end = buffer.limit() - Long.BYTES;
+			CRC32C checksum = new CRC32C();
+			checksum.update(buffer.slice(0, end));
+			if (checksum.getValue() != buffer.getLong(end)) {
+				log.warn("Ignoring search index snapshot {}: checksum mismatch", file);
+				return null;
+			}
+			if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != FORMAT_VERSION) {
+				log.warn("Ignoring search index snapshot {}: not format version {}", file, FORMAT_VERSION);
+				return null;
+			}
+			long generation = buffer.getLong();
+			int size = buffer.getInt();
+			int[] ids = new int[size];
+			int[] offsets = new int[size];
+			int capacity = Math.max(16, size);
+			String[] firstNameKeys = new String[capacity];
+			String[] lastNameKeys = new String[capacity];
+			String[] addressKeys = new String[capacity];
+			for (int slot = 0; slot < size; slot++) {
+				firstNameKeys[slot] = readText(buffer);
+				lastNameKeys[slot] = readText(buffer);
+				addressKeys[slot] = readText(buffer);
+				offsets[slot] = buffer.position();
+				ids[slot] = buffer.getInt();
+				buffer.position(buffer.position() + Integer.BYTES);
+				for (int text = 0; text < 3; text++) {
+					int length = buffer.getInt();
+					buffer.position(buffer.position() + Math.max(0, length));
+				}
+			}
+			return new Snapshot(generation, size, ids, new Rows(buffer, offsets),
+					TrigramIndex.readPostings(firstNameKeys, size, buffer),
+					TrigramIndex.readPostings(lastNameKeys, size, buffer),
+					TrigramIndex.readPostings(addressKeys, size, buffer));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads the employees logged after the snapshot of the given generation and
+	 * opens the log for appending. A log of another generation is emptied.
+	 *
+	 * @param generation - The generation of the snapshot in use.
+	 * @return - The logged employees, in the order they were added.
+	 */
+	List<Employee> replayLog(long generation) {
+		closeLog();
+		List<Employee> employees = new ArrayList<>();
+		try {
+			logChannel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+					StandardOpenOption.READ, StandardOpenOption.WRITE);
+			ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE, logChannel.size()));
+			// The log is read whole, a checkpoint keeps it small
+			int read = 0;
+			while (buffer.hasRemaining() && read >= 0) {
+				read = logChannel.read(buffer);
+			}
+			buffer.flip();
+			if (buffer.remaining() < LOG_HEADER_BYTES || buffer.getInt() != LOG_MAGIC
+					|| buffer.getInt() != FORMAT_VERSION || buffer.getLong() != generation) {
+				resetLog(generation);
+				return employees;
+			}
+			int end = buffer.position();
+			CRC32C checksum = new CRC32C();
+			while (buffer.remaining() >= 2 * Integer.BYTES) {
+				int length = buffer.getInt();
+				int expected = buffer.getInt();
+				if (length < 0 || length > buffer.remaining()) {
+					break;
+				}
+				checksum.reset();
+				checksum.update(buffer.slice(buffer.position(), length));
+				if ((int) checksum.getValue() != expected) {
+					break;
+				}
+				employees.add(readRow(buffer));
+				end = buffer.position();
+			}
+			if (end < logChannel.size()) {
+				log.warn("Cutting a torn record off the search index log at byte {}", end);
+				logChannel.truncate(end);
+			}
+			logChannel.position(end);
+			loggedRecords = employees.size();
+			return employees;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Appends an employee to the log.
+	 *
+	 * @param employee - The saved employee.
+	 */
+	void append(Employee employee) {
+		byte[] row = encodeRow(employee);
+		CRC32C checksum = new CRC32C();
+		checksum.update(row);
+		ByteBuffer record = ByteBuffer.allocate(2 * Integer.BYTES + row.length);
+		record.putInt(row.length).putInt((int) checksum.getValue()).put(row).flip();
+		try {
+			while (record.hasRemaining()) {
+				logChannel.write(record);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		loggedRecords++;
+	}
+
+	/**
+	 * @return - The number of employees in the log.
+	 */
+	int loggedRecords() {
+		return loggedRecords;
+	}
+
+	/**
+	 * Writes a new snapshot of the given generation and empties the log. The
+	 * snapshot is forced to disk and moved over the old one, so a crash leaves
+	 * either the old snapshot and its log or the new snapshot.
+	 *
+	 * @param generation - The generation of the new snapshot.
+	 * @param employees  - Returns the employee of a slot.
+	 * @param size       - The number of employees.
+	 * @param firstNames - The first name index.
+	 * @param lastNames  - The last name index.
+	 * @param addresses  - The address index.
+	 */
+	void checkpoint(long generation, IntFunction<Employee> employees, int size, TrigramIndex firstNames, TrigramIndex lastNames,
+			TrigramIndex addresses) {
+		Path file = directory.resolve(SNAPSHOT_FILE);
+		Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			CheckedOutputStream checked = new CheckedOutputStream(
+					new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), new CRC32C());
+			DataOutputStream out = new DataOutputStream(checked);
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeLong(generation);
+			out.writeInt(size);
+			// The search keys of a row come first, so open() reads them without the rest
+			for (int slot = 0; slot < size; slot++) {
+				Employee employee = employees.apply(slot);
+				writeText(out, employee.getFirstNameKey());
+				writeText(out, employee.getLastNameKey());
+				writeText(out, employee.getAddressKey());
+				writeRow(out, employee);
+			}
+			firstNames.writePostings(out);
+			lastNames.writePostings(out);
+			addresses.writePostings(out);
+			out.writeLong(checked.getChecksum().getValue());
+			out.flush();
+			channel.force(true);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		try {
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			if (logChannel == null) {
+				logChannel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+						StandardOpenOption.READ, StandardOpenOption.WRITE);
+			}
+			resetLog(generation);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Closes the log.
+	 */
+	void close() {
+		closeLog();
+	}
+
+	private void resetLog(long generation) throws IOException {
+		logChannel.truncate(0);
+		ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_BYTES);
+		header.putInt(LOG_MAGIC).putInt(FORMAT_VERSION).putLong(generation).flip();
+		logChannel.write(header, 0);
+		logChannel.force(true);
+		logChannel.position(LOG_HEADER_BYTES);
+		loggedRecords = 0;
+	}
+
+	private void closeLog() {
+		if (logChannel == null) {
+			return;
+		}
+		try {
+			logChannel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			logChannel = null;
+		}
+	}
+
+	// A row is the id, the hire date as an epoch day and the three text fields
+	private static void writeRow(DataOutput out, Employee employee) throws IOException {
+		out.writeInt(employee.getId());
+		out.writeInt(employee.getHireDate() == null ? NO_DATE : (int) employee.getHireDate().toEpochDay());
+		writeText(out, employee.getFirstName());
+		writeText(out, employee.getLastName());
+		writeText(out, employee.getAddress());
+	}
+
+	private static byte[] encodeRow(Employee employee) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try {
+			writeRow(new DataOutputStream(bytes), employee);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	// The search keys and address parts are derived by the constructor, as they are on save
+	private static Employee readRow(ByteBuffer in) {
+		int id = in.getInt();
+		int hireDay = in.getInt();
+		String firstName = readText(in);
+		String lastName = readText(in);
+		Employee employee = new Employee(firstName, lastName, hireDay == NO_DATE ? null : LocalDate.ofEpochDay(hireDay),
+				readText(in));
+		employee.setId(id);
+		return employee;
+	}
+
+	// UTF-8 with its length, -1 for null
+	private static void writeText(DataOutput out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readText(ByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
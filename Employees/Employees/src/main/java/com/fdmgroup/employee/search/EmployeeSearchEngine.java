@@ -0,0 +1,174 @@
+package com.fdmgroup.employee.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.SearchKeys;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+/**
+ * Plans the free-text employee search. Whatever the number of words, the
+ * candidates come from a single repository query or a single pass over the
+ * search index. They are merged by id and ranked: exact full-name matches
+ * first, then prefix matches, then substring matches, each group in id order.
+ *
+ * The matching rules are those of the original search: the whole input may be
+ * found in the first or the last name, and for two or more words the first
+ * word may be found in the first name or the second word in the last name.
+ */
+@Component
+public class EmployeeSearchEngine {
+	static final int EXACT = 0;
+	static final int PREFIX = 1;
+	static final int SUBSTRING = 2;
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private EmployeeRepository employeeRepository;
+	private EmployeeSearchIndex searchIndex;
+
+	@Autowired
+	public EmployeeSearchEngine(EmployeeRepository employeeRepository, EmployeeSearchIndex searchIndex) {
+		this.employeeRepository = employeeRepository;
+		this.searchIndex = searchIndex;
+	}
+
+	/**
+	 * Searches employees by first name, last name or both.
+	 * 
+	 * @param searchInput - The search input entered by the user.
+	 * @param useIndex    - Whether to read the candidates from the search index
+	 *                    instead of the repository.
+	 * @return - The matching employees in ranked order, or every employee for a
+	 *         blank input.
+	 */
+	public List<Employee> search(String searchInput, boolean useIndex) {
+		String input = normalizeInput(searchInput);
+		if (input.isEmpty()) {
+			return useIndex ? searchIndex.listAll() : employeeRepository.findAll();
+		}
+		String[] words = input.split(" ");
+		String firstName = words.length > 1 ? words[0] : null;
+		String lastName = words.length > 1 ? words[1] : null;
+
+		List<Employee> candidates;
+		if (useIndex) {
+			candidates = searchIndex.findByAnyName(input, firstName, lastName);
+		} else {
+			// A single-word search has no separate first and last name terms, so the
+			// input pattern is reused for them
+			String inputPattern = SearchKeys.containsPattern(input);
+			candidates = employeeRepository.searchByNames(inputPattern,
+					firstName == null ? inputPattern : SearchKeys.containsPattern(firstName),
+					lastName == null ? inputPattern : SearchKeys.containsPattern(lastName));
+		}
+		return rank(input, words, candidates);
+	}
+
+	/**
+	 * Tells whether an employee matches a search, without running it.
+	 * 
+	 * @param employee - The employee.
+	 * @param input    - The search input, already normalized.
+	 * @return - True if the employee is part of the search result.
+	 */
+	public static boolean matches(Employee employee, String input) {
+		if (input.isEmpty()) {
+			return true;
+		}
+		String first = keyOrEmpty(employee.getFirstNameKey());
+		String last = keyOrEmpty(employee.getLastNameKey());
+		if (first.contains(input) || last.contains(input)) {
+			return true;
+		}
+		String[] words = input.split(" ");
+		return words.length > 1 && (first.contains(words[0]) || last.contains(words[1]));
+	}
+
+	/**
+	 * Trims, folds (see SearchKeys) and collapses the whitespace of a search
+	 * input.
+	 * 
+	 * @param searchInput - The raw input.
+	 * @return - The normalized input, empty if it was blank.
+	 */
+	public static String normalizeInput(String searchInput) {
+		return SearchKeys.fold(WHITESPACE.matcher(searchInput.strip()).replaceAll(" "));
+	}
+
+	/**
+	 * Orders candidates by rank then id, dropping repeated ids. Ranks and ids
+	 * are packed into longs (the rank above the 32 bits of the id) so the sort
+	 * needs no comparator or boxing; the employees are found again by id.
+	 */
+	static List<Employee> rank(String input, String[] words, List<Employee> candidates) {
+		long[] keys = new long[candidates.size()];
+		IntObjectHashMap<Employee> byId = new IntObjectHashMap<>(candidates.size());
+		int count = 0;
+		for (Employee employee : candidates) {
+			if (!byId.containsKey(employee.getId())) {
+				byId.put(employee.getId(), employee);
+				keys[count++] = (long) rankOf(employee, input, words) << 32 | employee.getId();
+			}
+		}
+		Arrays.sort(keys, 0, count);
+		List<Employee> ranked = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ranked.add(byId.get((int) keys[i]));
+		}
+		return ranked;
+	}
+
+	// The input is already folded and is compared with the folded search keys of
+	// the employee, so ranking a candidate allocates nothing
+	static int rankOf(Employee employee, String input, String[] words) {
+		return rankOf(employee.getFirstNameKey(), employee.getLastNameKey(), input, words);
+	}
+
+	/**
+	 * Ranks a candidate by its folded name keys, for read models that keep the
+	 * keys without the employee.
+	 * 
+	 * @param firstNameKey - The folded first name, may be null.
+	 * @param lastNameKey  - The folded last name, may be null.
+	 * @param input        - The search input, already normalized.
+	 * @param words        - The words of the input.
+	 * @return - The rank, lower ranks first.
+	 */
+	public static int rankOf(String firstNameKey, String lastNameKey, String input, String[] words) {
+		String first = keyOrEmpty(firstNameKey);
+		String last = keyOrEmpty(lastNameKey);
+		if (first.equals(input) || last.equals(input) || isFullName(first, last, input)) {
+			return EXACT;
+		}
+		if (first.startsWith(input) || last.startsWith(input) || startsFullName(first, last, input)
+				|| (words.length > 1 && (first.startsWith(words[0]) || last.startsWith(words[1])))) {
+			return PREFIX;
+		}
+		return SUBSTRING;
+	}
+
+	private static boolean isFullName(String first, String last, String input) {
+		return input.length() == first.length() + 1 + last.length() && startsFullName(first, last, input);
+	}
+
+	// Whether "first last" starts with the input, without building the full name
+	private static boolean startsFullName(String first, String last, String input) {
+		if (input.length() <= first.length() || input.charAt(first.length()) != ' '
+				|| !input.startsWith(first)) {
+			return false;
+		}
+		int offset = first.length() + 1;
+		return last.regionMatches(0, input, offset, input.length() - offset);
+	}
+
+	private static String keyOrEmpty(String key) {
+		return key == null ? "" : key;
+	}
+
+}
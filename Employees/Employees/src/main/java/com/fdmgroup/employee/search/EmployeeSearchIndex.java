@@ -0,0 +1,626 @@
+package com.fdmgroup.employee.search;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory trigram index over the first name, last name and address of every
+ * employee. It answers the same "contains, ignoring case" questions as the
+ * derived queries in EmployeeRepository without scanning the table.
+ *
+ * The index is loaded from the repository on first use and is kept in step
+ * by calling add() for every employee saved afterwards. The slots of the
+ * employees are also kept by id in a primitive-keyed map, for lookups and to
+ * ignore an employee that is added again.
+ *
+ * For fuzzy searches, FuzzyWordIndex instances over the words of the same
+ * columns find the employees within a small edit distance of misspelled terms.
+ * They are built on the first fuzzy search.
+ *
+ * With a directory configured, the index is kept on disk by EmployeeIndexStore:
+ * it is reopened from its last snapshot and write-ahead log instead of being
+ * read from the repository, then compared with the repository, which remains
+ * the source of truth. Employees saved since the log was last written are
+ * read by id, and an index that still does not match is rebuilt. The
+ * employees of the snapshot are built from the mapped file when first
+ * returned.
+ */
+@Component
+public class EmployeeSearchIndex {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeSearchIndex.class);
+	private final EmployeeRepository employeeRepository;
+	private final int fuzzyMaxDistance;
+	private final EmployeeIndexStore store;
+	private final int checkpointRecords;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private TrigramIndex firstNames;
+	private TrigramIndex lastNames;
+	private TrigramIndex addresses;
+	private FuzzyWordIndex fuzzyFirstNames;
+	private FuzzyWordIndex fuzzyLastNames;
+	private FuzzyWordIndex fuzzyAddresses;
+	private Employee[] employees;
+	private IntObjectHashMap<Integer> byId;
+	// Slots below restoredSize are in the reopened snapshot instead of employees
+	private EmployeeIndexStore.Rows restoredRows;
+	private AtomicReferenceArray<Employee> restored;
+	private int restoredSize;
+	private int size;
+	private int maxId;
+	private long generation;
+	private volatile boolean loaded;
+	private volatile boolean fuzzyLoaded;
+
+	/**
+	 * @param employeeRepository - The repository the index is loaded from.
+	 * @param fuzzyMaxDistance   - The largest number of edits a word of a fuzzy
+	 *                           search may be away from a word of an employee.
+	 * @param directory          - The directory the index is kept in, or blank
+	 *                           to keep it in memory only.
+	 * @param checkpointRecords  - The number of logged employees after which a
+	 *                           new snapshot is written.
+	 */
+	@Autowired
+	public EmployeeSearchIndex(EmployeeRepository employeeRepository,
+			@Value("${employee.search.fuzzy.max-distance:2}") int fuzzyMaxDistance,
+			@Value("${employee.search.index.directory:}") String directory,
+			@Value("${employee.search.index.checkpoint-records:10000}") int checkpointRecords) {
+		this.employeeRepository = employeeRepository;
+		this.fuzzyMaxDistance = fuzzyMaxDistance;
+		this.store = directory.isBlank() ? null : new EmployeeIndexStore(Path.of(directory));
+		this.checkpointRecords = checkpointRecords;
+		clear();
+	}
+
+	/**
+	 * Discards the current content and reloads every employee from the
+	 * repository. A persisted index is written anew.
+	 */
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			loadFromRepository();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds a newly saved employee to the index. Nothing is done while the index
+	 * has not been loaded yet, as the employee will be read with the rest. loaded
+	 * is checked under the lock, so a load in progress is waited for rather than
+	 * skipped; an employee it read already is ignored.
+	 *
+	 * @param employee - The saved Employee instance.
+	 */
+	public void add(Employee employee) {
+		lock.writeLock().lock();
+		try {
+			if (loaded && append(employee) && store != null) {
+				log(employee);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Writes a last snapshot of a persisted index if employees were logged since
+	 * the previous one, so the next start has no log to replay.
+	 */
+	@PreDestroy
+	public void close() {
+		if (store == null) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (loaded && store.loggedRecords() > 0) {
+				checkpoint();
+			}
+			store.close();
+		} catch (UncheckedIOException e) {
+			log.error("Could not write the search index snapshot", e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Lists all indexed employees.
+	 *
+	 * @return - A list of all employees in the index.
+	 */
+	public List<Employee> listAll() {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			List<Employee> result = new ArrayList<>(size);
+			for (int slot = 0; slot < size; slot++) {
+				result.add(employee(slot));
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds an indexed employee by id.
+	 *
+	 * @param id - The ID of the employee.
+	 * @return - The employee, or null if it is not in the index.
+	 */
+	public Employee findById(int id) {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			Integer slot = byId.get(id);
+			return slot == null ? null : employee(slot);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds employees whose first name contains the term, ignoring case.
+	 *
+	 * @param firstName - The term to look for.
+	 * @return - The matching employees.
+	 */
+	public List<Employee> findByFirstName(String firstName) {
+		return findByAnyName(null, firstName, null);
+	}
+
+	/**
+	 * Finds employees whose last name contains the term, ignoring case.
+	 *
+	 * @param lastName - The term to look for.
+	 * @return - The matching employees.
+	 */
+	public List<Employee> findByLastName(String lastName) {
+		return findByAnyName(null, null, lastName);
+	}
+
+	/**
+	 * Finds employees whose first name or last name contains the term, ignoring
+	 * case.
+	 *
+	 * @param searchTerm - The term to look for.
+	 * @return - The matching employees.
+	 */
+	public List<Employee> findByFullName(String searchTerm) {
+		return findByAnyName(searchTerm, null, null);
+	}
+
+	/**
+	 * Finds employees whose address contains the term, ignoring case.
+	 *
+	 * @param address - The term to look for.
+	 * @return - The matching employees.
+	 */
+	public List<Employee> findByAddress(String address) {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			return toEmployees(addresses.contains(address));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds, without duplicates, the employees matching at least one of the
+	 * given terms. Null terms are ignored.
+	 *
+	 * @param searchTerm - Term to look for in either the first or the last name.
+	 * @param firstName  - Term to look for in the first name.
+	 * @param lastName   - Term to look for in the last name.
+	 * @return - The matching employees.
+	 */
+	public List<Employee> findByAnyName(String searchTerm, String firstName, String lastName) {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			int[] slots = new int[0];
+			if (searchTerm != null) {
+				slots = union(slots, union(firstNames.contains(searchTerm), lastNames.contains(searchTerm)));
+			}
+			if (firstName != null) {
+				slots = union(slots, firstNames.contains(firstName));
+			}
+			if (lastName != null) {
+				slots = union(slots, lastNames.contains(lastName));
+			}
+			return toEmployees(slots);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds employees whose first name is within a few edits of the term, every
+	 * word of the term matching a word of the name.
+	 *
+	 * @param firstName - The term to look for, possibly misspelled.
+	 * @return - The matching employees, closest first.
+	 */
+	public List<Employee> fuzzyFindByFirstName(String firstName) {
+		return fuzzy(() -> matchAll(fuzzyFirstNames, FuzzyWordIndex.words(firstName)));
+	}
+
+	/**
+	 * Finds employees whose last name is within a few edits of the term.
+	 *
+	 * @param lastName - The term to look for, possibly misspelled.
+	 * @return - The matching employees, closest first.
+	 */
+	public List<Employee> fuzzyFindByLastName(String lastName) {
+		return fuzzy(() -> matchAll(fuzzyLastNames, FuzzyWordIndex.words(lastName)));
+	}
+
+	/**
+	 * Finds employees with a word of the address within a few edits of every
+	 * word of the term.
+	 *
+	 * @param address - The term to look for, possibly misspelled.
+	 * @return - The matching employees, closest first.
+	 */
+	public List<Employee> fuzzyFindByAddress(String address) {
+		return fuzzy(() -> matchAll(fuzzyAddresses, FuzzyWordIndex.words(address)));
+	}
+
+	/**
+	 * Finds employees whose first and last name are both within a few edits of
+	 * the given ones.
+	 *
+	 * @param firstName - The first name, possibly misspelled.
+	 * @param lastName  - The last name, possibly misspelled.
+	 * @return - The matching employees, smallest total distance first.
+	 */
+	public List<Employee> fuzzyFindByFullName(String firstName, String lastName) {
+		return fuzzy(() -> both(matchAll(fuzzyFirstNames, FuzzyWordIndex.words(firstName)),
+				matchAll(fuzzyLastNames, FuzzyWordIndex.words(lastName))));
+	}
+
+	/**
+	 * Fuzzy counterpart of the free-text search. A single word may be close to
+	 * the first or the last name; with more words, the first word must be close
+	 * to the first name and the last word to the last name, or the other way
+	 * round.
+	 *
+	 * @param searchInput - The search input, possibly misspelled.
+	 * @return - The matching employees, smallest total distance first, or every
+	 *         employee for a blank input.
+	 */
+	public List<Employee> fuzzySearch(String searchInput) {
+		String[] words = FuzzyWordIndex.words(searchInput);
+		if (words.length == 0) {
+			return listAll();
+		}
+		String first = words[0];
+		String last = words[words.length - 1];
+		if (words.length == 1) {
+			return fuzzy(() -> either(fuzzyFirstNames.search(first, allowedDistance(first)),
+					fuzzyLastNames.search(first, allowedDistance(first))));
+		}
+		return fuzzy(() -> either(
+				both(fuzzyFirstNames.search(first, allowedDistance(first)),
+						fuzzyLastNames.search(last, allowedDistance(last))),
+				both(fuzzyFirstNames.search(last, allowedDistance(last)),
+						fuzzyLastNames.search(first, allowedDistance(first)))));
+	}
+
+	/**
+	 * Returns the number of indexed employees.
+	 *
+	 * @return - The number of employees, loading the index if needed.
+	 */
+	public int size() {
+		ensureLoaded();
+		return size;
+	}
+
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (!loaded && (store == null || !reopen())) {
+				loadFromRepository();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void loadFromRepository() {
+		log.info("Loading employee search index");
+		clear();
+		for (Employee employee : employeeRepository.findAll()) {
+			append(employee);
+		}
+		loaded = true;
+		if (store != null) {
+			try {
+				checkpoint();
+			} catch (UncheckedIOException e) {
+				log.error("Could not write the search index snapshot", e);
+			}
+		}
+		log.info("Loaded {} employees into the search index", size);
+	}
+
+	// Restores the snapshot, replays the log, then reads the employees saved since by id
+	private boolean reopen() {
+		long start = System.nanoTime();
+		EmployeeIndexStore.Snapshot snapshot;
+		List<Employee> logged;
+		try {
+			snapshot = store.open();
+			if (snapshot == null) {
+				return false;
+			}
+			logged = store.replayLog(snapshot.generation());
+		} catch (RuntimeException e) {
+			log.warn("Could not reopen the search index, rebuilding it", e);
+			clear();
+			return false;
+		}
+		generation = snapshot.generation();
+		size = snapshot.size();
+		restoredSize = size;
+		restoredRows = snapshot.rows();
+		restored = new AtomicReferenceArray<>(size);
+		employees = new Employee[Math.max(16, size)];
+		firstNames = snapshot.firstNames();
+		lastNames = snapshot.lastNames();
+		addresses = snapshot.addresses();
+		byId = new IntObjectHashMap<>(size);
+		for (int slot = 0; slot < size; slot++) {
+			byId.put(snapshot.ids()[slot], slot);
+			maxId = Math.max(maxId, snapshot.ids()[slot]);
+		}
+		for (Employee employee : logged) {
+			append(employee);
+		}
+		int restored = size;
+		long rows = employeeRepository.count();
+		List<Employee> page;
+		while (size < rows
+				&& !(page = employeeRepository.findByIdGreaterThanOrderByIdAsc(maxId, PageRequest.of(0, 1000)))
+						.isEmpty()) {
+			for (Employee employee : page) {
+				if (append(employee)) {
+					log(employee);
+				}
+			}
+		}
+		if (size != rows || maxId != employeeRepository.findMaxId()) {
+			log.warn("The search index on disk holds {} employees up to id {}, the repository {}; rebuilding it",
+					size, maxId, rows);
+			clear();
+			return false;
+		}
+		loaded = true;
+		log.info("Reopened the search index with {} employees ({} from the log, {} from the repository) in {} ms",
+				size, logged.size(), size - restored, (System.nanoTime() - start) / 1_000_000);
+		return true;
+	}
+
+	// The log is written after the database, so a failed write only costs a catch-up read on the next start
+	private void log(Employee employee) {
+		try {
+			store.append(employee);
+			if (store.loggedRecords() >= checkpointRecords) {
+				checkpoint();
+			}
+		} catch (UncheckedIOException e) {
+			log.error("Could not log employee {} to the search index on disk", employee.getId(), e);
+		}
+	}
+
+	private void checkpoint() {
+		long started = System.nanoTime();
+		store.checkpoint(++generation, this::employee, size, firstNames, lastNames, addresses);
+		log.info("Wrote search index snapshot {} with {} employees in {} ms", generation, size,
+				(System.nanoTime() - started) / 1_000_000);
+	}
+
+	// Built from the indexed employees on the first fuzzy search, then kept in step by append
+	private void ensureFuzzyLoaded() {
+		ensureLoaded();
+		if (fuzzyLoaded) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (!fuzzyLoaded) {
+				for (int slot = 0; slot < size; slot++) {
+					addFuzzy(slot, employee(slot));
+				}
+				fuzzyFirstNames.compact();
+				fuzzyLastNames.compact();
+				fuzzyAddresses.compact();
+				fuzzyLoaded = true;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void clear() {
+		firstNames = new TrigramIndex();
+		lastNames = new TrigramIndex();
+		addresses = new TrigramIndex();
+		fuzzyFirstNames = new FuzzyWordIndex();
+		fuzzyLastNames = new FuzzyWordIndex();
+		fuzzyAddresses = new FuzzyWordIndex();
+		employees = new Employee[16];
+		byId = new IntObjectHashMap<>();
+		restoredRows = null;
+		restored = null;
+		restoredSize = 0;
+		size = 0;
+		maxId = 0;
+		loaded = false;
+		fuzzyLoaded = false;
+	}
+
+	// An employee saved while the index was loading is read by the load and then added again
+	private boolean append(Employee employee) {
+		if (byId.containsKey(employee.getId())) {
+			return false;
+		}
+		int slot = size;
+		byId.put(employee.getId(), slot);
+		maxId = Math.max(maxId, employee.getId());
+		if (slot == employees.length) {
+			employees = Arrays.copyOf(employees, slot * 2);
+		}
+		employees[slot] = employee;
+		firstNames.add(slot, employee.getFirstName());
+		lastNames.add(slot, employee.getLastName());
+		addresses.add(slot, employee.getAddress());
+		if (fuzzyLoaded) {
+			addFuzzy(slot, employee);
+		}
+		size++;
+		return true;
+	}
+
+	private void addFuzzy(int slot, Employee employee) {
+		fuzzyFirstNames.add(slot, employee.getFirstName());
+		fuzzyLastNames.add(slot, employee.getLastName());
+		fuzzyAddresses.add(slot, employee.getAddress());
+	}
+
+	private List<Employee> toEmployees(int[] slots) {
+		List<Employee> result = new ArrayList<>(slots.length);
+		for (int slot : slots) {
+			result.add(employee(slot));
+		}
+		return result;
+	}
+
+	// Built from the mapped snapshot on first use; concurrent readers may both build one, the first is kept
+	private Employee employee(int slot) {
+		if (slot >= restoredSize) {
+			return employees[slot];
+		}
+		Employee employee = restored.get(slot);
+		if (employee == null) {
+			employee = restoredRows.employee(slot);
+			if (!restored.compareAndSet(slot, null, employee)) {
+				employee = restored.get(slot);
+			}
+		}
+		return employee;
+	}
+
+	// Short words allow fewer edits, or "ana" would match most three-letter names
+	int allowedDistance(String word) {
+		return Math.min(fuzzyMaxDistance, word.length() / 3);
+	}
+
+	private List<Employee> fuzzy(Supplier<IntObjectHashMap<Integer>> matcher) {
+		ensureFuzzyLoaded();
+		lock.readLock().lock();
+		try {
+			return ranked(matcher.get());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Every word must match, the distances of the words add up
+	private IntObjectHashMap<Integer> matchAll(FuzzyWordIndex index, String[] words) {
+		IntObjectHashMap<Integer> matches = null;
+		for (String word : words) {
+			IntObjectHashMap<Integer> wordMatches = index.search(word, allowedDistance(word));
+			matches = matches == null ? wordMatches : both(matches, wordMatches);
+		}
+		return matches == null ? new IntObjectHashMap<>() : matches;
+	}
+
+	// Slots in both maps, with the sum of their distances
+	static IntObjectHashMap<Integer> both(IntObjectHashMap<Integer> left, IntObjectHashMap<Integer> right) {
+		IntObjectHashMap<Integer> matches = new IntObjectHashMap<>(Math.min(left.size(), right.size()));
+		left.forEach((slot, distance) -> {
+			Integer other = right.get(slot);
+			if (other != null) {
+				matches.put(slot, distance + other);
+			}
+		});
+		return matches;
+	}
+
+	// Slots in either map, with the smaller of their distances
+	static IntObjectHashMap<Integer> either(IntObjectHashMap<Integer> left, IntObjectHashMap<Integer> right) {
+		right.forEach((slot, distance) -> {
+			Integer other = left.get(slot);
+			if (other == null || distance < other) {
+				left.put(slot, distance);
+			}
+		});
+		return left;
+	}
+
+	// Orders by distance then slot, packed into longs so the sort needs no comparator
+	private List<Employee> ranked(IntObjectHashMap<Integer> matches) {
+		long[] keys = new long[matches.size()];
+		int[] count = { 0 };
+		matches.forEach((slot, distance) -> keys[count[0]++] = (long) distance << 32 | slot);
+		Arrays.sort(keys);
+		List<Employee> result = new ArrayList<>(keys.length);
+		for (long key : keys) {
+			result.add(employee((int) key));
+		}
+		return result;
+	}
+
+	// Merges two ascending slot arrays, dropping duplicates
+	static int[] union(int[] left, int[] right) {
+		if (left.length == 0) {
+			return right;
+		}
+		if (right.length == 0) {
+			return left;
+		}
+		int[] merged = new int[left.length + right.length];
+		int i = 0, j = 0, count = 0;
+		while (i < left.length || j < right.length) {
+			int next;
+			if (j == right.length || (i < left.length && left[i] <= right[j])) {
+				next = left[i++];
+			} else {
+				next = right[j++];
+			}
+			if (count == 0 || merged[count - 1] != next) {
+				merged[count++] = next;
+			}
+		}
+		return Arrays.copyOf(merged, count);
+	}
+
+}
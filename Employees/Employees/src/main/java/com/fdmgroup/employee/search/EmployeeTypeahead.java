@@ -0,0 +1,145 @@
+package com.fdmgroup.employee.search;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.SearchKeys;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+/**
+ * Completions of the first names, last names, full names and cities of the
+ * employees, ranked by how many employees share them. Every field has a
+ * PrefixTrie over its folded values, so "jo" and "JÖ" complete to the same
+ * names. The tries are loaded by one GROUP BY per field on first use and are
+ * kept in step by calling add() for every employee saved afterwards. add()
+ * waits for a load in progress, so an employee saved while the tries load is
+ * never missed, though it may be counted twice; rebuild() loads them again.
+ */
+@Component
+public class EmployeeTypeahead {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeTypeahead.class);
+	private final EmployeeRepository employeeRepository;
+	private final int maxSuggestions;
+	private final Map<TypeaheadField, PrefixTrie> tries = new EnumMap<>(TypeaheadField.class);
+	// Lookups share the read lock, adds and loads take the write lock
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private volatile boolean loaded;
+
+	/**
+	 * @param employeeRepository - The repository the values are counted in.
+	 * @param maxSuggestions     - The number of completions kept per prefix, the
+	 *                           largest number returned by suggest().
+	 */
+	@Autowired
+	public EmployeeTypeahead(EmployeeRepository employeeRepository,
+			@Value("${employee.typeahead.max-suggestions:10}") int maxSuggestions) {
+		this.employeeRepository = employeeRepository;
+		this.maxSuggestions = Math.max(1, maxSuggestions);
+	}
+
+	/**
+	 * Discards the tries and counts every value in the repository again.
+	 */
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			load();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Counts the values of a newly saved employee. Nothing is done while the
+	 * tries have not been loaded yet, as the employee will be counted with the
+	 * rest. loaded is checked under the lock, so a load in progress is waited
+	 * for rather than skipped.
+	 *
+	 * @param employee - The saved Employee instance.
+	 */
+	public void add(Employee employee) {
+		lock.writeLock().lock();
+		try {
+			if (!loaded) {
+				return;
+			}
+			for (TypeaheadField field : TypeaheadField.values()) {
+				add(field, field.valueOf(employee), 1);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @param field  - The field completed.
+	 * @param prefix - The start of the value, compared without case and accents.
+	 * @param limit  - The largest number of completions, capped at
+	 *               max-suggestions.
+	 * @return - The values of the field starting with the prefix, the most
+	 *         frequent first.
+	 */
+	public List<Suggestion> suggest(TypeaheadField field, String prefix, int limit) {
+		ensureLoaded();
+		String folded = SearchKeys.fold(prefix == null ? "" : prefix.stripLeading());
+		lock.readLock().lock();
+		try {
+			return tries.get(field).complete(folded, Math.min(limit, maxSuggestions));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (!loaded) {
+				load();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void load() {
+		log.info("Loading the typeahead");
+		for (TypeaheadField field : TypeaheadField.values()) {
+			tries.put(field, new PrefixTrie(maxSuggestions));
+		}
+		for (Object[] row : employeeRepository.countByFirstName()) {
+			add(TypeaheadField.FIRST_NAME, (String) row[0], ((Number) row[1]).longValue());
+		}
+		for (Object[] row : employeeRepository.countByLastName()) {
+			add(TypeaheadField.LAST_NAME, (String) row[0], ((Number) row[1]).longValue());
+		}
+		for (Object[] row : employeeRepository.countByFullName()) {
+			add(TypeaheadField.FULL_NAME, TypeaheadField.fullName((String) row[0], (String) row[1]),
+					((Number) row[2]).longValue());
+		}
+		for (Object[] row : employeeRepository.countByCity()) {
+			add(TypeaheadField.CITY, (String) row[0], ((Number) row[1]).longValue());
+		}
+		loaded = true;
+		log.info("Loaded {} full names and {} cities into the typeahead", tries.get(TypeaheadField.FULL_NAME).size(),
+				tries.get(TypeaheadField.CITY).size());
+	}
+
+	private void add(TypeaheadField field, String value, long count) {
+		if (value != null) {
+			tries.get(field).add(SearchKeys.fold(value), value, count);
+		}
+	}
+
+}
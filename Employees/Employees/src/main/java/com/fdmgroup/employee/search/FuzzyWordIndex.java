@@ -0,0 +1,265 @@
+package com.fdmgroup.employee.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.fdmgroup.employee.model.SearchKeys;
+
+/**
+ * Index of the folded words of a single text column, for lookups by edit
+ * (Levenshtein) distance. Every distinct word keeps the slots of the values
+ * that contain it, and the words are kept in a sorted array so that they can
+ * be walked as a trie: the edit distance rows of a shared prefix are computed
+ * once, and as soon as every entry of the row of a prefix is over the maximum
+ * distance, all the words starting with that prefix are skipped with a binary
+ * search. This is the traversal a Levenshtein automaton does over a
+ * dictionary, and it only visits a small part of the words even with a
+ * million of them.
+ *
+ * New words are collected unsorted and compared one by one until there are
+ * enough of them to be worth merging into the sorted array, or until
+ * compact() is called after a bulk load.
+ *
+ * The class is not thread safe, callers are expected to guard it.
+ */
+public class FuzzyWordIndex {
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final int MIN_MERGE = 1024;
+	// Recent words are merged once they reach this fraction of the sorted ones
+	private static final int MERGE_RATIO = 64;
+
+	private final Map<String, Postings> postings = new HashMap<>();
+	private String[] sorted = new String[0];
+	private Postings[] sortedPostings = new Postings[0];
+	private final List<String> recent = new ArrayList<>();
+
+	/**
+	 * Splits a value into the folded words it is indexed and searched by.
+	 *
+	 * @param value - The raw value, may be null.
+	 * @return - The non-empty words of the value.
+	 */
+	public static String[] words(String value) {
+		String folded = SearchKeys.fold(value);
+		if (folded == null || folded.isBlank()) {
+			return new String[0];
+		}
+		return Arrays.stream(SEPARATORS.split(folded)).filter(word -> !word.isEmpty()).toArray(String[]::new);
+	}
+
+	/**
+	 * Adds every word of a value to the index.
+	 *
+	 * @param slot  - The slot number of the value.
+	 * @param value - The raw value, may be null.
+	 */
+	public void add(int slot, String value) {
+		for (String word : words(value)) {
+			postings.computeIfAbsent(word, key -> {
+				recent.add(key);
+				return new Postings();
+			}).add(slot);
+		}
+		if (recent.size() >= Math.max(MIN_MERGE, sorted.length / MERGE_RATIO)) {
+			merge();
+		}
+	}
+
+	/**
+	 * Finds the slots holding a word within the given distance of a word.
+	 *
+	 * @param word        - A folded word.
+	 * @param maxDistance - The largest edit distance accepted.
+	 * @return - The matching slots, each with the smallest distance of any of its
+	 *         words.
+	 */
+	public IntObjectHashMap<Integer> search(String word, int maxDistance) {
+		IntObjectHashMap<Integer> matches = new IntObjectHashMap<>();
+		int length = word.length();
+		// rows[d] holds the distances between the prefixes of the word and the first
+		// d characters of the previous sorted word
+		int[][] rows = new int[16][];
+		rows[0] = new int[length + 1];
+		for (int i = 0; i <= length; i++) {
+			rows[0][i] = i;
+		}
+		String previous = "";
+		int computed = 0;
+		int index = 0;
+		while (index < sorted.length) {
+			String term = sorted[index];
+			int depth = Math.min(computed, commonPrefix(previous, term));
+			boolean hopeless = false;
+			while (depth < term.length()) {
+				if (depth + 1 == rows.length) {
+					rows = Arrays.copyOf(rows, rows.length * 2);
+				}
+				if (rows[depth + 1] == null) {
+					rows[depth + 1] = new int[length + 1];
+				}
+				int rowMinimum = nextRow(word, term.charAt(depth), rows[depth], rows[depth + 1]);
+				depth++;
+				if (rowMinimum > maxDistance) {
+					hopeless = true;
+					break;
+				}
+			}
+			previous = term;
+			computed = depth;
+			if (hopeless) {
+				// No word starting with this prefix can come within the distance
+				index = endOfPrefix(index, term, depth);
+				continue;
+			}
+			int distance = rows[depth][length];
+			if (distance <= maxDistance) {
+				sortedPostings[index].addTo(matches, distance);
+			}
+			index++;
+		}
+		int[] previousRow = rows[0].clone();
+		int[] currentRow = new int[length + 1];
+		for (String term : recent) {
+			if (Math.abs(term.length() - length) <= maxDistance) {
+				int distance = distance(word, term, previousRow, currentRow);
+				if (distance <= maxDistance) {
+					postings.get(term).addTo(matches, distance);
+				}
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Merges the words added since the last merge into the sorted array, so that
+	 * searches no longer compare them one by one.
+	 */
+	public void compact() {
+		if (!recent.isEmpty()) {
+			merge();
+		}
+	}
+
+	/**
+	 * @return - The number of distinct words in the index.
+	 */
+	public int size() {
+		return postings.size();
+	}
+
+	/**
+	 * Levenshtein distance between two words.
+	 */
+	static int distance(String word, String other) {
+		return distance(word, other, new int[word.length() + 1], new int[word.length() + 1]);
+	}
+
+	// The rows are scratch space of the length of the word plus one
+	private static int distance(String word, String other, int[] previous, int[] current) {
+		for (int i = 0; i <= word.length(); i++) {
+			previous[i] = i;
+		}
+		for (int j = 0; j < other.length(); j++) {
+			nextRow(word, other.charAt(j), previous, current);
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[word.length()];
+	}
+
+	// Fills the distance row for one more character of the other word and returns its minimum
+	private static int nextRow(String word, char c, int[] previous, int[] current) {
+		current[0] = previous[0] + 1;
+		int minimum = current[0];
+		for (int i = 1; i < current.length; i++) {
+			int substitution = previous[i - 1] + (word.charAt(i - 1) == c ? 0 : 1);
+			current[i] = Math.min(substitution, Math.min(previous[i], current[i - 1]) + 1);
+			minimum = Math.min(minimum, current[i]);
+		}
+		return minimum;
+	}
+
+	private void merge() {
+		recent.sort(null);
+		String[] merged = new String[sorted.length + recent.size()];
+		Postings[] mergedPostings = new Postings[merged.length];
+		int i = 0, j = 0;
+		for (int k = 0; k < merged.length; k++) {
+			if (j == recent.size() || (i < sorted.length && sorted[i].compareTo(recent.get(j)) < 0)) {
+				merged[k] = sorted[i];
+				mergedPostings[k] = sortedPostings[i++];
+			} else {
+				merged[k] = recent.get(j++);
+				mergedPostings[k] = postings.get(merged[k]);
+			}
+		}
+		sorted = merged;
+		sortedPostings = mergedPostings;
+		recent.clear();
+	}
+
+	// The index of the first sorted word after the given one not starting with its first length characters
+	private int endOfPrefix(int index, String term, int length) {
+		int low = index;
+		int step = 1;
+		while (low + step < sorted.length && startsWith(sorted[low + step], term, length)) {
+			low += step;
+			step <<= 1;
+		}
+		int high = Math.min(low + step, sorted.length);
+		// The word at low starts with the prefix, the one at high (if any) does not
+		while (high - low > 1) {
+			int middle = (low + high) >>> 1;
+			if (startsWith(sorted[middle], term, length)) {
+				low = middle;
+			} else {
+				high = middle;
+			}
+		}
+		return high;
+	}
+
+	private static boolean startsWith(String word, String term, int length) {
+		return word.regionMatches(0, term, 0, length);
+	}
+
+	private static int commonPrefix(String left, String right) {
+		int limit = Math.min(left.length(), right.length());
+		int i = 0;
+		while (i < limit && left.charAt(i) == right.charAt(i)) {
+			i++;
+		}
+		return i;
+	}
+
+	private static final class Postings {
+		private int[] slots = new int[1];
+		private int size;
+
+		private void add(int slot) {
+			// A value containing the same word twice is only listed once
+			if (size > 0 && slots[size - 1] == slot) {
+				return;
+			}
+			if (size == slots.length) {
+				slots = Arrays.copyOf(slots, size * 2);
+			}
+			slots[size++] = slot;
+		}
+
+		private void addTo(IntObjectHashMap<Integer> matches, int distance) {
+			for (int i = 0; i < size; i++) {
+				Integer best = matches.get(slots[i]);
+				if (best == null || distance < best) {
+					matches.put(slots[i], distance);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.fdmgroup.employee.search;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive ints backed by an open-addressing table with linear
+ * probing, so adding and looking up employee ids never boxes them.
+ */
+public class IntHashSet {
+	private static final int EMPTY = 0;
+
+	private int[] table;
+	private boolean containsEmpty;
+	private int size;
+
+	public IntHashSet() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize - The number of values expected, used to size the
+	 *                     table so that it does not need to grow.
+	 */
+	public IntHashSet(int expectedSize) {
+		table = new int[tableSizeFor(expectedSize)];
+	}
+
+	/**
+	 * @param value - The value to add.
+	 * @return - True if the value was not in the set yet.
+	 */
+	public boolean add(int value) {
+		if (value == EMPTY) {
+			if (containsEmpty) {
+				return false;
+			}
+			containsEmpty = true;
+			size++;
+			return true;
+		}
+		int slot = slot(value, table);
+		if (table[slot] == value) {
+			return false;
+		}
+		table[slot] = value;
+		if (++size * 2 > table.length) {
+			grow();
+		}
+		return true;
+	}
+
+	/**
+	 * @param value - The value to look for.
+	 * @return - True if the value is in the set.
+	 */
+	public boolean contains(int value) {
+		if (value == EMPTY) {
+			return containsEmpty;
+		}
+		return table[slot(value, table)] == value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		Arrays.fill(table, EMPTY);
+		containsEmpty = false;
+		size = 0;
+	}
+
+	// Returns the slot holding the value, or the empty slot where it would go
+	private static int slot(int value, int[] table) {
+		int mask = table.length - 1;
+		int slot = mix(value) & mask;
+		while (table[slot] != EMPTY && table[slot] != value) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		int[] grown = new int[table.length * 2];
+		for (int value : table) {
+			if (value != EMPTY) {
+				grown[slot(value, grown)] = value;
+			}
+		}
+		table = grown;
+	}
+
+	// Spreads sequential ids over the table
+	private static int mix(int value) {
+		int h = value * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int tableSizeFor(int expectedSize) {
+		int size = 16;
+		while (size < expectedSize * 2) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.fdmgroup.employee.search;
+
+import java.util.Arrays;
+
+/**
+ * Map from primitive int keys to objects, backed by open-addressing tables
+ * with linear probing like IntHashSet, so looking up an employee by id never
+ * boxes the id. Null values are not supported. The map is not thread safe.
+ *
+ * @param <V> - The type of the values.
+ */
+public class IntObjectHashMap<V> {
+	private static final int EMPTY = 0;
+
+	private int[] keys;
+	private Object[] values;
+	private Object emptyKeyValue;
+	private int size;
+
+	public IntObjectHashMap() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize - The number of entries expected, used to size the
+	 *                     tables so that they do not need to grow.
+	 */
+	public IntObjectHashMap(int expectedSize) {
+		int capacity = tableSizeFor(expectedSize);
+		keys = new int[capacity];
+		values = new Object[capacity];
+	}
+
+	/**
+	 * @param key   - The key.
+	 * @param value - The value, not null.
+	 * @return - The value previously mapped to the key, or null.
+	 */
+	public V put(int key, V value) {
+		if (key == EMPTY) {
+			V previous = cast(emptyKeyValue);
+			if (previous == null) {
+				size++;
+			}
+			emptyKeyValue = value;
+			return previous;
+		}
+		int slot = slot(key, keys);
+		V previous = cast(values[slot]);
+		keys[slot] = key;
+		values[slot] = value;
+		if (previous == null && ++size * 2 > keys.length) {
+			grow();
+		}
+		return previous;
+	}
+
+	/**
+	 * @param key - The key to look for.
+	 * @return - The value mapped to the key, or null.
+	 */
+	public V get(int key) {
+		if (key == EMPTY) {
+			return cast(emptyKeyValue);
+		}
+		return cast(values[slot(key, keys)]);
+	}
+
+	public boolean containsKey(int key) {
+		return get(key) != null;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Hands every entry to the consumer, in no particular order.
+	 *
+	 * @param consumer - Receives the key and the value of each entry.
+	 */
+	public void forEach(EntryConsumer<? super V> consumer) {
+		if (emptyKeyValue != null) {
+			consumer.accept(EMPTY, cast(emptyKeyValue));
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != EMPTY) {
+				consumer.accept(keys[i], cast(values[i]));
+			}
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		Arrays.fill(values, null);
+		emptyKeyValue = null;
+		size = 0;
+	}
+
+	// Returns the slot holding the key, or the empty slot where it would go
+	private static int slot(int key, int[] keys) {
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while (keys[slot] != EMPTY && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		int[] grownKeys = new int[keys.length * 2];
+		Object[] grownValues = new Object[keys.length * 2];
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != EMPTY) {
+				int slot = slot(keys[i], grownKeys);
+				grownKeys[slot] = keys[i];
+				grownValues[slot] = values[i];
+			}
+		}
+		keys = grownKeys;
+		values = grownValues;
+	}
+
+	@FunctionalInterface
+	public interface EntryConsumer<V> {
+		void accept(int key, V value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> V cast(Object value) {
+		return (V) value;
+	}
+
+	// Spreads sequential ids over the table
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int tableSizeFor(int expectedSize) {
+		int size = 16;
+		while (size < expectedSize * 2) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+}
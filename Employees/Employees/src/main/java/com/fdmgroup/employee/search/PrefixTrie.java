@@ -0,0 +1,162 @@
+package com.fdmgroup.employee.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prefix trie over folded values, counting how often each value was added.
+ * Every node keeps its top completions: the most frequent values below it,
+ * at most maxCompletions of them, by count and then by folded value. A lookup
+ * walks one node per character of the prefix and copies that list, so its
+ * cost depends on the length of the prefix and not on the number of values.
+ *
+ * Counts only grow, so adding a value only moves that value up in the lists
+ * of the nodes on its path: it is bubbled up where it is listed already, and
+ * takes the place of the last completion where it now ranks above it.
+ *
+ * The class is not thread safe, callers are expected to guard it.
+ */
+public class PrefixTrie {
+	private static final char[] NO_LABELS = new char[0];
+	private static final Node[] NO_NODES = new Node[0];
+
+	private final int maxCompletions;
+	private final Node root = new Node();
+	private int size;
+
+	/**
+	 * @param maxCompletions - The number of completions kept per prefix, the
+	 *                       largest limit of complete().
+	 */
+	public PrefixTrie(int maxCompletions) {
+		this.maxCompletions = Math.max(1, maxCompletions);
+	}
+
+	/**
+	 * @return - The number of distinct values.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds occurrences of a value.
+	 *
+	 * @param key   - The folded value, the path of the value in the trie.
+	 * @param value - The value as shown; the first one added for a key is kept.
+	 * @param count - The number of occurrences to add.
+	 */
+	public void add(String key, String value, long count) {
+		if (key == null || key.isEmpty() || count <= 0) {
+			return;
+		}
+		Node[] path = new Node[key.length() + 1];
+		Node node = root;
+		path[0] = node;
+		for (int i = 0; i < key.length(); i++) {
+			node = node.child(key.charAt(i), true);
+			path[i + 1] = node;
+		}
+		if (node.count == 0) {
+			node.key = key;
+			node.value = value;
+			size++;
+		}
+		node.count += count;
+		for (Node prefix : path) {
+			prefix.rank(node, maxCompletions);
+		}
+	}
+
+	/**
+	 * @param prefix - The folded prefix.
+	 * @param limit  - The largest number of completions returned, capped at
+	 *               maxCompletions.
+	 * @return - The most frequent values starting with the prefix, most frequent
+	 *         first.
+	 */
+	public List<Suggestion> complete(String prefix, int limit) {
+		Node node = root;
+		for (int i = 0; node != null && i < prefix.length(); i++) {
+			node = node.child(prefix.charAt(i), false);
+		}
+		if (node == null || limit <= 0) {
+			return List.of();
+		}
+		int count = Math.min(limit, node.completionCount);
+		List<Suggestion> suggestions = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Node completion = node.completions[i];
+			suggestions.add(new Suggestion(completion.value, completion.count));
+		}
+		return suggestions;
+	}
+
+	private static final class Node {
+		// Sorted labels of the children, searched by binary search
+		private char[] labels = NO_LABELS;
+		private Node[] children = NO_NODES;
+		private int childCount;
+		// Set on the nodes ending a value
+		private String key;
+		private String value;
+		private long count;
+		// Grown as needed, most nodes deep in the trie have a single completion
+		private Node[] completions = NO_NODES;
+		private int completionCount;
+
+		private Node child(char label, boolean create) {
+			int index = Arrays.binarySearch(labels, 0, childCount, label);
+			if (index >= 0) {
+				return children[index];
+			}
+			if (!create) {
+				return null;
+			}
+			index = -index - 1;
+			if (childCount == labels.length) {
+				int capacity = Math.max(2, childCount * 2);
+				labels = Arrays.copyOf(labels, capacity);
+				children = Arrays.copyOf(children, capacity);
+			}
+			System.arraycopy(labels, index, labels, index + 1, childCount - index);
+			System.arraycopy(children, index, children, index + 1, childCount - index);
+			Node child = new Node();
+			labels[index] = label;
+			children[index] = child;
+			childCount++;
+			return child;
+		}
+
+		// Moves a value whose count grew to its place in the completions
+		private void rank(Node value, int maxCompletions) {
+			int index = completionCount - 1;
+			while (index >= 0 && completions[index] != value) {
+				index--;
+			}
+			if (index < 0) {
+				if (completionCount < maxCompletions) {
+					if (completionCount == completions.length) {
+						completions = Arrays.copyOf(completions, Math.min(maxCompletions, Math.max(1, completionCount * 2)));
+					}
+					index = completionCount++;
+				} else if (before(value, completions[completionCount - 1])) {
+					index = completionCount - 1;
+				} else {
+					return;
+				}
+				completions[index] = value;
+			}
+			while (index > 0 && before(value, completions[index - 1])) {
+				completions[index] = completions[index - 1];
+				completions[--index] = value;
+			}
+		}
+
+		private static boolean before(Node a, Node b) {
+			return a.count != b.count ? a.count > b.count : a.key.compareTo(b.key) < 0;
+		}
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.fdmgroup.employee.search;
+
+/**
+ * A completion of a typeahead prefix.
+ *
+ * @param value - The value, spelled as it was first saved.
+ * @param count - The number of employees with the value.
+ */
+public record Suggestion(String value, long count) {
+
+}
@@ -0,0 +1,185 @@
+package com.fdmgroup.employee.search;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fdmgroup.employee.model.SearchKeys;
+
+/**
+ * Trigram index over a single text column. Values are stored case-folded by
+ * slot number, and every trigram keeps a posting list of the slots whose value
+ * contains it. A "contains" lookup only verifies the slots of its rarest
+ * trigram instead of scanning every value.
+ *
+ * Slots must be added in ascending order so that posting lists stay sorted.
+ * The class is not thread safe, callers are expected to guard it.
+ *
+ * The posting lists can be written out and read back (see
+ * EmployeeIndexStore), so that a reopened index does not split every value
+ * into trigrams again.
+ */
+public class TrigramIndex {
+	private static final int GRAM = 3;
+
+	private final Map<String, Postings> postings = new HashMap<>();
+	private String[] values = new String[16];
+	private int size;
+
+	/**
+	 * Case- and accent-folds a value the same way for indexing and for querying,
+	 * and as the search key columns of the database.
+	 *
+	 * @param value - The raw value, may be null.
+	 * @return - The normalized value, or null if the value was null.
+	 */
+	public static String normalize(String value) {
+		return SearchKeys.fold(value);
+	}
+
+	/**
+	 * Adds a value to the index.
+	 *
+	 * @param slot  - The slot number of the value, greater than any slot added
+	 *              before.
+	 * @param value - The raw value, may be null.
+	 */
+	public void add(int slot, String value) {
+		if (slot >= values.length) {
+			values = Arrays.copyOf(values, Math.max(values.length * 2, slot + 1));
+		}
+		String normalized = normalize(value);
+		values[slot] = normalized;
+		size = Math.max(size, slot + 1);
+		if (normalized == null) {
+			return;
+		}
+		for (int i = 0; i + GRAM <= normalized.length(); i++) {
+			postings.computeIfAbsent(normalized.substring(i, i + GRAM), gram -> new Postings()).add(slot);
+		}
+	}
+
+	/**
+	 * Finds the slots whose value contains the given term, ignoring case.
+	 *
+	 * @param term - The term to look for, may be null.
+	 * @return - The matching slots in ascending order, none for a null term.
+	 */
+	public int[] contains(String term) {
+		if (term == null) {
+			return new int[0];
+		}
+		String normalized = normalize(term);
+		if (normalized.length() < GRAM) {
+			return scan(normalized);
+		}
+		Postings rarest = null;
+		for (int i = 0; i + GRAM <= normalized.length(); i++) {
+			Postings candidate = postings.get(normalized.substring(i, i + GRAM));
+			if (candidate == null) {
+				return new int[0];
+			}
+			if (rarest == null || candidate.size < rarest.size) {
+				rarest = candidate;
+			}
+		}
+		int[] matches = new int[rarest.size];
+		int count = 0;
+		for (int i = 0; i < rarest.size; i++) {
+			int slot = rarest.slots[i];
+			if (values[slot].contains(normalized)) {
+				matches[count++] = slot;
+			}
+		}
+		return Arrays.copyOf(matches, count);
+	}
+
+	/**
+	 * Returns the case-folded value stored in a slot.
+	 *
+	 * @param slot - The slot number.
+	 * @return - The normalized value, or null if none was stored.
+	 */
+	public String value(int slot) {
+		return slot < size ? values[slot] : null;
+	}
+
+	/**
+	 * Writes the posting lists: their number, then every trigram as three UTF-16
+	 * chars (a trigram may split a surrogate pair, which UTF-8 cannot encode),
+	 * followed by the number of its slots and the slots.
+	 *
+	 * @param out - The output.
+	 * @throws IOException - If the output cannot be written.
+	 */
+	void writePostings(DataOutput out) throws IOException {
+		out.writeInt(postings.size());
+		for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+			out.writeChars(entry.getKey());
+			Postings list = entry.getValue();
+			out.writeInt(list.size);
+			for (int i = 0; i < list.size; i++) {
+				out.writeInt(list.slots[i]);
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds an index from its values and the posting lists written by
+	 * writePostings.
+	 *
+	 * @param values - The normalized values by slot; the array is kept.
+	 * @param size   - The number of slots.
+	 * @param in     - The posting lists, read from the current position.
+	 * @return - The index.
+	 */
+	static TrigramIndex readPostings(String[] values, int size, ByteBuffer in) {
+		TrigramIndex index = new TrigramIndex();
+		index.values = values.length == 0 ? new String[16] : values;
+		index.size = size;
+		int count = in.getInt();
+		for (int i = 0; i < count; i++) {
+			String gram = new String(new char[] { in.getChar(), in.getChar(), in.getChar() });
+			Postings list = new Postings();
+			list.size = in.getInt();
+			list.slots = new int[Math.max(4, list.size)];
+			for (int j = 0; j < list.size; j++) {
+				list.slots[j] = in.getInt();
+			}
+			index.postings.put(gram, list);
+		}
+		return index;
+	}
+
+	// Terms shorter than a trigram cannot use the postings, so check every value
+	private int[] scan(String normalized) {
+		int[] matches = new int[size];
+		int count = 0;
+		for (int slot = 0; slot < size; slot++) {
+			if (values[slot] != null && values[slot].contains(normalized)) {
+				matches[count++] = slot;
+			}
+		}
+		return Arrays.copyOf(matches, count);
+	}
+
+	private static final class Postings {
+		private int[] slots = new int[4];
+		private int size;
+
+		private void add(int slot) {
+			// A value containing the same trigram twice is only listed once
+			if (size > 0 && slots[size - 1] == slot) {
+				return;
+			}
+			if (size == slots.length) {
+				slots = Arrays.copyOf(slots, size * 2);
+			}
+			slots[size++] = slot;
+		}
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.fdmgroup.employee.search;
+
+import com.fdmgroup.employee.model.Employee;
+
+/**
+ * The values offered by the typeahead, named as in the request parameters.
+ */
+public enum TypeaheadField {
+	FIRST_NAME("firstName"), LAST_NAME("lastName"), FULL_NAME("fullName"), CITY("city");
+
+	private final String parameter;
+
+	TypeaheadField(String parameter) {
+		this.parameter = parameter;
+	}
+
+	/**
+	 * @param parameter - "firstName", "lastName", "fullName" or "city".
+	 * @return - The matching field.
+	 * @throws IllegalArgumentException - If no field has that name.
+	 */
+	public static TypeaheadField fromParameter(String parameter) {
+		for (TypeaheadField field : values()) {
+			if (field.parameter.equals(parameter)) {
+				return field;
+			}
+		}
+		throw new IllegalArgumentException("No typeahead for " + parameter);
+	}
+
+	/**
+	 * @param employee - An employee.
+	 * @return - The value of the field for the employee, or null if it has none.
+	 */
+	String valueOf(Employee employee) {
+		return switch (this) {
+		case FIRST_NAME -> employee.getFirstName();
+		case LAST_NAME -> employee.getLastName();
+		case FULL_NAME -> fullName(employee.getFirstName(), employee.getLastName());
+		case CITY -> employee.getCity();
+		};
+	}
+
+	static String fullName(String firstName, String lastName) {
+		return firstName == null || lastName == null ? null : firstName + " " + lastName;
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.fdmgroup.employee.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fdmgroup.employee.cache.EmployeeCache;
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.request.RequestMemo;
+import com.fdmgroup.employee.search.EmployeeSearchIndex;
+import com.fdmgroup.employee.search.EmployeeTypeahead;
+import com.fdmgroup.employee.snapshot.EmployeeSnapshot;
+
+/**
+ * Saves new employees in one transaction, which Hibernate sends as JDBC
+ * batches, and then tells the search index, the cache, the hire histogram,
+ * the snapshot, the typeahead, the request memo and the data version about
+ * them, as EmployeeService.createEmployee does for a single employee. Used by
+ * the bulk import and the write-behind writer.
+ */
+@Component
+public class EmployeeBatchWriter {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeBatchWriter.class);
+	private EmployeeRepository employeeRepository;
+	private EmployeeSearchIndex searchIndex;
+	private EmployeeCache employeeCache;
+	private EmployeeVersion employeeVersion;
+	private HireHistogram hireHistogram;
+	private EmployeeSnapshot snapshot;
+	private EmployeeTypeahead typeahead;
+	private RequestMemo requestMemo;
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	public EmployeeBatchWriter(EmployeeRepository employeeRepository, EmployeeSearchIndex searchIndex,
+			EmployeeCache employeeCache, EmployeeVersion employeeVersion, HireHistogram hireHistogram,
+			EmployeeSnapshot snapshot, EmployeeTypeahead typeahead, RequestMemo requestMemo,
+			TransactionTemplate transactionTemplate) {
+		this.employeeRepository = employeeRepository;
+		this.searchIndex = searchIndex;
+		this.employeeCache = employeeCache;
+		this.employeeVersion = employeeVersion;
+		this.hireHistogram = hireHistogram;
+		this.snapshot = snapshot;
+		this.typeahead = typeahead;
+		this.requestMemo = requestMemo;
+		this.transactionTemplate = transactionTemplate;
+	}
+
+	/**
+	 * @param employees - New employees, all fields filled in.
+	 * @return - The saved employees, with their ids.
+	 * @throws RuntimeException - If the transaction fails; nothing is saved then.
+	 *                          Failures to update the read models after the
+	 *                          commit are logged instead, as the employees are
+	 *                          saved and must not be saved again.
+	 */
+	public List<Employee> saveAll(List<Employee> employees) {
+		List<Employee> saved = transactionTemplate.execute(status -> employeeRepository.saveAll(employees));
+		notify("search index", saved, () -> saved.forEach(searchIndex::add));
+		notify("cache", saved, () -> employeeCache.employeesCreated(saved));
+		notify("hire histogram", saved, () -> saved.forEach(hireHistogram::add));
+		notify("snapshot", saved, () -> saved.forEach(snapshot::add));
+		notify("typeahead", saved, () -> saved.forEach(typeahead::add));
+		requestMemo.clear();
+		employeeVersion.changed();
+		return saved;
+	}
+
+	// Each read model is told on its own, so one failing does not keep the others stale
+	private static void notify(String readModel, List<Employee> saved, Runnable update) {
+		try {
+			update.run();
+		} catch (RuntimeException e) {
+			log.error("Saved {} employees but could not add them to the {}; rebuild it", saved.size(), readModel, e);
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+package com.fdmgroup.employee.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+/**
+ * Exports the whole employee directory as CSV or NDJSON. Rows go from the JDBC
+ * cursor of the repository straight into a buffered writer, so memory use does
+ * not grow with the number of employees.
+ */
+@Service
+public class EmployeeExportService {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeExportService.class);
+	private final static int BUFFER_SIZE = 64 * 1024;
+
+	private EmployeeRepository employeeRepository;
+	private JsonFactory jsonFactory;
+
+	@Autowired
+	public EmployeeExportService(EmployeeRepository employeeRepository, ObjectMapper objectMapper) {
+		this.employeeRepository = employeeRepository;
+		this.jsonFactory = objectMapper.getFactory();
+	}
+
+	/**
+	 * Writes every employee, in id order, to the output. The output is flushed
+	 * but not closed.
+	 * 
+	 * @param format - The export format.
+	 * @param output - Receives the UTF-8 encoded export.
+	 * @return - The number of employees exported.
+	 * @throws IOException - If the output cannot be written.
+	 */
+	public long export(ExportFormat format, OutputStream output) throws IOException {
+		log.info("Entering export");
+		long start = System.nanoTime();
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+		RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+		try {
+			employeeRepository.exportRows(rowWriter);
+			rowWriter.finish();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		log.info("Exported {} employees as {} in {} ms", rowWriter.rows, format,
+				(System.nanoTime() - start) / 1_000_000);
+		log.info("Exiting export");
+		return rowWriter.rows;
+	}
+
+	/**
+	 * Escapes a CSV field as RFC 4180 does: fields containing a comma, a quote or
+	 * a line break are quoted, with their quotes doubled.
+	 * 
+	 * @param field - The field, may be null.
+	 * @return - The field as written to the CSV line; empty for null.
+	 */
+	static String csvField(String field) {
+		if (field == null) {
+			return "";
+		}
+		for (int i = 0; i < field.length(); i++) {
+			char c = field.charAt(i);
+			if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+				return '"' + field.replace("\"", "\"\"") + '"';
+			}
+		}
+		return field;
+	}
+
+	private abstract static class RowWriter implements RowCallbackHandler {
+		long rows;
+
+		@Override
+		public void processRow(ResultSet row) throws SQLException {
+			Date hireDate = row.getDate(4);
+			try {
+				write(row.getInt(1), row.getString(2), row.getString(3),
+						hireDate == null ? null : hireDate.toLocalDate().toString(), row.getString(5));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			rows++;
+		}
+
+		abstract void write(int id, String firstName, String lastName, String hireDate, String address)
+				throws IOException;
+
+		abstract void finish() throws IOException;
+	}
+
+	private static final class CsvRowWriter extends RowWriter {
+		private final Writer writer;
+
+		CsvRowWriter(Writer writer) throws IOException {
+			this.writer = writer;
+			writer.write("id,firstName,lastName,hireDate,address\n");
+		}
+
+		@Override
+		void write(int id, String firstName, String lastName, String hireDate, String address) throws IOException {
+			writer.write(Integer.toString(id));
+			writer.write(',');
+			writer.write(csvField(firstName));
+			writer.write(',');
+			writer.write(csvField(lastName));
+			writer.write(',');
+			writer.write(hireDate == null ? "" : hireDate);
+			writer.write(',');
+			writer.write(csvField(address));
+			writer.write('\n');
+		}
+
+		@Override
+		void finish() throws IOException {
+			writer.flush();
+		}
+	}
+
+	private final class NdjsonRowWriter extends RowWriter {
+		private final JsonGenerator json;
+
+		NdjsonRowWriter(Writer writer) throws IOException {
+			this.json = jsonFactory.createGenerator(writer);
+			// Objects are separated by line breaks instead of spaces
+			json.setRootValueSeparator(null);
+		}
+
+		@Override
+		void write(int id, String firstName, String lastName, String hireDate, String address) throws IOException {
+			json.writeStartObject();
+			json.writeNumberField("id", id);
+			json.writeStringField("firstName", firstName);
+			json.writeStringField("lastName", lastName);
+			json.writeStringField("hireDate", hireDate);
+			json.writeStringField("address", address);
+			json.writeEndObject();
+			json.writeRaw('\n');
+		}
+
+		@Override
+		void finish() throws IOException {
+			json.flush();
+		}
+	}
+
+}
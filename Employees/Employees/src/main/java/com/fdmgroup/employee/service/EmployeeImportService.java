@@ -0,0 +1,192 @@
+package com.fdmgroup.employee.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fdmgroup.employee.model.Employee;
+
+/**
+ * Imports employees from a CSV stream with the columns firstName, lastName,
+ * hireDate (yyyy-MM-dd) and address. An optional header line is skipped.
+ * 
+ * The input is read in chunks: the rows of a chunk are validated in parallel
+ * and the valid ones are saved in one transaction, so Hibernate sends them as
+ * JDBC batches with ids taken from the pooled sequence. Only one chunk is held
+ * in memory at a time.
+ */
+@Service
+public class EmployeeImportService {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeImportService.class);
+	private final static int COLUMNS = 4;
+	private final static int MAX_LENGTH = 255;
+
+	private EmployeeBatchWriter batchWriter;
+	private int chunkSize;
+
+	@Autowired
+	public EmployeeImportService(EmployeeBatchWriter batchWriter,
+			@Value("${employee.import.chunk-size:1000}") int chunkSize) {
+		this.batchWriter = batchWriter;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Imports every valid row of the CSV input.
+	 * 
+	 * @param input - The CSV content, UTF-8 encoded.
+	 * @return - The number of rows read and imported, the rejected rows with
+	 *         their reasons and the elapsed time.
+	 * @throws IOException - If the input cannot be read.
+	 */
+	public ImportReport importCsv(InputStream input) throws IOException {
+		log.info("Entering importCsv");
+		long start = System.nanoTime();
+		int rowsRead = 0;
+		int rowsImported = 0;
+		List<ImportReport.Rejection> rejections = new ArrayList<>();
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		List<CsvRow> chunk = new ArrayList<>(chunkSize);
+		int lineNumber = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.isBlank() || (lineNumber == 1 && isHeader(line))) {
+				continue;
+			}
+			chunk.add(new CsvRow(lineNumber, line));
+			rowsRead++;
+			if (chunk.size() == chunkSize) {
+				rowsImported += importChunk(chunk, rejections);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			rowsImported += importChunk(chunk, rejections);
+		}
+
+		ImportReport report = new ImportReport(rowsRead, rowsImported, rejections,
+				(System.nanoTime() - start) / 1_000_000);
+		log.info("Imported {} of {} rows at {} rows/s", rowsImported, rowsRead, (long) report.rowsPerSecond());
+		log.info("Exiting importCsv");
+		return report;
+	}
+
+	private int importChunk(List<CsvRow> chunk, List<ImportReport.Rejection> rejections) {
+		// Validation is CPU only, so the rows of a chunk are checked in parallel
+		List<ParsedRow> parsed = chunk.parallelStream().map(EmployeeImportService::parse).toList();
+
+		List<Employee> valid = new ArrayList<>(parsed.size());
+		List<Integer> validLines = new ArrayList<>(parsed.size());
+		for (ParsedRow row : parsed) {
+			if (row.employee() != null) {
+				valid.add(row.employee());
+				validLines.add(row.line());
+			} else {
+				rejections.add(new ImportReport.Rejection(row.line(), row.reason()));
+			}
+		}
+		if (valid.isEmpty()) {
+			return 0;
+		}
+
+		try {
+			return batchWriter.saveAll(valid).size();
+		} catch (RuntimeException e) {
+			log.warn("Could not save chunk ending at line {}", validLines.get(validLines.size() - 1), e);
+			for (int line : validLines) {
+				rejections.add(new ImportReport.Rejection(line, "not saved: " + e.getMessage()));
+			}
+			return 0;
+		}
+	}
+
+	static ParsedRow parse(CsvRow row) {
+		List<String> fields = parseCsvLine(row.text());
+		if (fields.size() != COLUMNS) {
+			return ParsedRow.rejected(row.line(), "expected " + COLUMNS + " columns but found " + fields.size());
+		}
+		String firstName = fields.get(0).strip();
+		String lastName = fields.get(1).strip();
+		String hireDate = fields.get(2).strip();
+		String address = fields.get(3).strip();
+
+		String missing = firstName.isEmpty() ? "first name"
+				: lastName.isEmpty() ? "last name" : hireDate.isEmpty() ? "hire date" : address.isEmpty() ? "address" : null;
+		if (missing != null) {
+			return ParsedRow.rejected(row.line(), missing + " is required");
+		}
+		if (firstName.length() > MAX_LENGTH || lastName.length() > MAX_LENGTH || address.length() > MAX_LENGTH) {
+			return ParsedRow.rejected(row.line(), "a field is longer than " + MAX_LENGTH + " characters");
+		}
+		try {
+			return new ParsedRow(row.line(), new Employee(firstName, lastName, LocalDate.parse(hireDate), address), null);
+		} catch (DateTimeParseException e) {
+			return ParsedRow.rejected(row.line(), "hire date '" + hireDate + "' is not a yyyy-MM-dd date");
+		}
+	}
+
+	/**
+	 * Splits one CSV line into its fields. Fields may be quoted with double
+	 * quotes, in which case they can contain commas and doubled quotes. Quoted
+	 * fields spanning several lines are not supported.
+	 * 
+	 * @param line - The CSV line.
+	 * @return - The unquoted fields.
+	 */
+	static List<String> parseCsvLine(String line) {
+		List<String> fields = new ArrayList<>(COLUMNS);
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private static boolean isHeader(String line) {
+		return line.strip().toLowerCase(Locale.ROOT).startsWith("firstname");
+	}
+
+	record CsvRow(int line, String text) {
+	}
+
+	record ParsedRow(int line, Employee employee, String reason) {
+		static ParsedRow rejected(int line, String reason) {
+			return new ParsedRow(line, null, reason);
+		}
+	}
+
+}
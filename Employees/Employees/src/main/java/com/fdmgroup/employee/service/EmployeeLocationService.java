@@ -0,0 +1,125 @@
+package com.fdmgroup.employee.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.EmployeeView;
+import com.fdmgroup.employee.model.LocationHeadcount;
+import com.fdmgroup.employee.repository.EmployeeLocationCounts;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.snapshot.EmployeeSnapshot;
+
+/**
+ * Looks employees up by the city and country parsed from their address, and
+ * reports the headcounts kept per city and country.
+ */
+@Service
+public class EmployeeLocationService {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeLocationService.class);
+	private EmployeeRepository employeeRepository;
+	private EmployeeLocationCounts locationCounts;
+	private EmployeeSnapshot snapshot;
+
+	@Autowired
+	public EmployeeLocationService(EmployeeRepository employeeRepository, EmployeeLocationCounts locationCounts,
+			EmployeeSnapshot snapshot) {
+		this.employeeRepository = employeeRepository;
+		this.locationCounts = locationCounts;
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Lists the employees of a city.
+	 *
+	 * @param city   - The city, in any case and with or without accents.
+	 * @param prefix - Whether the city only needs to start with the provided one.
+	 * @return - The employees of the city.
+	 */
+	public List<Employee> listByCity(String city, boolean prefix) {
+		log.info("Entering listByCity");
+		List<Employee> employees = prefix ? employeeRepository.findByCityStartingWith(city)
+				: employeeRepository.findByCity(city);
+		log.info("Exiting listByCity");
+		return employees;
+	}
+
+	/**
+	 * Lists the employees of a country.
+	 *
+	 * @param country - The country, in any case and with or without accents.
+	 * @param prefix  - Whether the country only needs to start with the provided
+	 *                one.
+	 * @return - The employees of the country.
+	 */
+	public List<Employee> listByCountry(String country, boolean prefix) {
+		log.info("Entering listByCountry");
+		List<Employee> employees = prefix ? employeeRepository.findByCountryStartingWith(country)
+				: employeeRepository.findByCountry(country);
+		log.info("Exiting listByCountry");
+		return employees;
+	}
+
+	/**
+	 * Lists the views of the employees of a city, scanning the snapshot when it
+	 * is enabled.
+	 *
+	 * @param city   - The city, in any case and with or without accents.
+	 * @param prefix - Whether the city only needs to start with the provided one.
+	 * @return - The employees of the city, in id order from the snapshot.
+	 */
+	public List<EmployeeView> listViewsByCity(String city, boolean prefix) {
+		if (!snapshot.isEnabled()) {
+			return listByCity(city, prefix).stream().map(EmployeeView::of).toList();
+		}
+		log.info("Entering listViewsByCity");
+		List<EmployeeView> views = snapshot.findByCity(city, prefix);
+		log.info("Exiting listViewsByCity");
+		return views;
+	}
+
+	/**
+	 * Lists the views of the employees of a country, scanning the snapshot when
+	 * it is enabled.
+	 *
+	 * @param country - The country, in any case and with or without accents.
+	 * @param prefix  - Whether the country only needs to start with the provided
+	 *                one.
+	 * @return - The employees of the country, in id order from the snapshot.
+	 */
+	public List<EmployeeView> listViewsByCountry(String country, boolean prefix) {
+		if (!snapshot.isEnabled()) {
+			return listByCountry(country, prefix).stream().map(EmployeeView::of).toList();
+		}
+		log.info("Entering listViewsByCountry");
+		List<EmployeeView> views = snapshot.findByCountry(country, prefix);
+		log.info("Exiting listViewsByCountry");
+		return views;
+	}
+
+	/**
+	 * @return - The headcount of every country, largest first.
+	 */
+	public List<LocationHeadcount> countryHeadcounts() {
+		log.info("Entering countryHeadcounts");
+		List<LocationHeadcount> headcounts = locationCounts.countries();
+		log.info("Exiting countryHeadcounts");
+		return headcounts;
+	}
+
+	/**
+	 * @param country - The country.
+	 * @return - The headcount of every city of the country, largest first.
+	 */
+	public List<LocationHeadcount> cityHeadcounts(String country) {
+		log.info("Entering cityHeadcounts");
+		List<LocationHeadcount> headcounts = locationCounts.cities(country);
+		log.info("Exiting cityHeadcounts");
+		return headcounts;
+	}
+
+}
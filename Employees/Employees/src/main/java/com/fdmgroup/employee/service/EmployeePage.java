@@ -0,0 +1,16 @@
+package com.fdmgroup.employee.service;
+
+import java.util.List;
+
+import com.fdmgroup.employee.model.Employee;
+
+/**
+ * One page of employees in id order.
+ * 
+ * @param employees  - The employees on this page.
+ * @param nextCursor - The id to pass as "after" to fetch the next page, or null
+ *                   if this is the last page.
+ */
+public record EmployeePage(List<Employee> employees, Integer nextCursor) {
+
+}
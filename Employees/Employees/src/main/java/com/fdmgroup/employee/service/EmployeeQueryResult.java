@@ -0,0 +1,18 @@
+package com.fdmgroup.employee.service;
+
+import java.util.List;
+
+import com.fdmgroup.employee.model.EmployeeView;
+
+/**
+ * The first employees matching a query, with the number of all of them.
+ *
+ * @param employees  - The employees, at most the limit of the query.
+ * @param total      - The number of matching employees, or the count limit
+ *                   when there are more.
+ * @param totalExact - Whether total is the exact number, false when counting
+ *                   stopped at the limit.
+ */
+public record EmployeeQueryResult(List<EmployeeView> employees, long total, boolean totalExact) {
+
+}
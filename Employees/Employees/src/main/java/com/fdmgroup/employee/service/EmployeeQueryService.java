@@ -0,0 +1,90 @@
+package com.fdmgroup.employee.service;
+
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.fdmgroup.employee.model.EmployeeQuery;
+import com.fdmgroup.employee.model.EmployeeView;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.repository.EmployeeSpecifications;
+
+/**
+ * Answers an EmployeeQuery with one sorted and limited query for the
+ * employees, and a count only when the limit was reached. The count reads at
+ * most count-limit ids, so a broad query reports "at least count-limit"
+ * instead of counting the whole table.
+ */
+@Service
+public class EmployeeQueryService {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeQueryService.class);
+	private final static Set<String> SORT_PROPERTIES = Set.of("id", "firstName", "lastName", "hireDate");
+	private EmployeeRepository employeeRepository;
+	private int defaultLimit;
+	private int countLimit;
+
+	/**
+	 * @param employeeRepository - The repository queried.
+	 * @param defaultLimit       - The number of employees returned when the query
+	 *                           gives no limit.
+	 * @param countLimit         - The largest total counted exactly.
+	 */
+	@Autowired
+	public EmployeeQueryService(EmployeeRepository employeeRepository,
+			@Value("${employee.query.default-limit:50}") int defaultLimit,
+			@Value("${employee.query.count-limit:10000}") int countLimit) {
+		this.employeeRepository = employeeRepository;
+		this.defaultLimit = defaultLimit;
+		this.countLimit = countLimit;
+	}
+
+	/**
+	 * Lists the first employees matching every criterion of the query.
+	 *
+	 * @param query - The criteria, sort and limit; the limit is capped at
+	 *              EmployeeService.MAX_PAGE_SIZE.
+	 * @return - The employees and their total.
+	 * @throws IllegalArgumentException - If the sort is not one of the supported
+	 *                                  ones.
+	 */
+	public EmployeeQueryResult query(EmployeeQuery query) {
+		log.info("Entering query");
+		Sort sort = sort(query.sort());
+		int limit = Math.max(1, Math.min(query.limit() != null ? query.limit() : defaultLimit,
+				EmployeeService.MAX_PAGE_SIZE));
+		List<EmployeeView> employees = employeeRepository.findViews(EmployeeSpecifications.of(query), sort, limit);
+		long total = employees.size();
+		boolean totalExact = true;
+		// Fewer employees than the limit are all there are
+		if (employees.size() == limit) {
+			long counted = employeeRepository.countUpTo(EmployeeSpecifications.of(query), countLimit + 1);
+			total = Math.min(counted, countLimit);
+			totalExact = counted <= countLimit;
+		}
+		log.info("Exiting query");
+		return new EmployeeQueryResult(employees, total, totalExact);
+	}
+
+	// "hireDate" or "hireDate,desc", then by id so that ties come in a stable order
+	static Sort sort(String sort) {
+		if (sort == null || sort.isBlank()) {
+			return Sort.by("id");
+		}
+		String[] parts = sort.split(",");
+		String property = parts[0].strip();
+		if (!SORT_PROPERTIES.contains(property) || parts.length > 2) {
+			throw new IllegalArgumentException("Cannot sort by " + sort);
+		}
+		Sort.Direction direction = parts.length == 2 ? Sort.Direction.fromString(parts[1].strip())
+				: Sort.Direction.ASC;
+		Sort order = Sort.by(direction, property);
+		return property.equals("id") ? order : order.and(Sort.by("id"));
+	}
+
+}
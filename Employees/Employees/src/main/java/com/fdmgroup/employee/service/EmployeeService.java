@@ -3,23 +3,85 @@ package com.fdmgroup.employee.service;
 import java.util.*;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import com.fdmgroup.employee.cache.EmployeeCache;
+import com.fdmgroup.employee.cache.EmployeeCache.Query;
 import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.EmployeeView;
 import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.request.RequestMemo;
+import com.fdmgroup.employee.search.EmployeeSearchEngine;
+import com.fdmgroup.employee.search.EmployeeSearchIndex;
+import com.fdmgroup.employee.search.EmployeeTypeahead;
+import com.fdmgroup.employee.search.Suggestion;
+import com.fdmgroup.employee.search.TypeaheadField;
+import com.fdmgroup.employee.snapshot.EmployeeSnapshot;
 
 @Service
 public class EmployeeService {
 	private final static Logger log = LoggerFactory.getLogger(EmployeeService.class);
+	public final static int MAX_PAGE_SIZE = 1000;
 	private EmployeeRepository employeeRepository;
+	private EmployeeSearchIndex searchIndex;
+	private EmployeeSearchEngine searchEngine;
+	private EmployeeCache employeeCache;
+	private RequestMemo requestMemo;
+	private EmployeeVersion employeeVersion;
+	private HireHistogram hireHistogram;
+	private EmployeeSnapshot snapshot;
+	private EmployeeTypeahead typeahead;
+	private boolean searchIndexEnabled;
+	private boolean fuzzyFallback;
+	private boolean locationLookup;
 
+	/**
+	 * @param employeeRepository - The repository holding the employees.
+	 * @param searchIndex        - The in-memory index used for searches.
+	 * @param searchEngine       - Plans and ranks the free-text search.
+	 * @param employeeCache      - Caches lookups by id and query results.
+	 * @param requestMemo        - Remembers search results for the rest of the
+	 *                           current request.
+	 * @param employeeVersion    - Changed on every write.
+	 * @param hireHistogram      - Counts the hires per month.
+	 * @param snapshot           - The off-heap columnar copy of the employees,
+	 *                           read by the view methods when it is enabled.
+	 * @param typeahead          - Completes names and cities as they are typed.
+	 * @param searchIndexEnabled - Whether searches are answered from the index
+	 *                           (true) or by the repository queries (false).
+	 * @param fuzzyFallback      - Whether a search that finds nothing is retried
+	 *                           as a fuzzy search.
+	 * @param locationLookup     - Whether an address search first looks the term
+	 *                           up as a country, then as a city, before searching
+	 *                           the whole address.
+	 */
 	@Autowired
-	public EmployeeService(EmployeeRepository employeeRepository) {
+	public EmployeeService(EmployeeRepository employeeRepository, EmployeeSearchIndex searchIndex,
+			EmployeeSearchEngine searchEngine, EmployeeCache employeeCache, RequestMemo requestMemo,
+			EmployeeVersion employeeVersion, HireHistogram hireHistogram, EmployeeSnapshot snapshot,
+			EmployeeTypeahead typeahead, @Value("${employee.search.index.enabled:false}") boolean searchIndexEnabled,
+			@Value("${employee.search.fuzzy.enabled:false}") boolean fuzzyFallback,
+			@Value("${employee.address.location-lookup.enabled:false}") boolean locationLookup) {
 		this.employeeRepository = employeeRepository;
+		this.searchIndex = searchIndex;
+		this.searchEngine = searchEngine;
+		this.employeeCache = employeeCache;
+		this.requestMemo = requestMemo;
+		this.employeeVersion = employeeVersion;
+		this.hireHistogram = hireHistogram;
+		this.snapshot = snapshot;
+		this.typeahead = typeahead;
+		this.searchIndexEnabled = searchIndexEnabled;
+		this.fuzzyFallback = fuzzyFallback;
+		this.locationLookup = locationLookup;
 	}
 
 	/**
@@ -35,14 +97,30 @@ public class EmployeeService {
 	public Employee createEmployee(Employee employee) {
 		log.info("Entering createEmployee");
 		log.info("Creating a new employee");
-		if (employee.getAddress() == null || employee.getFirstName() == null || employee.getLastName() == null
-				|| employee.getHireDate() == null || employeeRepository.existsById(employee.getId())) {
+		// A new employee has id 0, which the sequence never hands out, so only a
+		// preset id needs to be checked against the database
+		if (!hasAllFields(employee) || (employee.getId() != 0 && employeeRepository.existsById(employee.getId()))) {
 			log.info("Error: not all fileds filled");
 			log.info("Exiting createEmployee");
 			return null;
 		}
+		Employee savedEmployee = employeeRepository.save(employee);
+		// Also without searchIndexEnabled, as fuzzy searches read the index; it ignores
+		// the employee until something has loaded it
+		searchIndex.add(savedEmployee);
+		employeeCache.employeeCreated(savedEmployee);
+		hireHistogram.add(savedEmployee);
+		snapshot.add(savedEmployee);
+		typeahead.add(savedEmployee);
+		requestMemo.clear();
+		employeeVersion.changed();
 		log.info("Exiting createEmployee");
-		return employeeRepository.save(employee);
+		return savedEmployee;
+	}
+
+	static boolean hasAllFields(Employee employee) {
+		return employee.getAddress() != null && employee.getFirstName() != null && employee.getLastName() != null
+				&& employee.getHireDate() != null;
 	}
 
 	/**
@@ -55,13 +133,12 @@ public class EmployeeService {
 	public Employee getEmployee(int id) {
 		log.info("Entering getEmployee");
 		log.info("Retrieving an employee by id");
-		Optional<Employee> optionalEmployee = employeeRepository.findById(id);
-		if (optionalEmployee.isPresent()) {
-			log.info("Exiting getEmployee");
-			return optionalEmployee.get();
+		Employee employee = searchIndexEnabled ? searchIndex.findById(id) : null;
+		if (employee == null) {
+			employee = employeeCache.getEmployee(id, key -> employeeRepository.findById(key).orElse(null));
 		}
 		log.info("Exiting getEmployee");
-		return null;
+		return employee;
 	}
 
 	/**
@@ -76,7 +153,113 @@ public class EmployeeService {
 	}
 
 	/**
-	 * Lists employees based on the provided address.
+	 * Lists one page of employees in id order. The page is found by seeking past
+	 * the given id, so deep pages cost the same as the first one.
+	 *
+	 * @param afterId  - The last id of the previous page, or 0 for the first page.
+	 * @param pageSize - The maximum number of employees on the page, capped at
+	 *                 MAX_PAGE_SIZE.
+	 * @return - The page, with the cursor of the next page if there may be one.
+	 */
+	public EmployeePage listPage(int afterId, int pageSize) {
+		log.info("Entering listPage");
+		int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+		List<Employee> employees = employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId,
+				PageRequest.of(0, size));
+		Integer nextCursor = employees.size() == size ? employees.get(size - 1).getId() : null;
+		log.info("Exiting listPage");
+		return new EmployeePage(employees, nextCursor);
+	}
+
+	/**
+	 * Lists one page of employee views in id order, selecting only the columns of
+	 * EmployeeView, or reading them from the snapshot when it is enabled.
+	 *
+	 * @param afterId  - The last id of the previous page, or 0 for the first page.
+	 * @param pageSize - The maximum number of employees on the page, capped at
+	 *                 MAX_PAGE_SIZE.
+	 * @return - The page, with the cursor of the next page if there may be one.
+	 */
+	public EmployeeViewPage listViewPage(int afterId, int pageSize) {
+		log.info("Entering listViewPage");
+		int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+		List<EmployeeView> views = snapshot.isEnabled() ? snapshot.page(afterId, size)
+				: employeeRepository.findViewsByIdGreaterThan(afterId, PageRequest.of(0, size));
+		Integer nextCursor = views.size() == size ? views.get(size - 1).id() : null;
+		log.info("Exiting listViewPage");
+		return new EmployeeViewPage(views, nextCursor);
+	}
+
+	/**
+	 * Hands the view of every employee, in id order, to the consumer while they
+	 * are read from the database, or from the snapshot when it is enabled.
+	 *
+	 * @param consumer - Receives the views one at a time.
+	 */
+	public void streamAllViews(Consumer<EmployeeView> consumer) {
+		log.info("Entering streamAllViews");
+		if (snapshot.isEnabled()) {
+			snapshot.forEach(consumer);
+		} else {
+			employeeRepository.streamAllViews(consumer);
+		}
+		log.info("Exiting streamAllViews");
+	}
+
+	/**
+	 * Retrieves the view of an employee by their ID.
+	 *
+	 * @param id - The ID of the employee to retrieve.
+	 * @return - The view if the ID is found in the database; otherwise, null.
+	 */
+	public EmployeeView getView(int id) {
+		log.info("Entering getView");
+		EmployeeView view = snapshot.isEnabled() ? snapshot.findById(id)
+				: employeeRepository.findViewById(id).orElse(null);
+		log.info("Exiting getView");
+		return view;
+	}
+
+	/**
+	 * Completes a first name, last name, full name or city as it is typed, from
+	 * the in-memory typeahead.
+	 *
+	 * @param field  - The field completed.
+	 * @param prefix - The start of the value, compared without case and accents.
+	 * @param limit  - The largest number of completions.
+	 * @return - The values starting with the prefix, the most frequent first.
+	 */
+	public List<Suggestion> suggest(TypeaheadField field, String prefix, int limit) {
+		log.info("Entering suggest");
+		List<Suggestion> suggestions = typeahead.suggest(field, prefix, limit);
+		log.info("Exiting suggest");
+		return suggestions;
+	}
+
+	/**
+	 * @return - The entity tag of the current employee data, changed by every
+	 *         write.
+	 */
+	public String dataVersion() {
+		return employeeVersion.tag();
+	}
+
+	/**
+	 * Hands every employee, in id order, to the consumer while they are read from
+	 * the database, without collecting them into a list first.
+	 *
+	 * @param consumer - Receives the employees one at a time.
+	 */
+	public void streamAll(Consumer<Employee> consumer) {
+		log.info("Entering streamAll");
+		employeeRepository.streamAll(consumer);
+		log.info("Exiting streamAll");
+	}
+
+	/**
+	 * Lists employees based on the provided address. With the location lookup
+	 * enabled, an address that is a whole country or city name lists the
+	 * employees of that country or city, found by index seeks.
 	 * 
 	 * @param address - The address to search for.
 	 * @return - A list of employees with addresses containing the provided address.
@@ -84,7 +267,39 @@ public class EmployeeService {
 	public List<Employee> listByAddress(String address) {
 		log.info("Entering listByAddress");
 		log.info("Exiting listByAddress");
-		return employeeRepository.findByAddressContainsIgnoreCase(address);
+		return orFuzzy(requestMemo.get("listByAddress", address, () -> {
+			if (searchIndexEnabled) {
+				return searchIndex.findByAddress(address);
+			}
+			return employeeCache.query(Query.ADDRESS, address, () -> locationLookup ? listByLocation(address)
+					: employeeRepository.findByAddressContainsIgnoreCase(address));
+		}), () -> listByAddress(address, true));
+	}
+
+	private List<Employee> listByLocation(String address) {
+		List<Employee> employees = employeeRepository.findByCountry(address);
+		if (employees.isEmpty()) {
+			employees = employeeRepository.findByCity(address);
+		}
+		return employees.isEmpty() ? employeeRepository.findByAddressContainsIgnoreCase(address) : employees;
+	}
+
+	/**
+	 * Lists employees based on the provided address, tolerating typos if asked
+	 * to.
+	 * 
+	 * @param address - The address to search for.
+	 * @param fuzzy   - Whether every word of the address only needs to be within
+	 *                a few edits of a word of the employee's address.
+	 * @return - A list of matching employees, closest first when fuzzy.
+	 */
+	public List<Employee> listByAddress(String address, boolean fuzzy) {
+		if (!fuzzy) {
+			return listByAddress(address);
+		}
+		log.info("Entering listByAddress");
+		log.info("Exiting listByAddress");
+		return requestMemo.get("fuzzyListByAddress", address, () -> searchIndex.fuzzyFindByAddress(address));
 	}
 
 	/**
@@ -97,7 +312,30 @@ public class EmployeeService {
 	public List<Employee> findByFirstName(String firstName) {
 		log.info("Entering findByFirstName");
 		log.info("Exiting findByFirstName");
-		return employeeRepository.findByFirstNameContainsIgnoreCase(firstName);
+		return orFuzzy(requestMemo.get("findByFirstName", firstName, () -> {
+			if (searchIndexEnabled) {
+				return searchIndex.findByFirstName(firstName);
+			}
+			return employeeCache.query(Query.FIRST_NAME, firstName,
+					() -> employeeRepository.findByFirstNameContainsIgnoreCase(firstName));
+		}), () -> findByFirstName(firstName, true));
+	}
+
+	/**
+	 * Searches employees by first name, tolerating typos if asked to.
+	 * 
+	 * @param firstName - The first name to search for.
+	 * @param fuzzy     - Whether the first name only needs to be within a few
+	 *                  edits of the provided one.
+	 * @return - A list of matching employees, closest first when fuzzy.
+	 */
+	public List<Employee> findByFirstName(String firstName, boolean fuzzy) {
+		if (!fuzzy) {
+			return findByFirstName(firstName);
+		}
+		log.info("Entering findByFirstName");
+		log.info("Exiting findByFirstName");
+		return requestMemo.get("fuzzyFindByFirstName", firstName, () -> searchIndex.fuzzyFindByFirstName(firstName));
 	}
 
 	/**
@@ -110,7 +348,30 @@ public class EmployeeService {
 	public List<Employee> findByLastName(String lastName) {
 		log.info("Entering findByLastName");
 		log.info("Exiting findByLastName");
-		return employeeRepository.findByLastNameContainsIgnoreCase(lastName);
+		return orFuzzy(requestMemo.get("findByLastName", lastName, () -> {
+			if (searchIndexEnabled) {
+				return searchIndex.findByLastName(lastName);
+			}
+			return employeeCache.query(Query.LAST_NAME, lastName,
+					() -> employeeRepository.findByLastNameContainsIgnoreCase(lastName));
+		}), () -> findByLastName(lastName, true));
+	}
+
+	/**
+	 * Searches employees by last name, tolerating typos if asked to.
+	 * 
+	 * @param lastName - The last name to search for.
+	 * @param fuzzy    - Whether the last name only needs to be within a few edits
+	 *                 of the provided one.
+	 * @return - A list of matching employees, closest first when fuzzy.
+	 */
+	public List<Employee> findByLastName(String lastName, boolean fuzzy) {
+		if (!fuzzy) {
+			return findByLastName(lastName);
+		}
+		log.info("Entering findByLastName");
+		log.info("Exiting findByLastName");
+		return requestMemo.get("fuzzyFindByLastName", lastName, () -> searchIndex.fuzzyFindByLastName(lastName));
 	}
 
 	/**
@@ -123,48 +384,98 @@ public class EmployeeService {
 	public List<Employee> findByFullName(String firstName, String lastName) {
 		log.info("Entering findByFullName");
 		log.info("Exiting findByFullName");
-		return employeeRepository.findByFirstNameAndLastNameIgnoreCase(firstName, lastName);
+		String term = EmployeeCache.fullNameTerm(firstName, lastName);
+		return orFuzzy(requestMemo.get("findByFullName", term, () -> employeeCache.query(Query.FULL_NAME, term,
+				() -> employeeRepository.findByFirstNameAndLastNameIgnoreCase(firstName, lastName))),
+				() -> findByFullName(firstName, lastName, true));
+	}
+
+	/**
+	 * Searches employees by both first name and last name, tolerating typos if
+	 * asked to.
+	 * 
+	 * @param firstName - The first name to search for.
+	 * @param lastName  - The last name to search for.
+	 * @param fuzzy     - Whether both names only need to be within a few edits of
+	 *                  the provided ones.
+	 * @return - A list of matching employees, closest first when fuzzy.
+	 */
+	public List<Employee> findByFullName(String firstName, String lastName, boolean fuzzy) {
+		if (!fuzzy) {
+			return findByFullName(firstName, lastName);
+		}
+		log.info("Entering findByFullName");
+		log.info("Exiting findByFullName");
+		return requestMemo.get("fuzzyFindByFullName", EmployeeCache.fullNameTerm(firstName, lastName),
+				() -> searchIndex.fuzzyFindByFullName(firstName, lastName));
 	}
 
 	/**
 	 * Search employees based on the search input (first name, last name, or both)
 	 *
 	 * @param searchInput The search input entered by the user
-	 * @return A list of employees matching the search criteria
+	 * @return A list of employees matching the search criteria, exact full-name
+	 *         matches first, then prefix matches, then substring matches
 	 */
 	public List<Employee> searchEmployees(String searchInput) {
 		log.info("Entering searchEmployees");
-
-		// Perform the search based on searchInput
-		List<Employee> employees = new ArrayList<>();
-
-		// Check if the searchInput is empty
-		if (searchInput.isEmpty()) {
-			// Return all employees if searchInput is empty
-			employees = employeeRepository.findAll();
-		} else {
-			// Perform the search using first name, last name, or both
-			employees = employeeRepository.findByFullNameContainsIgnoreCase(searchInput);
-
-			// Split the searchInput into first name and last name
-			String[] nameParts = searchInput.split(" ");
-
-			// If both first name and last name are provided, we perform an additional
-			// search
-			if (nameParts.length > 1) {
-				String firstName = nameParts[0];
-				String lastName = nameParts[1];
-
-				employees.addAll(employeeRepository.findByFirstNameContainsIgnoreCase(firstName));
-				employees.addAll(employeeRepository.findByLastNameContainsIgnoreCase(lastName));
+		String term = EmployeeSearchEngine.normalizeInput(searchInput);
+		List<Employee> employees = requestMemo.get("searchEmployees", term, () -> {
+			if (searchIndexEnabled) {
+				return searchEngine.search(searchInput, true);
 			}
-		}
+			return employeeCache.query(Query.SEARCH, term, () -> searchEngine.search(searchInput, false));
+		});
+		log.info("Exiting searchEmployees");
+		return orFuzzy(employees, () -> searchEmployees(searchInput, true));
+	}
 
-		// Remove duplicates from the result
-		employees = new ArrayList<>(new HashSet<>(employees));
+	/**
+	 * Search employees based on the search input, returning their views. With the
+	 * snapshot enabled its columns are scanned and no entity is loaded; the
+	 * results are those of searchEmployees either way.
+	 *
+	 * @param searchInput The search input entered by the user
+	 * @return The views of the matching employees, exact full-name matches first,
+	 *         then prefix matches, then substring matches
+	 */
+	public List<EmployeeView> searchViews(String searchInput) {
+		if (!snapshot.isEnabled()) {
+			return searchEmployees(searchInput).stream().map(EmployeeView::of).toList();
+		}
+		log.info("Entering searchViews");
+		List<EmployeeView> views = snapshot.search(searchInput);
+		log.info("Exiting searchViews");
+		if (views.isEmpty() && fuzzyFallback) {
+			return searchEmployees(searchInput, true).stream().map(EmployeeView::of).toList();
+		}
+		return views;
+	}
 
+	/**
+	 * Search employees based on the search input, tolerating typos if asked to.
+	 *
+	 * @param searchInput The search input entered by the user
+	 * @param fuzzy       Whether names only need to be within a few edits of the
+	 *                    words of the input
+	 * @return A list of employees matching the search criteria, closest first
+	 *         when fuzzy
+	 */
+	public List<Employee> searchEmployees(String searchInput, boolean fuzzy) {
+		if (!fuzzy) {
+			return searchEmployees(searchInput);
+		}
+		log.info("Entering searchEmployees");
+		String term = EmployeeSearchEngine.normalizeInput(searchInput);
+		List<Employee> employees = requestMemo.get("fuzzySearchEmployees", term,
+				() -> searchIndex.fuzzySearch(searchInput));
 		log.info("Exiting searchEmployees");
 		return employees;
 	}
 
+	// Retries a search that found nothing as a fuzzy one, when configured to
+	private List<Employee> orFuzzy(List<Employee> employees, Supplier<List<Employee>> fuzzySearch) {
+		return employees.isEmpty() && fuzzyFallback ? fuzzySearch.get() : employees;
+	}
+
 }
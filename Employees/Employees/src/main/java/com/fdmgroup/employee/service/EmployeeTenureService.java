@@ -0,0 +1,184 @@
+package com.fdmgroup.employee.service;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.EmployeeView;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.snapshot.EmployeeSnapshot;
+
+/**
+ * Answers questions about hire dates: who was hired in a date range, whose
+ * work anniversary falls in one, and how many employees were hired per month
+ * or per year.
+ */
+@Service
+public class EmployeeTenureService {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeTenureService.class);
+	private final static int FIRST_MONTH_DAY = 101;
+	private final static int LAST_MONTH_DAY = 1231;
+	// Every month or year of a range is listed, so its length is what a request costs
+	private final static int MAX_HIRE_YEARS = 200;
+	private EmployeeRepository employeeRepository;
+	private HireHistogram hireHistogram;
+	private EmployeeSnapshot snapshot;
+
+	@Autowired
+	public EmployeeTenureService(EmployeeRepository employeeRepository, HireHistogram hireHistogram,
+			EmployeeSnapshot snapshot) {
+		this.employeeRepository = employeeRepository;
+		this.hireHistogram = hireHistogram;
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Lists the employees hired between two dates.
+	 *
+	 * @param from - The first hire date, inclusive.
+	 * @param to   - The last hire date, inclusive.
+	 * @return - The employees hired in the range, earliest first.
+	 */
+	public List<Employee> listHiredBetween(LocalDate from, LocalDate to) {
+		log.info("Entering listHiredBetween");
+		List<Employee> employees = from.isAfter(to) ? List.of()
+				: employeeRepository.findByHireDateBetweenOrderByHireDateAscIdAsc(from, to);
+		log.info("Exiting listHiredBetween");
+		return employees;
+	}
+
+	/**
+	 * Lists the views of the employees hired between two dates, scanning the
+	 * snapshot when it is enabled.
+	 *
+	 * @param from - The first hire date, inclusive.
+	 * @param to   - The last hire date, inclusive.
+	 * @return - The employees hired in the range, earliest first.
+	 */
+	public List<EmployeeView> listViewsHiredBetween(LocalDate from, LocalDate to) {
+		if (!snapshot.isEnabled()) {
+			return listHiredBetween(from, to).stream().map(EmployeeView::of).toList();
+		}
+		log.info("Entering listViewsHiredBetween");
+		// The scan returns id order; the sort is stable, so ties keep it as in the repository query
+		List<EmployeeView> views = new ArrayList<>(snapshot.findByHireDateBetween(from, to));
+		views.sort(Comparator.comparing(EmployeeView::hireDate));
+		log.info("Exiting listViewsHiredBetween");
+		return views;
+	}
+
+	/**
+	 * Lists the employees whose work anniversary falls between two dates, that is
+	 * who were hired on one of their days in an earlier year. Employees hired on
+	 * 29 February celebrate on 28 February in other years.
+	 *
+	 * @param from - The first day, inclusive.
+	 * @param to   - The last day, inclusive.
+	 * @return - The employees, each once, in the order of their first
+	 *         anniversary between the dates.
+	 */
+	public List<Employee> listAnniversaries(LocalDate from, LocalDate to) {
+		log.info("Entering listAnniversaries");
+		List<Employee> employees = new ArrayList<>();
+		Map<Employee, LocalDate> anniversaries = new IdentityHashMap<>();
+		if (!from.isAfter(to)) {
+			for (Employee employee : anniversaryCandidates(from, to)) {
+				LocalDate anniversary = firstAnniversary(employee.getHireDate(), from, to);
+				if (anniversary != null) {
+					employees.add(employee);
+					anniversaries.put(employee, anniversary);
+				}
+			}
+		}
+		// Stable, so employees sharing an anniversary keep the id order of the query
+		employees.sort(Comparator.comparing(anniversaries::get));
+		log.info("Exiting listAnniversaries");
+		return employees;
+	}
+
+	// The first anniversary on or after from, one year after the hire at the
+	// earliest, or null if it comes after to. withYear moves 29 February to the
+	// 28th in other years.
+	private static LocalDate firstAnniversary(LocalDate hireDate, LocalDate from, LocalDate to) {
+		LocalDate anniversary = hireDate.withYear(Math.max(from.getYear(), hireDate.getYear() + 1));
+		if (anniversary.isBefore(from)) {
+			anniversary = hireDate.withYear(anniversary.getYear() + 1);
+		}
+		return anniversary.isAfter(to) ? null : anniversary;
+	}
+
+	// One index range of month-days, or two when the days run over the new year
+	private List<Employee> anniversaryCandidates(LocalDate from, LocalDate to) {
+		if (ChronoUnit.DAYS.between(from, to) >= 365) {
+			return employeeRepository.findByHireMonthDayBetweenOrderByHireMonthDayAscIdAsc(FIRST_MONTH_DAY,
+					LAST_MONTH_DAY);
+		}
+		int first = Employee.monthDay(from);
+		int last = Employee.monthDay(to);
+		if (!to.isLeapYear() && MonthDay.from(to).equals(MonthDay.of(2, 28))) {
+			last = 229;
+		}
+		if (first <= last) {
+			return employeeRepository.findByHireMonthDayBetweenOrderByHireMonthDayAscIdAsc(first, last);
+		}
+		List<Employee> employees = new ArrayList<>(
+				employeeRepository.findByHireMonthDayBetweenOrderByHireMonthDayAscIdAsc(first, LAST_MONTH_DAY));
+		employees.addAll(employeeRepository.findByHireMonthDayBetweenOrderByHireMonthDayAscIdAsc(FIRST_MONTH_DAY, last));
+		return employees;
+	}
+
+	/**
+	 * Counts the hires of every month in a range, from the in-memory histogram.
+	 *
+	 * @param from - The first month, or null for the first month with hires.
+	 * @param to   - The last month, or null for the last month with hires.
+	 * @return - The hires per month, months without hires included.
+	 * @throws IllegalArgumentException - If the range spans more than 200 years.
+	 */
+	public List<HireCount> hiresByMonth(YearMonth from, YearMonth to) {
+		log.info("Entering hiresByMonth");
+		YearMonth first = from != null ? from : hireHistogram.firstMonth();
+		YearMonth last = to != null ? to : hireHistogram.lastMonth();
+		if (first != null && last != null && first.until(last, ChronoUnit.MONTHS) >= 12L * MAX_HIRE_YEARS) {
+			throw new IllegalArgumentException("Cannot count hires over more than " + MAX_HIRE_YEARS + " years");
+		}
+		List<HireCount> counts = first == null || last == null ? List.of() : hireHistogram.byMonth(first, last);
+		log.info("Exiting hiresByMonth");
+		return counts;
+	}
+
+	/**
+	 * Counts the hires of every year in a range, from the in-memory histogram.
+	 *
+	 * @param from - The first year, or null for the first year with hires.
+	 * @param to   - The last year, or null for the last year with hires.
+	 * @return - The hires per year, years without hires included.
+	 * @throws IllegalArgumentException - If the range spans more than 200 years.
+	 */
+	public List<HireCount> hiresByYear(Integer from, Integer to) {
+		log.info("Entering hiresByYear");
+		YearMonth firstMonth = hireHistogram.firstMonth();
+		YearMonth lastMonth = hireHistogram.lastMonth();
+		Integer first = from != null ? from : firstMonth == null ? null : firstMonth.getYear();
+		Integer last = to != null ? to : lastMonth == null ? null : lastMonth.getYear();
+		if (first != null && last != null && (long) last - first >= MAX_HIRE_YEARS) {
+			throw new IllegalArgumentException("Cannot count hires over more than " + MAX_HIRE_YEARS + " years");
+		}
+		List<HireCount> counts = first == null || last == null ? List.of() : hireHistogram.byYear(first, last);
+		log.info("Exiting hiresByYear");
+		return counts;
+	}
+
+}
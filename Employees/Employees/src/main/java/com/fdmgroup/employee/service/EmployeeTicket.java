@@ -0,0 +1,29 @@
+package com.fdmgroup.employee.service;
+
+/**
+ * The state of an employee submitted to the write-behind queue.
+ * 
+ * @param id         - The ticket id handed out when the employee was queued.
+ * @param status     - Whether the employee is still queued, saved or failed.
+ * @param employeeId - The id of the saved employee, or null until it is saved.
+ * @param reason     - Why the employee could not be saved, or null.
+ */
+public record EmployeeTicket(String id, Status status, Integer employeeId, String reason) {
+
+	public enum Status {
+		QUEUED, SAVED, FAILED
+	}
+
+	static EmployeeTicket queued(String id) {
+		return new EmployeeTicket(id, Status.QUEUED, null, null);
+	}
+
+	EmployeeTicket saved(int employeeId) {
+		return new EmployeeTicket(id, Status.SAVED, employeeId, null);
+	}
+
+	EmployeeTicket failed(String reason) {
+		return new EmployeeTicket(id, Status.FAILED, null, reason);
+	}
+
+}
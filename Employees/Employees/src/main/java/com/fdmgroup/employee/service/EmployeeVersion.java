@@ -0,0 +1,34 @@
+package com.fdmgroup.employee.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The version of the employee data, changed by every write made through the
+ * services. The REST API sends it as the entity tag of its responses, so a
+ * conditional GET of unchanged data is answered without a query.
+ *
+ * The tag starts with the time this instance started, so tags handed out by an
+ * earlier run, or by another instance, never match.
+ */
+@Component
+public class EmployeeVersion {
+	private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * Records that employees were created or changed.
+	 */
+	public void changed() {
+		version.incrementAndGet();
+	}
+
+	/**
+	 * @return - The entity tag of the current data, without quotes.
+	 */
+	public String tag() {
+		return epoch + "-" + version.get();
+	}
+
+}
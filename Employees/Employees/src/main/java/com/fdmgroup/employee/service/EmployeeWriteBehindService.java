@@ -0,0 +1,308 @@
+package com.fdmgroup.employee.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import com.fdmgroup.employee.model.Employee;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Accepts new employees into a bounded in-memory queue and saves them from a
+ * single background thread. Each pass of the writer takes everything queued
+ * so far, up to the batch size, and saves it in one transaction, so a burst
+ * of creates becomes a few batched inserts instead of one transaction each.
+ * If a batch fails, its employees are retried one by one so a single bad row
+ * only fails its own ticket.
+ *
+ * Durability: an employee is acknowledged with a ticket once it is queued,
+ * before it is saved. The queue lives only in memory, so queued employees are
+ * lost if the process dies. On a graceful shutdown the queue stops accepting
+ * employees after the web server has stopped, and the writer keeps saving
+ * until the queue is empty or the shutdown timeout has passed; whatever is
+ * still queued then is logged and its tickets are marked FAILED. A writer
+ * still saving a batch at the timeout is interrupted, so that it takes no
+ * further batch, and waited for once more. If it has not finished that batch
+ * by then, the tickets of the batch are marked FAILED as well, although its
+ * transaction may still commit and mark them SAVED.
+ *
+ * The writer only runs when employee.write-behind.enabled is true. The queue
+ * depth is published as the employee.write-behind.queue gauge.
+ */
+@Service
+public class EmployeeWriteBehindService implements SmartLifecycle, MeterBinder {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeWriteBehindService.class);
+	// Stops after the web server, which stops in the default phase minus 1024
+	private final static int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+	private final static long POLL_MILLIS = 100;
+
+	private record Pending(String ticketId, Employee employee) {
+	}
+
+	private final EmployeeBatchWriter batchWriter;
+	private final boolean enabled;
+	private final BlockingQueue<Pending> queue;
+	private final int batchSize;
+	private final Duration enqueueTimeout;
+	private final Duration shutdownTimeout;
+	private final Cache<String, EmployeeTicket> tickets;
+	private volatile boolean accepting;
+	// Submits check accepting and offer under the read lock, stop flips it under the
+	// write lock, so nothing is queued once stop has started draining
+	private final ReentrantReadWriteLock acceptLock = new ReentrantReadWriteLock();
+	private volatile boolean running;
+	private volatile boolean abandoned;
+	// The batch being saved, failed by stop if the writer does not finish it
+	private volatile List<Pending> inFlight = List.of();
+	private Thread writer;
+
+	/**
+	 * @param batchWriter     - Saves each batch and updates the index and caches.
+	 * @param enabled         - Whether creates go through the queue at all.
+	 * @param queueCapacity   - The maximum number of employees waiting to be
+	 *                        saved.
+	 * @param batchSize       - The maximum number of employees saved in one
+	 *                        transaction.
+	 * @param enqueueTimeout  - How long a submit waits for room in a full queue.
+	 * @param shutdownTimeout - How long a shutdown waits for the queue to drain.
+	 * @param ticketTtl       - How long a ticket can be looked up after its last
+	 *                        change.
+	 */
+	@Autowired
+	public EmployeeWriteBehindService(EmployeeBatchWriter batchWriter,
+			@Value("${employee.write-behind.enabled:false}") boolean enabled,
+			@Value("${employee.write-behind.queue-capacity:10000}") int queueCapacity,
+			@Value("${employee.write-behind.batch-size:200}") int batchSize,
+			@Value("${employee.write-behind.enqueue-timeout:100ms}") Duration enqueueTimeout,
+			@Value("${employee.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout,
+			@Value("${employee.write-behind.ticket-ttl:1h}") Duration ticketTtl) {
+		this.batchWriter = batchWriter;
+		this.enabled = enabled;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+		this.enqueueTimeout = enqueueTimeout;
+		this.shutdownTimeout = shutdownTimeout;
+		this.tickets = Caffeine.newBuilder().expireAfterWrite(ticketTtl).build();
+	}
+
+	/**
+	 * @return - Whether new employees should be submitted to the queue.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Queues a new employee to be saved by the writer.
+	 * 
+	 * @param employee - A new employee, with id 0.
+	 * @return - The ticket of the queued employee, or null if not all fields are
+	 *         filled in or the employee is not new.
+	 * @throws WriteBehindQueueFullException - If the queue stays full for the
+	 *                                       enqueue timeout or is shutting down.
+	 */
+	public EmployeeTicket submit(Employee employee) {
+		log.info("Entering submit");
+		if (!EmployeeService.hasAllFields(employee) || employee.getId() != 0) {
+			log.info("Error: not all fileds filled");
+			log.info("Exiting submit");
+			return null;
+		}
+		EmployeeTicket ticket = EmployeeTicket.queued(UUID.randomUUID().toString());
+		boolean queued;
+		acceptLock.readLock().lock();
+		try {
+			if (!accepting) {
+				throw new WriteBehindQueueFullException("The write-behind queue is not accepting employees");
+			}
+			tickets.put(ticket.id(), ticket);
+			queued = queue.offer(new Pending(ticket.id(), employee), enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			queued = false;
+		} finally {
+			acceptLock.readLock().unlock();
+		}
+		if (!queued) {
+			tickets.invalidate(ticket.id());
+			throw new WriteBehindQueueFullException("The write-behind queue is full");
+		}
+		log.info("Exiting submit");
+		return ticket;
+	}
+
+	/**
+	 * @param id - A ticket id returned by submit.
+	 * @return - The current state of the ticket, or null if it is unknown or has
+	 *         expired.
+	 */
+	public EmployeeTicket getTicket(String id) {
+		return tickets.getIfPresent(id);
+	}
+
+	/**
+	 * @return - The number of employees waiting to be saved.
+	 */
+	public int queueSize() {
+		return queue.size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("employee.write-behind.queue", queue, BlockingQueue::size)
+				.description("Employees waiting to be saved by the write-behind writer").register(registry);
+	}
+
+	@Override
+	public void start() {
+		if (!enabled || running) {
+			return;
+		}
+		running = true;
+		abandoned = false;
+		inFlight = List.of();
+		accepting = true;
+		writer = new Thread(this::writeLoop, "employee-write-behind");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@Override
+	public void stop() {
+		if (!running) {
+			return;
+		}
+		// Waits for the submits already offering, at most the enqueue timeout
+		acceptLock.writeLock().lock();
+		try {
+			accepting = false;
+		} finally {
+			acceptLock.writeLock().unlock();
+		}
+		running = false;
+		joinWriter();
+		if (writer.isAlive()) {
+			log.warn("The write-behind writer did not finish within {}, interrupting it", shutdownTimeout);
+			abandoned = true;
+			writer.interrupt();
+			joinWriter();
+		}
+		List<Pending> leftover = new ArrayList<>();
+		queue.drainTo(leftover);
+		if (!leftover.isEmpty()) {
+			log.warn("{} queued employees were not saved before shutdown", leftover.size());
+			for (Pending pending : leftover) {
+				log.warn("Unsaved employee for ticket {}: {}", pending.ticketId(), pending.employee());
+				fail(pending, "Not saved before shutdown");
+			}
+		}
+		for (Pending pending : inFlight) {
+			tickets.asMap().computeIfPresent(pending.ticketId(), (id, ticket) -> {
+				if (ticket.status() != EmployeeTicket.Status.QUEUED) {
+					return ticket;
+				}
+				log.warn("Employee for ticket {} was still being saved at shutdown: {}", id, pending.employee());
+				return ticket.failed("Still being saved at shutdown");
+			});
+		}
+	}
+
+	private void joinWriter() {
+		try {
+			writer.join(shutdownTimeout.toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	@Override
+	public int getPhase() {
+		return PHASE;
+	}
+
+	// Runs until stopped and the queue is empty, or until stop gives up waiting
+	// for it after the shutdown timeout
+	private void writeLoop() {
+		List<Pending> batch = new ArrayList<>(batchSize);
+		while (!abandoned) {
+			Pending first;
+			try {
+				first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				return;
+			}
+			if (first == null) {
+				if (!running) {
+					return;
+				}
+				continue;
+			}
+			batch.add(first);
+			queue.drainTo(batch, batchSize - 1);
+			inFlight = List.copyOf(batch);
+			write(batch);
+			if (!abandoned) {
+				inFlight = List.of();
+			}
+			batch.clear();
+		}
+	}
+
+	private void write(List<Pending> batch) {
+		try {
+			List<Employee> saved = batchWriter.saveAll(batch.stream().map(Pending::employee).toList());
+			for (int i = 0; i < batch.size(); i++) {
+				save(batch.get(i), saved.get(i));
+			}
+		} catch (RuntimeException e) {
+			// Only the transaction throws, so nothing of the batch was saved
+			log.warn("Saving a batch of {} employees failed, retrying one by one", batch.size(), e);
+			for (Pending pending : batch) {
+				if (abandoned) {
+					return;
+				}
+				// A copy, because the failed transaction may have assigned an id already
+				Employee employee = pending.employee();
+				Employee copy = new Employee(employee.getFirstName(), employee.getLastName(), employee.getHireDate(),
+						employee.getAddress());
+				try {
+					save(pending, batchWriter.saveAll(List.of(copy)).get(0));
+				} catch (RuntimeException single) {
+					log.warn("Saving the employee for ticket {} failed", pending.ticketId(), single);
+					fail(pending, single.getMessage());
+				}
+			}
+		}
+	}
+
+	private void save(Pending pending, Employee saved) {
+		tickets.asMap().computeIfPresent(pending.ticketId(), (id, ticket) -> ticket.saved(saved.getId()));
+	}
+
+	private void fail(Pending pending, String reason) {
+		tickets.asMap().computeIfPresent(pending.ticketId(), (id, ticket) -> ticket.failed(reason));
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.fdmgroup.employee.service;
+
+/**
+ * The formats of the employee export.
+ */
+public enum ExportFormat {
+	/** A header line, then one RFC 4180 line per employee. */
+	CSV("text/csv", "csv"),
+	/** One JSON object per line. */
+	NDJSON("application/x-ndjson", "ndjson");
+
+	private final String contentType;
+	private final String extension;
+
+	ExportFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.fdmgroup.employee.service;
+
+/**
+ * The number of employees hired in a month or a year.
+ * 
+ * @param period - The month as "2019-06" or the year as "2019".
+ * @param hires  - The number of employees hired in the period.
+ */
+public record HireCount(String period, long hires) {
+
+}
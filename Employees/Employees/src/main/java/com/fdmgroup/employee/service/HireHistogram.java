@@ -0,0 +1,156 @@
+package com.fdmgroup.employee.service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+/**
+ * The number of employees hired in every month, held in memory in month
+ * order. It is counted by one GROUP BY on first use and is kept in step by
+ * calling add() for every employee saved afterwards, so the monthly and yearly
+ * totals never read the employee table again. add() waits for a count in
+ * progress, so an employee saved while it runs is never missed, though it may
+ * be counted twice; rebuild() counts again.
+ */
+@Component
+public class HireHistogram {
+	private final static Logger log = LoggerFactory.getLogger(HireHistogram.class);
+	private final EmployeeRepository employeeRepository;
+	private final ConcurrentSkipListMap<YearMonth, LongAdder> hiresByMonth = new ConcurrentSkipListMap<>();
+	// Adds share the read lock, LongAdder takes care of their increments
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private volatile boolean loaded;
+
+	@Autowired
+	public HireHistogram(EmployeeRepository employeeRepository) {
+		this.employeeRepository = employeeRepository;
+	}
+
+	/**
+	 * Discards the counts and counts every employee in the repository again.
+	 */
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			load();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Counts a newly saved employee. Nothing is done while the histogram has not
+	 * been loaded yet, as the employee will be counted with the rest. loaded is
+	 * checked under the lock, so a count in progress is waited for rather than
+	 * skipped.
+	 *
+	 * @param employee - The saved Employee instance.
+	 */
+	public void add(Employee employee) {
+		if (employee.getHireDate() == null) {
+			return;
+		}
+		lock.readLock().lock();
+		try {
+			if (!loaded) {
+				return;
+			}
+			hiresByMonth.computeIfAbsent(YearMonth.from(employee.getHireDate()), month -> new LongAdder()).increment();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param from - The first month.
+	 * @param to   - The last month.
+	 * @return - The hires of every month from the first to the last one, months
+	 *         without hires included.
+	 */
+	public List<HireCount> byMonth(YearMonth from, YearMonth to) {
+		ensureLoaded();
+		List<HireCount> counts = new ArrayList<>();
+		for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+			LongAdder hires = hiresByMonth.get(month);
+			counts.add(new HireCount(month.toString(), hires == null ? 0 : hires.sum()));
+		}
+		return counts;
+	}
+
+	/**
+	 * @param from - The first year.
+	 * @param to   - The last year.
+	 * @return - The hires of every year from the first to the last one, years
+	 *         without hires included.
+	 */
+	public List<HireCount> byYear(int from, int to) {
+		ensureLoaded();
+		List<HireCount> counts = new ArrayList<>();
+		for (int year = from; year <= to; year++) {
+			long hires = 0;
+			for (LongAdder month : hiresByMonth.subMap(YearMonth.of(year, 1), true, YearMonth.of(year, 12), true)
+					.values()) {
+				hires += month.sum();
+			}
+			counts.add(new HireCount(String.valueOf(year), hires));
+		}
+		return counts;
+	}
+
+	/**
+	 * @return - The first month with hires, or null if there are none.
+	 */
+	public YearMonth firstMonth() {
+		ensureLoaded();
+		Map.Entry<YearMonth, LongAdder> first = hiresByMonth.firstEntry();
+		return first == null ? null : first.getKey();
+	}
+
+	/**
+	 * @return - The last month with hires, or null if there are none.
+	 */
+	public YearMonth lastMonth() {
+		ensureLoaded();
+		Map.Entry<YearMonth, LongAdder> last = hiresByMonth.lastEntry();
+		return last == null ? null : last.getKey();
+	}
+
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (!loaded) {
+				load();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void load() {
+		log.info("Counting hires by month");
+		hiresByMonth.clear();
+		for (Object[] row : employeeRepository.countHiresByMonth()) {
+			LongAdder hires = new LongAdder();
+			hires.add(((Number) row[2]).longValue());
+			hiresByMonth.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), hires);
+		}
+		loaded = true;
+		log.info("Counted hires in {} months", hiresByMonth.size());
+	}
+
+}
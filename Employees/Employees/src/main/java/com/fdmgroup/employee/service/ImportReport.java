@@ -0,0 +1,35 @@
+package com.fdmgroup.employee.service;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Outcome of a bulk import.
+ * 
+ * @param rowsRead      - The number of data rows read from the input.
+ * @param rowsImported  - The number of employees saved.
+ * @param rejections    - The rows that were not saved and why.
+ * @param elapsedMillis - The wall-clock duration of the import.
+ */
+public record ImportReport(int rowsRead, int rowsImported, List<Rejection> rejections, long elapsedMillis) {
+
+	/**
+	 * A row that was not imported.
+	 * 
+	 * @param line   - The line number of the row in the input, starting at 1.
+	 * @param reason - Why the row was rejected.
+	 */
+	public record Rejection(int line, String reason) {
+
+	}
+
+	/**
+	 * @return - The number of rows read per second of import time.
+	 */
+	@JsonProperty("rowsPerSecond")
+	public double rowsPerSecond() {
+		return elapsedMillis == 0 ? rowsRead * 1000.0 : rowsRead * 1000.0 / elapsedMillis;
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.fdmgroup.employee.service;
+
+/**
+ * Thrown when the write-behind queue stays full for the whole enqueue timeout,
+ * or no longer accepts employees because the application is shutting down.
+ */
+public class WriteBehindQueueFullException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public WriteBehindQueueFullException(String message) {
+		super(message);
+	}
+
+}
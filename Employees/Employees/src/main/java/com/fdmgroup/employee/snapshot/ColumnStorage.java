@@ -0,0 +1,78 @@
+package com.fdmgroup.employee.snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Allocates the buffers of the snapshot columns outside the Java heap: direct
+ * memory, or one memory-mapped file per column when a directory is given.
+ * Mapped files are rewritten when the snapshot is rebuilt, so they only ever
+ * hold the current snapshot.
+ */
+final class ColumnStorage {
+	private final Path directory;
+
+	/**
+	 * @param directory - The directory of the column files, or null for direct
+	 *                  memory.
+	 */
+	ColumnStorage(Path directory) {
+		this.directory = directory;
+		if (directory != null) {
+			try {
+				Files.createDirectories(directory);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * @param column - The column name, also the name of its file.
+	 * @param bytes  - The capacity.
+	 * @return - An empty buffer of the given capacity.
+	 */
+	ByteBuffer allocate(String column, int bytes) {
+		if (directory == null) {
+			return ByteBuffer.allocateDirect(bytes);
+		}
+		return map(column, bytes, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * @param column - The column name.
+	 * @param buffer - The full buffer of the column.
+	 * @param used   - The number of bytes of the buffer in use.
+	 * @param bytes  - The new capacity.
+	 * @return - A buffer of the new capacity starting with the used bytes.
+	 */
+	ByteBuffer grow(String column, ByteBuffer buffer, int used, int bytes) {
+		if (directory != null) {
+			// Mapping the same file again with a larger size keeps what was written to it
+			return map(column, bytes, StandardOpenOption.CREATE);
+		}
+		ByteBuffer grown = ByteBuffer.allocateDirect(bytes);
+		grown.put(0, buffer, 0, used);
+		return grown;
+	}
+
+	boolean isMapped() {
+		return directory != null;
+	}
+
+	private ByteBuffer map(String column, int bytes, StandardOpenOption option) {
+		try (FileChannel channel = FileChannel.open(directory.resolve(column + ".col"), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE, option)) {
+			// The mapping stays valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
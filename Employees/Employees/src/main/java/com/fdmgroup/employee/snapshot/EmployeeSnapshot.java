@@ -0,0 +1,558 @@
+package com.fdmgroup.employee.snapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fdmgroup.employee.model.AddressParts;
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.EmployeeView;
+import com.fdmgroup.employee.model.SearchKeys;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.search.EmployeeSearchEngine;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Columnar read model of the employee directory, held outside the Java heap:
+ * the ids, the hire dates as epoch days, the names and addresses as UTF-8, and
+ * the folded search keys of the names and the address. Listing and searching
+ * scan the columns and build an EmployeeView only for the rows returned, so no
+ * entity, and no String of a row that does not match, is created.
+ *
+ * The columns live in direct memory, or in memory-mapped files when a
+ * directory is configured. The snapshot is loaded from the projection stream
+ * of the repository on first use and kept in step by calling add() for every
+ * employee saved afterwards; as employees are never changed or deleted once
+ * saved, appending new ones is the only change there is.
+ *
+ * The scans of the finders and of search() run on a ParallelScan, which
+ * splits the rows in id order into ranges scanned by several threads once the
+ * snapshot holds more rows than its threshold.
+ *
+ * footprint() compares the bytes of the columns with an estimate of the heap
+ * the same employees take as entities.
+ */
+@Component
+public class EmployeeSnapshot {
+	private final static Logger log = LoggerFactory.getLogger(EmployeeSnapshot.class);
+	private final static int INITIAL_CAPACITY = 1024;
+	// Stands for a missing hire date; no real epoch day is this far in the past
+	private final static int NO_DATE = Integer.MIN_VALUE;
+
+	// The folded columns the "contains" finders scan
+	private enum Key {
+		FIRST_NAME, LAST_NAME, ADDRESS
+	}
+
+	// The folded address parts the location finders compare
+	private enum Location {
+		CITY, COUNTRY
+	}
+
+	private final EmployeeRepository employeeRepository;
+	private final boolean enabled;
+	private final ColumnStorage storage;
+	private final ParallelScan scan;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private IntColumn ids;
+	private IntColumn hireDays;
+	private TextColumn firstNames;
+	private TextColumn lastNames;
+	private TextColumn addresses;
+	private TextColumn firstNameKeys;
+	private TextColumn lastNameKeys;
+	private TextColumn addressKeys;
+	private TextColumn cityKeys;
+	private TextColumn countryKeys;
+	private int maxId;
+	// The rows in id order, or null while they were appended in id order. Once a
+	// row arrives out of order, every append inserts its row at its place, so
+	// readers never sort; the first ids.size() entries are used.
+	private int[] idOrder;
+	private long entityBytes;
+	private volatile boolean loaded;
+
+	/**
+	 * @param employeeRepository - The repository the snapshot is loaded from.
+	 * @param enabled            - Whether the service reads from the snapshot.
+	 * @param directory          - The directory of the memory-mapped column
+	 *                           files, or blank to keep the columns in direct
+	 *                           memory.
+	 * @param threads            - The number of threads scanning the columns, 0
+	 *                           for one per available processor.
+	 * @param parallelThreshold  - The number of rows below which a scan stays on
+	 *                           the calling thread.
+	 */
+	@Autowired
+	public EmployeeSnapshot(EmployeeRepository employeeRepository,
+			@Value("${employee.snapshot.enabled:false}") boolean enabled,
+			@Value("${employee.snapshot.directory:}") String directory,
+			@Value("${employee.snapshot.parallel.threads:1}") int threads,
+			@Value("${employee.snapshot.parallel.threshold:50000}") int parallelThreshold) {
+		this.employeeRepository = employeeRepository;
+		this.enabled = enabled;
+		this.storage = new ColumnStorage(directory.isBlank() ? null : Path.of(directory));
+		this.scan = new ParallelScan(threads, parallelThreshold);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Discards the current columns and reloads every employee from the
+	 * repository.
+	 */
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			load();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Appends a newly saved employee. Nothing is done while the snapshot has not
+	 * been loaded yet, as the employee will be read with the rest. loaded is
+	 * checked under the lock, so a load in progress is waited for rather than
+	 * skipped; an employee it read already is ignored.
+	 *
+	 * @param employee - The saved Employee instance.
+	 */
+	public void add(Employee employee) {
+		lock.writeLock().lock();
+		try {
+			if (loaded) {
+				append(EmployeeView.of(employee));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return - The number of employees in the snapshot.
+	 */
+	public int size() {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			return ids.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Lists one page of employees in id order.
+	 *
+	 * @param afterId  - The last id of the previous page, or 0 for the first page.
+	 * @param pageSize - The maximum number of employees on the page.
+	 * @return - The employees with the lowest ids above afterId.
+	 */
+	public List<EmployeeView> page(int afterId, int pageSize) {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			int[] order = idOrder;
+			int from = firstPositionAbove(order, afterId);
+			int to = Math.min(ids.size(), from + pageSize);
+			List<EmployeeView> page = new ArrayList<>(Math.max(0, to - from));
+			for (int position = from; position < to; position++) {
+				page.add(view(row(order, position)));
+			}
+			return page;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Hands every employee, in id order, to the consumer. The snapshot cannot
+	 * change until the consumer has seen the last one.
+	 *
+	 * @param consumer - Receives the views one at a time.
+	 */
+	public void forEach(Consumer<EmployeeView> consumer) {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			int[] order = idOrder;
+			for (int position = 0; position < ids.size(); position++) {
+				consumer.accept(view(row(order, position)));
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param id - The ID of the employee.
+	 * @return - The view of the employee, or null if it is not in the snapshot.
+	 */
+	public EmployeeView findById(int id) {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			int row = findRow(id);
+			return row < 0 ? null : view(row);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds employees whose first name contains the term, ignoring case.
+	 *
+	 * @param firstName - The term to look for.
+	 * @return - The matching employees in id order.
+	 */
+	public List<EmployeeView> findByFirstName(String firstName) {
+		return findContaining(Key.FIRST_NAME, firstName);
+	}
+
+	/**
+	 * Finds employees whose last name contains the term, ignoring case.
+	 *
+	 * @param lastName - The term to look for.
+	 * @return - The matching employees in id order.
+	 */
+	public List<EmployeeView> findByLastName(String lastName) {
+		return findContaining(Key.LAST_NAME, lastName);
+	}
+
+	/**
+	 * Finds employees whose address contains the term, ignoring case.
+	 *
+	 * @param address - The term to look for.
+	 * @return - The matching employees in id order.
+	 */
+	public List<EmployeeView> findByAddress(String address) {
+		return findContaining(Key.ADDRESS, address);
+	}
+
+	/**
+	 * Finds the employees of a city, parsed from their addresses as
+	 * EmployeeRepository.findByCity does.
+	 *
+	 * @param city   - The city, in any case and with or without accents.
+	 * @param prefix - Whether the city only needs to start with the provided one.
+	 * @return - The matching employees in id order.
+	 */
+	public List<EmployeeView> findByCity(String city, boolean prefix) {
+		return findByLocation(Location.CITY, city, prefix);
+	}
+
+	/**
+	 * Finds the employees of a country, parsed from their addresses as
+	 * EmployeeRepository.findByCountry does.
+	 *
+	 * @param country - The country, in any case and with or without accents.
+	 * @param prefix  - Whether the country only needs to start with the provided
+	 *                one.
+	 * @return - The matching employees in id order.
+	 */
+	public List<EmployeeView> findByCountry(String country, boolean prefix) {
+		return findByLocation(Location.COUNTRY, country, prefix);
+	}
+
+	/**
+	 * Finds the employees hired between two dates.
+	 *
+	 * @param from - The first hire date, inclusive.
+	 * @param to   - The last hire date, inclusive.
+	 * @return - The matching employees in id order.
+	 */
+	public List<EmployeeView> findByHireDateBetween(LocalDate from, LocalDate to) {
+		if (from.isAfter(to)) {
+			return List.of();
+		}
+		int first = (int) from.toEpochDay();
+		int last = (int) to.toEpochDay();
+		// A missing hire date is stored as NO_DATE, below any first day
+		return findRows(() -> {
+			IntColumn days = hireDays;
+			return row -> {
+				int hireDay = days.get(row);
+				return hireDay >= first && hireDay <= last;
+			};
+		});
+	}
+
+	/**
+	 * Searches employees by first name, last name or both, with the matching
+	 * rules and ranking of EmployeeSearchEngine.
+	 *
+	 * @param searchInput - The search input entered by the user.
+	 * @return - The matching employees in ranked order, or every employee for a
+	 *         blank input.
+	 */
+	public List<EmployeeView> search(String searchInput) {
+		String input = EmployeeSearchEngine.normalizeInput(searchInput);
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			if (input.isEmpty()) {
+				int[] order = idOrder;
+				return scan.map(ids.size(), position -> view(row(order, position)));
+			}
+			String[] words = input.split(" ");
+			byte[] term = utf8(input);
+			byte[] firstWord = words.length > 1 ? utf8(words[0]) : null;
+			byte[] secondWord = words.length > 1 ? utf8(words[1]) : null;
+			// Rank above the position in id order, so the sort needs no comparator and
+			// orders equal ranks by id
+			int[] order = idOrder;
+			long[] keys = scan.mapToLong(ids.size(), position -> {
+				int row = row(order, position);
+				if (firstNameKeys.contains(row, term) || lastNameKeys.contains(row, term)
+						|| (firstWord != null && (firstNameKeys.contains(row, firstWord)
+								|| lastNameKeys.contains(row, secondWord)))) {
+					int rank = EmployeeSearchEngine.rankOf(firstNameKeys.get(row), lastNameKeys.get(row), input, words);
+					return (long) rank << 32 | position;
+				}
+				return -1;
+			});
+			Arrays.sort(keys);
+			return scan.map(keys.length, i -> view(row(order, (int) keys[i])));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return - The bytes of the columns against the heap the same employees
+	 *         take as entities.
+	 */
+	public SnapshotFootprint footprint() {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			long allocated = ids.capacityBytes() + hireDays.capacityBytes();
+			long used = ids.usedBytes() + hireDays.usedBytes();
+			for (TextColumn column : List.of(firstNames, lastNames, addresses, firstNameKeys, lastNameKeys,
+					addressKeys, cityKeys, countryKeys)) {
+				allocated += column.capacityBytes();
+				used += column.usedBytes();
+			}
+			int[] order = idOrder;
+			long heapBytes = order == null ? 0 : (long) order.length * Integer.BYTES;
+			return new SnapshotFootprint(ids.size(), storage.isMapped() ? "mapped" : "direct", allocated, used,
+					heapBytes, entityBytes);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * An estimate of the heap taken by an Employee entity and the objects it
+	 * references, with compressed references and compact strings: the entity
+	 * with its 15 references, the four fields, the search keys, the address
+	 * parts and their keys (estimated at the size of the address and its key),
+	 * the hire date and the boxed month and day.
+	 *
+	 * @param view - The fields of the employee.
+	 * @return - The estimated bytes.
+	 */
+	static long entityBytes(EmployeeView view) {
+		long strings = 2 * (stringBytes(view.firstName()) + stringBytes(view.lastName()))
+				+ 4 * stringBytes(view.address());
+		long hireDate = view.hireDate() == null ? 0 : 24 + 16;
+		return 80 + strings + hireDate;
+	}
+
+	// A String object and its byte array, Latin-1 strings taking one byte a character
+	static long stringBytes(String value) {
+		if (value == null) {
+			return 0;
+		}
+		boolean latin1 = value.chars().allMatch(c -> c < 256);
+		long array = 16 + (long) value.length() * (latin1 ? 1 : 2);
+		return 24 + (array + 7) / 8 * 8;
+	}
+
+	/**
+	 * Stops the threads of the parallel scans.
+	 */
+	@PreDestroy
+	public void close() {
+		scan.shutdown();
+	}
+
+	private List<EmployeeView> findContaining(Key key, String term) {
+		byte[] folded = utf8(term == null ? "" : SearchKeys.fold(term));
+		return findRows(() -> {
+			TextColumn keys = switch (key) {
+			case FIRST_NAME -> firstNameKeys;
+			case LAST_NAME -> lastNameKeys;
+			case ADDRESS -> addressKeys;
+			};
+			return row -> keys.contains(row, folded);
+		});
+	}
+
+	// An exact lookup of a null location finds nothing, as the repository's does
+	private List<EmployeeView> findByLocation(Location location, String value, boolean prefix) {
+		if (value == null && !prefix) {
+			return List.of();
+		}
+		byte[] folded = utf8(value == null ? "" : SearchKeys.fold(value));
+		return findRows(() -> {
+			TextColumn keys = location == Location.CITY ? cityKeys : countryKeys;
+			return prefix ? row -> keys.startsWith(row, folded) : row -> keys.equalTo(row, folded);
+		});
+	}
+
+	// Scans the rows in id order, split across the threads of the scan. The
+	// predicate is made under the read lock, as a rebuild replaces the columns.
+	private List<EmployeeView> findRows(Supplier<IntPredicate> predicate) {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			IntPredicate matches = predicate.get();
+			int[] order = idOrder;
+			return scan.map(ids.size(), position -> {
+				int row = row(order, position);
+				return matches.test(row) ? view(row) : null;
+			});
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (!loaded) {
+				load();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void load() {
+		log.info("Loading employee snapshot");
+		clear();
+		employeeRepository.streamAllViews(this::append);
+		loaded = true;
+		log.info("Loaded {} employees into the snapshot", ids.size());
+	}
+
+	private void clear() {
+		ids = new IntColumn(storage, "id", INITIAL_CAPACITY);
+		hireDays = new IntColumn(storage, "hire-day", INITIAL_CAPACITY);
+		firstNames = new TextColumn(storage, "first-name", INITIAL_CAPACITY, 8);
+		lastNames = new TextColumn(storage, "last-name", INITIAL_CAPACITY, 8);
+		addresses = new TextColumn(storage, "address", INITIAL_CAPACITY, 32);
+		firstNameKeys = new TextColumn(storage, "first-name-key", INITIAL_CAPACITY, 8);
+		lastNameKeys = new TextColumn(storage, "last-name-key", INITIAL_CAPACITY, 8);
+		addressKeys = new TextColumn(storage, "address-key", INITIAL_CAPACITY, 32);
+		cityKeys = new TextColumn(storage, "city-key", INITIAL_CAPACITY, 8);
+		countryKeys = new TextColumn(storage, "country-key", INITIAL_CAPACITY, 8);
+		maxId = 0;
+		idOrder = null;
+		entityBytes = 0;
+		loaded = false;
+	}
+
+	// An employee saved while the snapshot was loading is read by the load and then added again
+	private void append(EmployeeView view) {
+		if (view.id() <= maxId) {
+			int position = firstPositionAbove(idOrder, view.id() - 1);
+			if (position < ids.size() && ids.get(row(idOrder, position)) == view.id()) {
+				return;
+			}
+			// Saved by a transaction that committed after one holding higher ids
+			insertInIdOrder(position);
+		} else if (idOrder != null) {
+			insertInIdOrder(ids.size());
+		}
+		maxId = Math.max(maxId, view.id());
+		ids.add(view.id());
+		hireDays.add(view.hireDate() == null ? NO_DATE : (int) view.hireDate().toEpochDay());
+		firstNames.add(view.firstName());
+		lastNames.add(view.lastName());
+		addresses.add(view.address());
+		firstNameKeys.add(SearchKeys.fold(view.firstName()));
+		lastNameKeys.add(SearchKeys.fold(view.lastName()));
+		addressKeys.add(SearchKeys.fold(view.address()));
+		AddressParts parts = AddressParts.parse(view.address());
+		cityKeys.add(SearchKeys.fold(parts.city()));
+		countryKeys.add(SearchKeys.fold(parts.country()));
+		entityBytes += entityBytes(view);
+	}
+
+	private EmployeeView view(int row) {
+		int hireDay = hireDays.get(row);
+		return new EmployeeView(ids.get(row), firstNames.get(row), lastNames.get(row),
+				hireDay == NO_DATE ? null : LocalDate.ofEpochDay(hireDay), addresses.get(row));
+	}
+
+	// Puts the row about to be appended at a position of the id order, starting
+	// the order from the rows so far, which are in id order until then
+	private void insertInIdOrder(int position) {
+		int size = ids.size();
+		if (idOrder == null) {
+			idOrder = new int[Math.max(INITIAL_CAPACITY, size * 2)];
+			for (int row = 0; row < size; row++) {
+				idOrder[row] = row;
+			}
+		} else if (size == idOrder.length) {
+			idOrder = Arrays.copyOf(idOrder, size * 2);
+		}
+		System.arraycopy(idOrder, position, idOrder, position + 1, size - position);
+		idOrder[position] = size;
+	}
+
+	private static int row(int[] order, int position) {
+		return order == null ? position : order[position];
+	}
+
+	private int firstPositionAbove(int[] order, int id) {
+		int low = 0;
+		int high = ids.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (ids.get(row(order, middle)) <= id) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private int findRow(int id) {
+		int[] order = idOrder;
+		int position = firstPositionAbove(order, id - 1);
+		if (position < ids.size() && ids.get(row(order, position)) == id) {
+			return row(order, position);
+		}
+		return -1;
+	}
+
+	private static byte[] utf8(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+}
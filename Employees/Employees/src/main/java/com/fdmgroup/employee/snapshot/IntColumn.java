@@ -0,0 +1,57 @@
+package com.fdmgroup.employee.snapshot;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A growable column of ints in a buffer of ColumnStorage, four bytes per row.
+ */
+final class IntColumn {
+	private final ColumnStorage storage;
+	private final String name;
+	private ByteBuffer buffer;
+	private int size;
+
+	/**
+	 * @param storage  - Allocates the buffer.
+	 * @param name     - The column name.
+	 * @param capacity - The number of rows to allocate room for.
+	 */
+	IntColumn(ColumnStorage storage, String name, int capacity) {
+		this.storage = storage;
+		this.name = name;
+		this.buffer = storage.allocate(name, Math.max(1, capacity) * Integer.BYTES);
+	}
+
+	void add(int value) {
+		if ((size + 1) * Integer.BYTES > buffer.capacity()) {
+			buffer = storage.grow(name, buffer, size * Integer.BYTES, grownCapacity(buffer.capacity()));
+		}
+		buffer.putInt(size * Integer.BYTES, value);
+		size++;
+	}
+
+	int get(int row) {
+		return buffer.getInt(row * Integer.BYTES);
+	}
+
+	int size() {
+		return size;
+	}
+
+	long capacityBytes() {
+		return buffer.capacity();
+	}
+
+	long usedBytes() {
+		return (long) size * Integer.BYTES;
+	}
+
+	// Doubles, up to the largest buffer a ByteBuffer can address
+	static int grownCapacity(int capacity) {
+		if (capacity == Integer.MAX_VALUE) {
+			throw new IllegalStateException("A snapshot column cannot grow past 2 GB");
+		}
+		return (int) Math.min(Integer.MAX_VALUE, capacity * 2L);
+	}
+
+}
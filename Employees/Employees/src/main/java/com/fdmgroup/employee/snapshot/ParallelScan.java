@@ -0,0 +1,174 @@
+package com.fdmgroup.employee.snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Evaluates a function over the positions 0 to count - 1 of the snapshot, in
+ * parallel on a ForkJoinPool of its own. The positions are split into ranges,
+ * halved until a range holds at most threshold positions or there are a few
+ * ranges per thread; every range is scanned by one task, and the results of
+ * the ranges are concatenated in position order, so callers see the same
+ * order as with a sequential loop.
+ *
+ * Fewer positions than the threshold, or a single thread, are scanned by the
+ * calling thread: forking costs more than it saves on a small snapshot.
+ * Callers hold the read lock of the snapshot for the whole scan, which keeps
+ * the columns from changing while the pool reads them.
+ */
+final class ParallelScan {
+	// Ranges per thread, so a thread that finishes early can steal another one
+	private static final int RANGES_PER_THREAD = 4;
+
+	private final ForkJoinPool pool;
+	private final int threads;
+	private final int threshold;
+
+	/**
+	 * @param threads   - The number of threads, 0 for one per available
+	 *                  processor; 1 scans sequentially.
+	 * @param threshold - The number of positions below which a scan stays
+	 *                  sequential.
+	 */
+	ParallelScan(int threads, int threshold) {
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.threshold = Math.max(1, threshold);
+		this.pool = this.threads > 1 ? new ForkJoinPool(this.threads) : null;
+	}
+
+	int threads() {
+		return threads;
+	}
+
+	/**
+	 * @param count    - The number of positions.
+	 * @param function - Returns the result of a position, or null to skip it.
+	 * @return - The results that are not null, in position order.
+	 */
+	<T> List<T> map(int count, IntFunction<T> function) {
+		if (!parallel(count)) {
+			return mapRange(0, count, function);
+		}
+		return pool.invoke(new MapTask<>(0, count, rangeSize(count), function));
+	}
+
+	/**
+	 * @param count    - The number of positions.
+	 * @param function - Returns the result of a position, or a negative value to
+	 *                 skip it.
+	 * @return - The results that are not negative, in position order.
+	 */
+	long[] mapToLong(int count, IntToLongFunction function) {
+		if (!parallel(count)) {
+			return mapRangeToLong(0, count, function);
+		}
+		return pool.invoke(new LongTask(0, count, rangeSize(count), function));
+	}
+
+	/**
+	 * Stops the threads of the pool.
+	 */
+	void shutdown() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	private boolean parallel(int count) {
+		return pool != null && count >= threshold;
+	}
+
+	private int rangeSize(int count) {
+		return Math.max(1, Math.min(threshold, count / (threads * RANGES_PER_THREAD)));
+	}
+
+	private static <T> List<T> mapRange(int from, int to, IntFunction<T> function) {
+		List<T> results = new ArrayList<>();
+		for (int position = from; position < to; position++) {
+			T result = function.apply(position);
+			if (result != null) {
+				results.add(result);
+			}
+		}
+		return results;
+	}
+
+	private static long[] mapRangeToLong(int from, int to, IntToLongFunction function) {
+		long[] results = new long[16];
+		int count = 0;
+		for (int position = from; position < to; position++) {
+			long result = function.applyAsLong(position);
+			if (result >= 0) {
+				if (count == results.length) {
+					results = Arrays.copyOf(results, count * 2);
+				}
+				results[count++] = result;
+			}
+		}
+		return Arrays.copyOf(results, count);
+	}
+
+	private static final class MapTask<T> extends RecursiveTask<List<T>> {
+		private static final long serialVersionUID = 1L;
+		private final int from;
+		private final int to;
+		private final int rangeSize;
+		private final transient IntFunction<T> function;
+
+		MapTask(int from, int to, int rangeSize, IntFunction<T> function) {
+			this.from = from;
+			this.to = to;
+			this.rangeSize = rangeSize;
+			this.function = function;
+		}
+
+		@Override
+		protected List<T> compute() {
+			if (to - from <= rangeSize) {
+				return mapRange(from, to, function);
+			}
+			int middle = (from + to) >>> 1;
+			MapTask<T> right = new MapTask<>(middle, to, rangeSize, function);
+			right.fork();
+			List<T> results = new MapTask<>(from, middle, rangeSize, function).compute();
+			results.addAll(right.join());
+			return results;
+		}
+	}
+
+	private static final class LongTask extends RecursiveTask<long[]> {
+		private static final long serialVersionUID = 1L;
+		private final int from;
+		private final int to;
+		private final int rangeSize;
+		private final transient IntToLongFunction function;
+
+		LongTask(int from, int to, int rangeSize, IntToLongFunction function) {
+			this.from = from;
+			this.to = to;
+			this.rangeSize = rangeSize;
+			this.function = function;
+		}
+
+		@Override
+		protected long[] compute() {
+			if (to - from <= rangeSize) {
+				return mapRangeToLong(from, to, function);
+			}
+			int middle = (from + to) >>> 1;
+			LongTask right = new LongTask(middle, to, rangeSize, function);
+			right.fork();
+			long[] left = new LongTask(from, middle, rangeSize, function).compute();
+			long[] rest = right.join();
+			long[] results = Arrays.copyOf(left, left.length + rest.length);
+			System.arraycopy(rest, 0, results, left.length, rest.length);
+			return results;
+		}
+	}
+
+}
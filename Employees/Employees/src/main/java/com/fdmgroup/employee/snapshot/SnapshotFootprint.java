@@ -0,0 +1,20 @@
+package com.fdmgroup.employee.snapshot;
+
+/**
+ * The memory taken by the employee snapshot, against the entities it stands in
+ * for.
+ *
+ * @param rows           - The number of employees in the snapshot.
+ * @param storage        - "direct" for direct memory, "mapped" for
+ *                       memory-mapped files.
+ * @param allocatedBytes - The capacity of the column buffers, off the heap.
+ * @param usedBytes      - The bytes of the column buffers holding rows.
+ * @param heapBytes      - The heap taken by the id order of rows appended out
+ *                       of id order, if any.
+ * @param entityBytes    - The estimated heap of the same employees as Employee
+ *                       entities, strings and dates included.
+ */
+public record SnapshotFootprint(int rows, String storage, long allocatedBytes, long usedBytes, long heapBytes,
+		long entityBytes) {
+
+}
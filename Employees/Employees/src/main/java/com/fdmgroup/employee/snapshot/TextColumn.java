@@ -0,0 +1,140 @@
+package com.fdmgroup.employee.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A growable column of strings in buffers of ColumnStorage: the UTF-8 bytes of
+ * every row one after the other, and the end offset of every row. A null is
+ * stored as the complement of its end offset, so it takes no bytes.
+ *
+ * Searching a row compares UTF-8 bytes directly. As no UTF-8 sequence starts
+ * inside another, a string contains a term exactly when its bytes contain the
+ * bytes of the term.
+ */
+final class TextColumn {
+	private final ColumnStorage storage;
+	private final String name;
+	private final IntColumn ends;
+	private ByteBuffer bytes;
+	private int used;
+
+	/**
+	 * @param storage  - Allocates the buffers.
+	 * @param name     - The column name.
+	 * @param capacity - The number of rows to allocate room for.
+	 * @param rowBytes - The expected average length of a row in bytes.
+	 */
+	TextColumn(ColumnStorage storage, String name, int capacity, int rowBytes) {
+		this.storage = storage;
+		this.name = name;
+		this.ends = new IntColumn(storage, name + "-ends", capacity);
+		this.bytes = storage.allocate(name, Math.max(1, capacity) * rowBytes);
+	}
+
+	void add(String value) {
+		if (value == null) {
+			ends.add(~used);
+			return;
+		}
+		byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+		if ((long) used + encoded.length > bytes.capacity()) {
+			int capacity = bytes.capacity();
+			while (capacity < (long) used + encoded.length) {
+				capacity = IntColumn.grownCapacity(capacity);
+			}
+			bytes = storage.grow(name, bytes, used, capacity);
+		}
+		bytes.put(used, encoded);
+		used += encoded.length;
+		ends.add(used);
+	}
+
+	/**
+	 * @param row - The row.
+	 * @return - The string of the row, or null.
+	 */
+	String get(int row) {
+		int end = ends.get(row);
+		if (end < 0) {
+			return null;
+		}
+		int start = start(row);
+		byte[] value = new byte[end - start];
+		bytes.get(start, value);
+		return new String(value, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param row  - The row.
+	 * @param term - The UTF-8 bytes of the term.
+	 * @return - Whether the row is not null and contains the term.
+	 */
+	boolean contains(int row, byte[] term) {
+		int end = ends.get(row);
+		if (end < 0) {
+			return false;
+		}
+		int last = end - term.length;
+		for (int from = start(row); from <= last; from++) {
+			if (matchesAt(from, term)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param row  - The row.
+	 * @param term - The UTF-8 bytes of the term.
+	 * @return - Whether the row is not null and starts with the term.
+	 */
+	boolean startsWith(int row, byte[] term) {
+		int end = ends.get(row);
+		if (end < 0) {
+			return false;
+		}
+		int start = start(row);
+		return end - start >= term.length && matchesAt(start, term);
+	}
+
+	/**
+	 * @param row  - The row.
+	 * @param term - The UTF-8 bytes of the term.
+	 * @return - Whether the row is not null and equal to the term.
+	 */
+	boolean equalTo(int row, byte[] term) {
+		int end = ends.get(row);
+		if (end < 0) {
+			return false;
+		}
+		int start = start(row);
+		return end - start == term.length && matchesAt(start, term);
+	}
+
+	long capacityBytes() {
+		return bytes.capacity() + ends.capacityBytes();
+	}
+
+	long usedBytes() {
+		return used + ends.usedBytes();
+	}
+
+	private int start(int row) {
+		if (row == 0) {
+			return 0;
+		}
+		int previous = ends.get(row - 1);
+		return previous < 0 ? ~previous : previous;
+	}
+
+	private boolean matchesAt(int from, byte[] term) {
+		for (int i = 0; i < term.length; i++) {
+			if (bytes.get(from + i) != term[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
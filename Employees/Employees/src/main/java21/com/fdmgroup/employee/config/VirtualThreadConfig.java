@@ -0,0 +1,32 @@
+package com.fdmgroup.employee.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Runs every request, and so every repository call it makes, on its own
+ * virtual thread instead of Tomcat's pool of platform worker threads. Only
+ * compiled by the java21 profile.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+		return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+	}
+
+	@Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+	public AsyncTaskExecutor applicationTaskExecutor() {
+		return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+	}
+
+}
@@ -0,0 +1,12 @@
+-- The schema as Hibernate generated it before the migrations were introduced.
+-- Existing databases are baselined at this version instead of running it.
+CREATE SEQUENCE employee_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE employee (
+	id INTEGER NOT NULL,
+	first_name VARCHAR(255),
+	last_name VARCHAR(255),
+	hire_date DATE,
+	address VARCHAR(255),
+	PRIMARY KEY (id)
+);
@@ -0,0 +1,4 @@
+-- Case- and accent-folded copies of the searched columns, filled in by V3
+ALTER TABLE employee ADD COLUMN first_name_key VARCHAR(255);
+ALTER TABLE employee ADD COLUMN last_name_key VARCHAR(255);
+ALTER TABLE employee ADD COLUMN address_key VARCHAR(255);
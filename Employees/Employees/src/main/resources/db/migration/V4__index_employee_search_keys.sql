@@ -0,0 +1,5 @@
+-- Created after the backfill so that it is not slowed down by index maintenance.
+-- The full-name index also serves first-name lookups through its leading column.
+CREATE INDEX idx_employee_full_name_key ON employee (first_name_key, last_name_key);
+CREATE INDEX idx_employee_last_name_key ON employee (last_name_key);
+CREATE INDEX idx_employee_address_key ON employee (address_key);
@@ -0,0 +1,16 @@
+-- The address parsed into street, city and country, filled in by V6
+ALTER TABLE employee ADD COLUMN street VARCHAR(255);
+ALTER TABLE employee ADD COLUMN city VARCHAR(255);
+ALTER TABLE employee ADD COLUMN country VARCHAR(255);
+ALTER TABLE employee ADD COLUMN city_key VARCHAR(255);
+ALTER TABLE employee ADD COLUMN country_key VARCHAR(255);
+-- Headcount per city, kept up to date on every insert so that the totals never
+-- need a GROUP BY over employee. Missing parts are counted under an empty key.
+CREATE TABLE employee_location_count (
+	country_key VARCHAR(255) NOT NULL,
+	city_key VARCHAR(255) NOT NULL,
+	country VARCHAR(255),
+	city VARCHAR(255),
+	headcount BIGINT NOT NULL,
+	PRIMARY KEY (country_key, city_key)
+);
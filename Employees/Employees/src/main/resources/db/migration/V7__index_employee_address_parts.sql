@@ -0,0 +1,4 @@
+-- Created after the backfill, like V4. The country index also serves lookups of
+-- a city within a country.
+CREATE INDEX idx_employee_city_key ON employee (city_key);
+CREATE INDEX idx_employee_country_key ON employee (country_key, city_key);
@@ -0,0 +1,7 @@
+-- The month and day of the hire date as month * 100 + day, so that anniversaries
+-- are a range of one indexed column whatever the year
+ALTER TABLE employee ADD COLUMN hire_month_day INTEGER;
+UPDATE employee SET hire_month_day = EXTRACT(MONTH FROM hire_date) * 100 + EXTRACT(DAY FROM hire_date)
+	WHERE hire_date IS NOT NULL;
+CREATE INDEX idx_employee_hire_date ON employee (hire_date);
+CREATE INDEX idx_employee_hire_month_day ON employee (hire_month_day);
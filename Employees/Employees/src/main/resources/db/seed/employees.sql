@@ -0,0 +1,28 @@
+-- The seed employees of LoadDatabase for employee.seed.mode=sql, with the columns
+-- Employee works out on every write already filled in. Each row takes a whole
+-- block of the id sequence, so the ids never meet the blocks Hibernate takes later.
+INSERT INTO employee (id, first_name, last_name, hire_date, address, first_name_key, last_name_key, address_key,
+	street, city, country, city_key, country_key, hire_month_day) VALUES
+	(NEXT VALUE FOR employee_id_seq, 'Daliah', 'Wehbe', DATE '2019-06-17', '22 A Street London England', 'daliah', 'wehbe',
+		'22 a street london england', '22 A Street', 'London', 'England', 'london', 'england', 617),
+	(NEXT VALUE FOR employee_id_seq, 'Anya', 'Wehbe', DATE '2019-06-17', '23 B Street Manchester England', 'anya', 'wehbe',
+		'23 b street manchester england', '23 B Street', 'Manchester', 'England', 'manchester', 'england', 617),
+	(NEXT VALUE FOR employee_id_seq, 'Anastasia', 'Alexandrovna', DATE '2019-06-17', '24 C Street Moscow Russia', 'anastasia', 'alexandrovna',
+		'24 c street moscow russia', '24 C Street', 'Moscow', 'Russia', 'moscow', 'russia', 617),
+	(NEXT VALUE FOR employee_id_seq, 'Madalina', 'Acasandrei', DATE '2019-06-17', '25 D Street Brasov Romania', 'madalina', 'acasandrei',
+		'25 d street brasov romania', '25 D Street', 'Brasov', 'Romania', 'brasov', 'romania', 617),
+	(NEXT VALUE FOR employee_id_seq, 'Robert', 'Daniel', DATE '2019-06-17', '26 E Street Cluj-Napoca Romania', 'robert', 'daniel',
+		'26 e street cluj-napoca romania', '26 E Street', 'Cluj-Napoca', 'Romania', 'cluj-napoca', 'romania', 617);
+
+-- The headcounts EmployeeLocationCountListener would have added
+MERGE INTO employee_location_count c USING (VALUES
+	('england', 'london', 'England', 'London', 1),
+	('england', 'manchester', 'England', 'Manchester', 1),
+	('russia', 'moscow', 'Russia', 'Moscow', 1),
+	('romania', 'brasov', 'Romania', 'Brasov', 1),
+	('romania', 'cluj-napoca', 'Romania', 'Cluj-Napoca', 1)
+) AS s(country_key, city_key, country, city, delta)
+ON c.country_key = s.country_key AND c.city_key = s.city_key
+WHEN MATCHED THEN UPDATE SET headcount = c.headcount + s.delta
+WHEN NOT MATCHED THEN INSERT (country_key, city_key, country, city, headcount)
+	VALUES (s.country_key, s.city_key, s.country, s.city, s.delta);
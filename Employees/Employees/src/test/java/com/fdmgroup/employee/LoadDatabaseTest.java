@@ -0,0 +1,93 @@
+package com.fdmgroup.employee;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.LocationHeadcount;
+import com.fdmgroup.employee.repository.EmployeeLocationCounts;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoadDatabaseTest {
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	EmployeeLocationCounts locationCounts;
+	@Autowired
+	DataSource dataSource;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+	}
+
+	@Test
+	void test_sqlSeed_writesTheSameRowsAndCounts_asTheRepositorySeed() throws Exception {
+		// Act
+		seed(LoadDatabase.SeedMode.REPOSITORY);
+		List<Employee> repositorySeed = sortedByName(employeeRepository.findAll());
+		List<LocationHeadcount> repositoryCounts = locationCounts.countries();
+		employeeRepository.deleteAll();
+		seed(LoadDatabase.SeedMode.SQL);
+		List<Employee> sqlSeed = sortedByName(employeeRepository.findAll());
+
+		// Assert
+		assertEquals(List.of("Anastasia", "Anya", "Daliah", "Madalina", "Robert"),
+				sqlSeed.stream().map(Employee::getFirstName).toList());
+		for (int i = 0; i < sqlSeed.size(); i++) {
+			Employee expected = repositorySeed.get(i);
+			Employee actual = sqlSeed.get(i);
+			assertEquals(expected.getLastName(), actual.getLastName());
+			assertEquals(expected.getHireDate(), actual.getHireDate());
+			assertEquals(expected.getAddress(), actual.getAddress());
+			assertEquals(expected.getFirstNameKey(), actual.getFirstNameKey());
+			assertEquals(expected.getLastNameKey(), actual.getLastNameKey());
+			assertEquals(expected.getAddressKey(), actual.getAddressKey());
+			assertEquals(expected.getStreet(), actual.getStreet());
+			assertEquals(expected.getCity(), actual.getCity());
+			assertEquals(expected.getCountry(), actual.getCountry());
+			assertEquals(expected.getCityKey(), actual.getCityKey());
+			assertEquals(expected.getCountryKey(), actual.getCountryKey());
+			assertEquals(expected.getHireMonthDay(), actual.getHireMonthDay());
+		}
+		assertEquals(repositoryCounts, locationCounts.countries());
+	}
+
+	@Test
+	void test_sqlSeed_leavesTheIdSequenceToHibernate() throws Exception {
+		// Arrange
+		seed(LoadDatabase.SeedMode.SQL);
+		int seededMaxId = new JdbcTemplate(dataSource).queryForObject("SELECT MAX(id) FROM employee", Integer.class);
+
+		// Act
+		List<Employee> saved = employeeRepository.saveAll(List.of(
+				new Employee("Zoltan", "Kovacs", LocalDate.of(2023, 2, 1), "1 F Street Budapest Hungary")));
+
+		// Assert
+		assertTrue(saved.get(0).getId() > seededMaxId);
+		assertEquals(6, employeeRepository.count());
+	}
+
+	private void seed(LoadDatabase.SeedMode seedMode) throws Exception {
+		new LoadDatabase().initDatabase(employeeRepository, dataSource, seedMode).run();
+	}
+
+	private static List<Employee> sortedByName(List<Employee> employees) {
+		return employees.stream().sorted(Comparator.comparing(Employee::getFirstName)).toList();
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.fdmgroup.employee.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fdmgroup.employee.cache.EmployeeCache.CacheReport;
+import com.fdmgroup.employee.cache.EmployeeCache.Query;
+import com.fdmgroup.employee.model.Employee;
+
+class EmployeeCacheTest {
+	EmployeeCache employeeCache = new EmployeeCache(true, 100, 100, Duration.ofMinutes(10));
+	AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void test_query_loadsOncePerNormalizedTerm() {
+		employeeCache.query(Query.FIRST_NAME, "Anya", this::load);
+		employeeCache.query(Query.FIRST_NAME, "ANYA", this::load);
+		employeeCache.query(Query.LAST_NAME, "anya", this::load);
+
+		assertEquals(2, loads.get());
+		CacheReport queries = employeeCache.report().get(1);
+		assertEquals(1, queries.hits());
+		assertEquals(2, queries.misses());
+	}
+
+	@Test
+	void test_employeeCreated_evictsOnlyAffectedResults() {
+		employeeCache.query(Query.FIRST_NAME, "any", this::load);
+		employeeCache.query(Query.FIRST_NAME, "rob", this::load);
+		employeeCache.query(Query.ADDRESS, "england", this::load);
+		employeeCache.query(Query.ADDRESS, "romania", this::load);
+		employeeCache.query(Query.FULL_NAME, EmployeeCache.fullNameTerm("Anya", "Wehbe"), this::load);
+		employeeCache.query(Query.SEARCH, "", this::load);
+		employeeCache.query(Query.SEARCH, "x wehbe", this::load);
+		employeeCache.query(Query.SEARCH, "daniel", this::load);
+		loads.set(0);
+
+		Employee anya = new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street Manchester England");
+		anya.setId(12);
+		employeeCache.employeeCreated(anya);
+
+		// Unaffected results are still cached
+		employeeCache.query(Query.FIRST_NAME, "rob", this::load);
+		employeeCache.query(Query.ADDRESS, "romania", this::load);
+		employeeCache.query(Query.SEARCH, "daniel", this::load);
+		assertEquals(0, loads.get());
+
+		// Affected results are loaded again
+		employeeCache.query(Query.FIRST_NAME, "any", this::load);
+		employeeCache.query(Query.ADDRESS, "england", this::load);
+		employeeCache.query(Query.FULL_NAME, EmployeeCache.fullNameTerm("anya", "WEHBE"), this::load);
+		employeeCache.query(Query.SEARCH, "", this::load);
+		employeeCache.query(Query.SEARCH, "x wehbe", this::load);
+		assertEquals(5, loads.get());
+
+		// The new employee itself is cached by id
+		assertSame(anya, employeeCache.getEmployee(12, id -> fail("should be cached")));
+	}
+
+	@Test
+	void test_query_doesNotCacheResultLoadedWhileEmployeeWasCreated() {
+		Employee anya = new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street Manchester England");
+
+		List<Employee> stale = employeeCache.query(Query.FIRST_NAME, "any", () -> {
+			// Saved after the query read the database, before its result is cached
+			employeeCache.employeeCreated(anya);
+			return load();
+		});
+		List<Employee> fresh = employeeCache.query(Query.FIRST_NAME, "any", () -> {
+			loads.incrementAndGet();
+			return List.of(anya);
+		});
+
+		assertEquals(List.of(), stale);
+		assertEquals(List.of(anya), fresh);
+		assertEquals(2, loads.get());
+		assertEquals(List.of(anya), employeeCache.query(Query.FIRST_NAME, "any", this::load));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void test_getEmployee_doesNotCacheMissingEmployees() {
+		employeeCache.getEmployee(5, id -> {
+			loads.incrementAndGet();
+			return null;
+		});
+		employeeCache.getEmployee(5, id -> {
+			loads.incrementAndGet();
+			return null;
+		});
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void test_disabledCache_alwaysLoads() {
+		EmployeeCache disabled = new EmployeeCache(false, 100, 100, Duration.ofMinutes(10));
+
+		disabled.query(Query.ADDRESS, "london", this::load);
+		disabled.query(Query.ADDRESS, "london", this::load);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void test_query_evictsBeyondMaximumSize() {
+		EmployeeCache small = new EmployeeCache(true, 10, 10, Duration.ofMinutes(10));
+		for (int i = 0; i < 200; i++) {
+			small.query(Query.ADDRESS, "street " + i, this::load);
+		}
+
+		CacheReport queries = small.report().get(1);
+		assertTrue(queries.size() <= 10);
+		assertEquals(200, queries.size() + queries.evictions());
+	}
+
+	private List<Employee> load() {
+		loads.incrementAndGet();
+		return List.of();
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.fdmgroup.employee.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.fdmgroup.employee.model.Employee;
+
+class EmployeeRowCacheTest {
+	EmployeeRowCache rowCache = new EmployeeRowCache(true, 100);
+
+	@Test
+	void test_row_isRenderedOnce_untilTheEmployeeChanges() {
+		Employee anya = employee(12, "Anya", "Wehbe", "23 B Street Manchester England");
+
+		String first = rowCache.row(anya);
+		assertSame(first, rowCache.row(anya));
+		// A copy loaded again with the same fields shows the same row
+		assertSame(first, rowCache.row(employee(12, "Anya", "Wehbe", "23 B Street Manchester England")));
+
+		anya.setAddress("1 C Street London England");
+		String changed = rowCache.row(anya);
+		assertNotEquals(first, changed);
+		assertTrue(changed.contains("<td>1 C Street London England</td>"));
+		assertSame(changed, rowCache.row(anya));
+	}
+
+	@Test
+	void test_row_escapesCells_andLeavesNullCellsEmpty() {
+		Employee employee = employee(3, "<b>Anya</b>", "O'Brien & Sons", null);
+		employee.setHireDate(null);
+
+		assertEquals("\t\t\t<tr><td>3</td><td>&lt;b&gt;Anya&lt;/b&gt;</td><td>O&#39;Brien &amp; Sons</td><td></td><td></td></tr>\n",
+				rowCache.row(employee));
+	}
+
+	@Test
+	void test_disabledCache_rendersEveryRow() {
+		EmployeeRowCache disabled = new EmployeeRowCache(false, 100);
+		Employee anya = employee(12, "Anya", "Wehbe", "23 B Street Manchester England");
+
+		assertEquals(disabled.row(anya), rowCache.row(anya));
+		assertNotSame(disabled.row(anya), disabled.row(anya));
+	}
+
+	@Test
+	void test_cachedRows_showTheSameTable_asTheTemplateLoop() {
+		List<Employee> employees = List.of(employee(1, "Daliah", "Wehbe", "22 A Street London England"),
+				employee(2, "Anya & Co", "<Wehbe>", "23 B Street \"Manchester\" England"),
+				employee(3, "Robert", "Daniel", null));
+		SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+		ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+		templateResolver.setPrefix("templates/");
+		templateResolver.setSuffix(".html");
+		templateEngine.setTemplateResolver(templateResolver);
+
+		String loop = templateEngine.process("showEmployees",
+				new Context(Locale.ROOT, Map.of("employees", employees)));
+		String cached = templateEngine.process("showEmployees",
+				new Context(Locale.ROOT, Map.of("employees", employees, "rows", rowCache.rows(employees))));
+
+		assertEquals(withoutWhitespace(loop), withoutWhitespace(cached));
+	}
+
+	private static Employee employee(int id, String firstName, String lastName, String address) {
+		Employee employee = new Employee(firstName, lastName, LocalDate.of(2019, 6, 17), address);
+		employee.setId(id);
+		return employee;
+	}
+
+	private static String withoutWhitespace(String html) {
+		return html.replaceAll(">\\s+", ">").replaceAll("\\s+<", "<");
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.fdmgroup.employee.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+@SpringBootTest(properties = { "employee.virtual-threads.enabled=true",
+		"spring.datasource.hikari.maximum-pool-size=2", "spring.datasource.hikari.connection-timeout=250" })
+@ActiveProfiles("test")
+class ConnectionPoolLimiterTest {
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	ConnectionPoolLimiter connectionPoolLimiter;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		employeeRepository.save(new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street Manchester"));
+	}
+
+	@Test
+	void test_repositoryCalls_neverExceedPoolSize() throws Exception {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		CountDownLatch done = new CountDownLatch(100);
+		for (int i = 0; i < 100; i++) {
+			executor.execute(() -> {
+				try {
+					employeeRepository.streamAll(employee -> {
+						maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+						sleep(2);
+						inFlight.decrementAndGet();
+					});
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		executor.shutdown();
+
+		assertTrue(maxInFlight.get() <= 2);
+		assertEquals(2, connectionPoolLimiter.availablePermits());
+	}
+
+	@Test
+	void test_repositoryCall_failsWhenNoPermitFreesUp() throws Exception {
+		CountDownLatch holding = new CountDownLatch(2);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService holders = Executors.newFixedThreadPool(2);
+		for (int i = 0; i < 2; i++) {
+			holders.execute(() -> employeeRepository.streamAll(employee -> {
+				holding.countDown();
+				await(release);
+			}));
+		}
+		assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+		assertThrows(CannotGetJdbcConnectionException.class, () -> employeeRepository.count());
+
+		release.countDown();
+		holders.shutdown();
+		assertTrue(holders.awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(2, connectionPoolLimiter.availablePermits());
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
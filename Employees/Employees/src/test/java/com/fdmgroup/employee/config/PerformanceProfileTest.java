@@ -0,0 +1,82 @@
+package com.fdmgroup.employee.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({ "test", "performance" })
+class PerformanceProfileTest {
+	@Autowired
+	DataSource dataSource;
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+	}
+
+	@Test
+	void test_performanceProfile_configuresPoolDatabaseAndHibernate() {
+		HikariDataSource hikari = assertInstanceOf(HikariDataSource.class, dataSource);
+		assertEquals(16, hikari.getMaximumPoolSize());
+		assertEquals(16, hikari.getMinimumIdle());
+		assertEquals(5000, hikari.getConnectionTimeout());
+		assertTrue(hikari.getJdbcUrl().contains("QUERY_CACHE_SIZE=64"));
+		assertEquals("64", new JdbcTemplate(dataSource).queryForObject(
+				"SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'QUERY_CACHE_SIZE'",
+				String.class));
+
+		assertEquals("50", entityManagerFactory.getProperties().get("hibernate.jdbc.batch_size"));
+		assertEquals("true", entityManagerFactory.getProperties().get("hibernate.order_updates"));
+		assertEquals("true", entityManagerFactory.getProperties().get("hibernate.query.in_clause_parameter_padding"));
+	}
+
+	@Test
+	void test_performanceProfile_servesListSearchAndCreate() throws Exception {
+		List<Employee> employees = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			employees.add(new Employee("Anya" + i, "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street Manchester England"));
+		}
+		employeeRepository.saveAll(employees);
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/submit-new-employee").param("firstName", "Daliah")
+				.param("lastName", "Wehbe").param("hireDate", "2023-01-01").param("address", "22 A Street London England"))
+				.andExpect(MockMvcResultMatchers.redirectedUrl("/show-employees"));
+		mockMvc.perform(MockMvcRequestBuilders.get("/show-employees").param("size", "50"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.model().attribute("nextCursor", employees.get(49).getId()));
+		mockMvc.perform(MockMvcRequestBuilders.post("/search-employees").param("searchInput", "Daliah Wehbe"))
+				.andExpect(MockMvcResultMatchers.view().name("showEmployees"));
+
+		assertEquals(121, employeeRepository.count());
+	}
+
+}
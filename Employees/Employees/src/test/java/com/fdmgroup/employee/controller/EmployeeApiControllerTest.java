@@ -0,0 +1,258 @@
+package com.fdmgroup.employee.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.request.RepositoryCallCounter;
+import com.fdmgroup.employee.search.EmployeeTypeahead;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeApiControllerTest {
+	@Autowired
+	MockMvc mockMvc;
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	EmployeeTypeahead typeahead;
+
+	List<Employee> saved;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		saved = employeeRepository.saveAll(List.of(
+				new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England"),
+				new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street Manchester England"),
+				new Employee("Robert", "Daniel", LocalDate.of(2019, 6, 17), "26 E Street Cluj-Napoca Romania")));
+		typeahead.rebuild();
+	}
+
+	@Test
+	void test_GETemployees_streamsEveryEmployeeAsJson() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.employees.length()").value(3))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.employees[0].firstName").value("Daliah"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.employees[0].hireDate").value("2019-06-17"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.employees[0].firstNameKey").doesNotExist())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").isEmpty());
+	}
+
+	@Test
+	void test_GETemployeesWithPageSize_returnsPageAndCursor() throws Exception {
+		int firstId = saved.get(0).getId();
+		int secondId = saved.get(1).getId();
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("size", "2"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.employees[*].id").value(Matchers.contains(firstId, secondId)))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value(secondId));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("size", "2").param("after",
+				String.valueOf(secondId))).andExpect(MockMvcResultMatchers.jsonPath("$.employees.length()").value(1))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").isEmpty());
+	}
+
+	@Test
+	void test_GETemployeesByCityAndCountry_findEmployeesByAddressParts() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/by-country").param("country", "england"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[*].firstName").value(Matchers.contains("Daliah", "Anya")));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/by-city").param("city", "Man").param("prefix",
+				"true")).andExpect(MockMvcResultMatchers.jsonPath("$[*].firstName").value(Matchers.contains("Anya")));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/by-city").param("city", "Man"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(0));
+	}
+
+	@Test
+	void test_GEThiredAndHires_queryHireDates() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/hired").param("from", "2019-06-01").param("to",
+				"2019-06-30")).andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/anniversaries").param("from", "2024-06-17"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/hires/monthly").param("from", "2019-05").param("to",
+				"2019-06")).andExpect(MockMvcResultMatchers.jsonPath("$[0].period").value("2019-05"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].hires").value(0))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[1].period").value("2019-06"));
+	}
+
+	@Test
+	void test_GEThires_overAnExtremeRange_isRejected() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/hires/yearly").param("from", "-999999999").param("to",
+				"999999999")).andExpect(MockMvcResultMatchers.status().isBadRequest());
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/hires/monthly").param("from", "1000-01").param("to",
+				"9999-12")).andExpect(MockMvcResultMatchers.status().isBadRequest());
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/hires/yearly").param("from", "1900").param("to", "2099"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(200));
+	}
+
+	@Test
+	void test_GETsuggestions_completesPrefixes_mostFrequentFirst() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/suggestions").param("field", "lastName")
+				.param("prefix", "WEH"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$[*].value").value(Matchers.contains("Wehbe")))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].count").value(2));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/suggestions").param("field", "fullName")
+				.param("prefix", "anya w"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[*].value").value(Matchers.contains("Anya Wehbe")));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/suggestions").param("field", "city")
+				.param("prefix", "x"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(0));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/suggestions").param("field", "address")
+				.param("prefix", "l"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	@Test
+	void test_GETsuggestions_countsCreatedEmployees() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/employees").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"firstName\":\"Daniel\",\"lastName\":\"Kovacs\",\"hireDate\":\"2023-02-01\","
+						+ "\"address\":\"1 F Street Manchester England\"}"))
+				.andExpect(MockMvcResultMatchers.status().isCreated());
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/suggestions").param("field", "firstName")
+				.param("prefix", "Da"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[*].value").value(Matchers.contains("Daliah", "Daniel")));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/suggestions").param("field", "city")
+				.param("prefix", "").param("limit", "2"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[*].value").value(Matchers.contains("Manchester", "Cluj-Napoca")))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].count").value(2));
+	}
+
+	@Test
+	void test_GETquery_combinesCriteriaInOneQuery_sortedAndCounted() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/query").param("lastName", "WEHBE")
+				.param("country", "england").param("hiredFrom", "2019-01-01").param("hiredTo", "2019-12-31")
+				.param("sort", "firstName"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.employees[*].firstName")
+						.value(Matchers.contains("Anya", "Daliah")))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.total").value(2))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.totalExact").value(true));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/query").param("name", "dan")
+				.param("city", "Cluj-Napoca"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.employees[*].firstName").value(Matchers.contains("Robert")));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/query").param("hiredFrom", "2020-01-01"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.employees.length()").value(0))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.total").value(0));
+	}
+
+	@Test
+	void test_GETquery_limitsTheEmployees_andRejectsUnknownSorts() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/query").param("sort", "firstName,desc")
+				.param("limit", "1"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.employees[*].firstName").value(Matchers.contains("Robert")))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.total").value(3))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.totalExact").value(true));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/query").param("sort", "salary"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/query").param("sort", "id,sideways"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	@Test
+	void test_GETlocations_returnsHeadcountsPerCountryAndCity() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/locations/countries"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].country").value("England"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].headcount").value(2));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/locations/cities").param("country", "ROMANIA"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].city").value("Cluj-Napoca"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].headcount").value(1));
+	}
+
+	@Test
+	void test_GETemployeeById_returnsEmployeeOrNotFound() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", saved.get(1).getId()))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.lastName").value("Wehbe"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.address").value("23 B Street Manchester England"));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", -1))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+
+	@Test
+	void test_GETsearch_returnsRankedMatches() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/search").param("q", "anya wehbe"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName").value("Anya"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2));
+	}
+
+	@Test
+	void test_POSTemployee_createsEmployee_orRejectsMissingFields() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/employees").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"firstName\":\"Zoltan\",\"lastName\":\"Kovacs\",\"hireDate\":\"2023-02-01\","
+						+ "\"address\":\"1 F Street Budapest Hungary\"}"))
+				.andExpect(MockMvcResultMatchers.status().isCreated())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION,
+						Matchers.startsWith("/api/employees/")))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.id").value(Matchers.greaterThan(0)));
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/employees").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"firstName\":\"Zoltan\"}")).andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+		assertEquals(4, employeeRepository.count());
+	}
+
+	@Test
+	void test_conditionalGET_ofUnchangedData_isNotModified_withoutQueries() throws Exception {
+		String etag = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"))
+				.andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG)).andReturn().getResponse()
+				.getHeader(HttpHeaders.ETAG);
+
+		MvcResult notModified = mockMvc
+				.perform(MockMvcRequestBuilders.get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(MockMvcResultMatchers.status().isNotModified())
+				.andExpect(MockMvcResultMatchers.content().string("")).andReturn();
+		assertEquals(0, RepositoryCallCounter.callsOf(notModified.getRequest()));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/search").param("q", "anya")
+				.header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(MockMvcResultMatchers.status().isNotModified());
+	}
+
+	@Test
+	void test_conditionalGET_ofAnniversaries_dependsOnTheWindow() throws Exception {
+		String etag = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/anniversaries").param("from",
+				"2024-06-17")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/anniversaries").param("from", "2024-06-17")
+				.header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(MockMvcResultMatchers.status().isNotModified());
+		// The next day, as a defaulted window after midnight
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/anniversaries").param("from", "2024-06-18")
+				.header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.not(etag)));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/anniversaries")
+				.header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(MockMvcResultMatchers.status().isOk());
+	}
+
+	@Test
+	void test_conditionalGET_afterCreate_returnsNewData() throws Exception {
+		String etag = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")).andReturn().getResponse()
+				.getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/employees").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"firstName\":\"Zoltan\",\"lastName\":\"Kovacs\",\"hireDate\":\"2023-02-01\","
+						+ "\"address\":\"1 F Street Budapest Hungary\"}"));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.not(etag)))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.employees.length()").value(4));
+	}
+
+}
@@ -15,14 +15,20 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.service.EmployeePage;
 import com.fdmgroup.employee.service.EmployeeService;
 
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 
 
 
 
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -51,6 +57,39 @@ class EmployeeControllerTest {
 		verify(mockEmployeeService).createEmployee(mockEmployee);
 	}
 
+	@Test
+	void test_GETrequestToShowEmployeesWithPageSize_callsListPage() throws Exception {
+		when(mockEmployeeService.listPage(0, 2)).thenReturn(new EmployeePage(List.of(mockEmployee), null));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/show-employees").param("size", "2"))
+				.andExpect(MockMvcResultMatchers.model().attributeExists("employees"));
+
+		verify(mockEmployeeService).listPage(0, 2);
+	}
+
+	@Test
+	void test_GETrequestToShowEmployeesWithCursor_exposesNextCursor() throws Exception {
+		when(mockEmployeeService.listPage(5, 2)).thenReturn(new EmployeePage(List.of(mockEmployee), 7));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/show-employees").param("size", "2").param("after", "5"))
+				.andExpect(MockMvcResultMatchers.model().attribute("nextCursor", 7))
+				.andExpect(MockMvcResultMatchers.view().name("showEmployees"));
+	}
+
+	@Test
+	void test_GETrequestToStreamShowEmployees_writesEveryStreamedRow() throws Exception {
+		Employee employee = new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street <Manchester>");
+		doAnswer(invocation -> {
+			Consumer<Employee> consumer = invocation.getArgument(0);
+			consumer.accept(employee);
+			return null;
+		}).when(mockEmployeeService).streamAll(any());
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/show-employees/stream"))
+				.andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("<td>Wehbe</td>")))
+				.andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("&lt;Manchester&gt;")));
+	}
+
 	// Tests if correct page is displayed
 	@Test
 	void test_GETrequestToShowEmployees_displaysShowEmployeesPage() throws Exception {
@@ -88,6 +127,7 @@ class EmployeeControllerTest {
 	@Test
 	void test_POSTrequestHandleSearchByAddress_callsListByAddress() throws Exception {
 		String address = "123 Main St";
+		when(mockEmployeeService.listByAddress(address)).thenReturn(List.of(mockEmployee));
 
 		mockMvc.perform(MockMvcRequestBuilders.post("/search-by-address").param("address", address))
 				.andExpect(MockMvcResultMatchers.model().attributeExists("employees"));
@@ -97,6 +137,8 @@ class EmployeeControllerTest {
 
 	@Test
 	void test_POSTrequestHandleSearchByAddress_displaysShowEmployeesPage() throws Exception {
+		when(mockEmployeeService.listByAddress("Street")).thenReturn(List.of(mockEmployee));
+
 		mockMvc.perform(MockMvcRequestBuilders.post("/search-by-address").param("address", "Street"))
 				.andExpect(MockMvcResultMatchers.view().name("showEmployees"));
 	}
@@ -114,6 +156,7 @@ class EmployeeControllerTest {
 	@Test
 	void test_POSTrequestHandleSearchByFirstName_callsFindByFirstName() throws Exception {
 		String firstName = "John";
+		when(mockEmployeeService.findByFirstName(firstName)).thenReturn(List.of(mockEmployee));
 
 		mockMvc.perform(MockMvcRequestBuilders.post("/search-by-name").param("firstName", firstName))
 				.andExpect(MockMvcResultMatchers.model().attributeExists("employees"));
@@ -123,6 +166,8 @@ class EmployeeControllerTest {
 
 	@Test
 	void test_POSTrequestHandleSearchByFirstName_displaysShowEmployeesPage() throws Exception {
+		when(mockEmployeeService.findByFirstName(anyString())).thenReturn(List.of(mockEmployee));
+
 		mockMvc.perform(MockMvcRequestBuilders.post("/search-by-name").param("firstName", anyString()))
 				.andExpect(MockMvcResultMatchers.view().name("showEmployees"));
 	}
@@ -139,6 +184,7 @@ class EmployeeControllerTest {
 	@Test
 	void test_POSTrequestHandleSearchByLastName_callsFindByLastName() throws Exception {
 		String lastName = "Doe";
+		when(mockEmployeeService.findByLastName(lastName)).thenReturn(List.of(mockEmployee));
 
 		mockMvc.perform(MockMvcRequestBuilders.post("/search-by-last-name").param("lastName", lastName))
 				.andExpect(MockMvcResultMatchers.model().attributeExists("employees"));
@@ -166,6 +212,7 @@ class EmployeeControllerTest {
 	@Test
 	void test_POSTrequestHandleSearchByFullName_callsFindByFullName() throws Exception {
 		String fullName = "John Doe";
+		when(mockEmployeeService.findByFullName("John", "Doe")).thenReturn(List.of(mockEmployee));
 
 		mockMvc.perform(MockMvcRequestBuilders.post("/search-by-full-name").param("fullName", fullName))
 				.andExpect(MockMvcResultMatchers.model().attributeExists("employees"));
@@ -173,6 +220,22 @@ class EmployeeControllerTest {
 		verify(mockEmployeeService).findByFullName("John", "Doe");
 	}
 
+	@Test
+	void test_POSTrequestHandleSearchByFullName_withSingleName_displaysErrorPage() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/search-by-full-name").param("fullName", "John"))
+				.andExpect(MockMvcResultMatchers.view().name("errorPage"));
+	}
+
+	@Test
+	void test_POSTrequestHandleSearchEmployees_withFuzzy_callsFuzzySearch() throws Exception {
+		when(mockEmployeeService.searchEmployees("Alexandrvna", true)).thenReturn(List.of(mockEmployee));
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/search-employees").param("searchInput", "Alexandrvna")
+				.param("fuzzy", "true")).andExpect(MockMvcResultMatchers.view().name("showEmployees"));
+
+		verify(mockEmployeeService).searchEmployees("Alexandrvna", true);
+	}
+
 //	@Test
 //	void test_POSTrequestHandleSearchByFullName_displaysShowEmployeesPage() throws Exception {
 //		mockMvc.perform(MockMvcRequestBuilders.post("/search-by-full-name").param("fullName", anyString()))
@@ -202,6 +265,7 @@ class EmployeeControllerTest {
 	@Test
 	void test_POSTrequestHandleSearchEmployees_displaysShowEmployeesPage() throws Exception {
 		String searchInput = "alex";
+		when(mockEmployeeService.searchEmployees(searchInput)).thenReturn(List.of(mockEmployee));
 		mockMvc.perform(MockMvcRequestBuilders.post("/search-employees").param("searchInput", searchInput))
 				.andExpect(MockMvcResultMatchers.view().name("showEmployees"));
 	}
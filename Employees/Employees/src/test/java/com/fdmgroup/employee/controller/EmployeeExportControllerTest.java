@@ -0,0 +1,73 @@
+package com.fdmgroup.employee.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeExportControllerTest {
+	@Autowired
+	MockMvc mockMvc;
+	@Autowired
+	EmployeeRepository employeeRepository;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		employeeRepository.saveAll(List.of(
+				new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England"),
+				new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street Manchester England")));
+	}
+
+	@Test
+	void test_GETexportEmployees_downloadsCsvByDefault() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/export-employees"))
+				.andExpect(MockMvcResultMatchers.content().contentType("text/csv;charset=UTF-8"))
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_DISPOSITION,
+						Matchers.containsString("employees.csv")))
+				.andExpect(MockMvcResultMatchers.content().string(Matchers.containsString(",Anya,Wehbe,2019-06-17,")));
+	}
+
+	@Test
+	void test_GETexportEmployeesGzipped_sendsGzipFile() throws Exception {
+		byte[] body = mockMvc.perform(MockMvcRequestBuilders.get("/export-employees").param("format", "ndjson")
+				.param("gzip", "true"))
+				.andExpect(MockMvcResultMatchers.content().contentType("application/gzip"))
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_DISPOSITION,
+						Matchers.containsString("employees.ndjson.gz")))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(),
+				StandardCharsets.UTF_8);
+		assertEquals(2, ndjson.lines().count());
+		assertTrue(ndjson.contains("\"firstName\":\"Daliah\""));
+	}
+
+	@Test
+	void test_GETexportEmployeesWithUnknownFormat_isBadRequest() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/export-employees").param("format", "xml"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+}
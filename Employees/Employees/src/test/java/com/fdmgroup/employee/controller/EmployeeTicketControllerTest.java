@@ -0,0 +1,76 @@
+package com.fdmgroup.employee.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.service.EmployeeTicket;
+import com.fdmgroup.employee.service.EmployeeTicket.Status;
+import com.fdmgroup.employee.service.EmployeeWriteBehindService;
+
+@SpringBootTest(properties = "employee.write-behind.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeTicketControllerTest {
+	@Autowired
+	MockMvc mockMvc;
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	EmployeeWriteBehindService writeBehindService;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+	}
+
+	@Test
+	void test_POSTsubmitNewEmployee_withWriteBehind_queuesEmployeeAndShowsTicket() throws Exception {
+		// Act
+		String message = (String) mockMvc.perform(MockMvcRequestBuilders.post("/submit-new-employee")
+				.param("id", "0").param("firstName", "Daliah").param("lastName", "Wehbe")
+				.param("hireDate", "2019-06-17").param("address", "22 A Street London England"))
+				.andExpect(MockMvcResultMatchers.redirectedUrl("/show-employees"))
+				.andExpect(MockMvcResultMatchers.flash().attribute("message",
+						Matchers.startsWith("Employee queued, follow it at /employee-tickets/")))
+				.andReturn().getFlashMap().get("message");
+		String ticketId = message.substring(message.lastIndexOf('/') + 1);
+
+		// Assert
+		for (int i = 0; i < 500 && writeBehindService.getTicket(ticketId).status() == Status.QUEUED; i++) {
+			Thread.sleep(10);
+		}
+		EmployeeTicket ticket = writeBehindService.getTicket(ticketId);
+		assertEquals(Status.SAVED, ticket.status());
+		mockMvc.perform(MockMvcRequestBuilders.get("/employee-tickets/" + ticketId))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.status").value("SAVED"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.employeeId").value(ticket.employeeId()));
+		assertEquals(1, employeeRepository.count());
+	}
+
+	@Test
+	void test_POSTsubmitNewEmployee_withWriteBehindAndMissingField_redirectsToForm() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/submit-new-employee").param("id", "0")
+				.param("firstName", "Daliah").param("hireDate", "2019-06-17"))
+				.andExpect(MockMvcResultMatchers.redirectedUrl("/create-employee"))
+				.andExpect(MockMvcResultMatchers.flash().attributeExists("errorMessage"));
+	}
+
+	@Test
+	void test_GETemployeeTicket_unknown_returnsNotFound() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/employee-tickets/unknown"))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.fdmgroup.employee.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class EmployeeMetricsTest {
+	@Autowired
+	MockMvc mockMvc;
+	@Autowired
+	MeterRegistry registry;
+	@Autowired
+	EmployeeRepository employeeRepository;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		employeeRepository.saveAll(List.of(
+				new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England"),
+				new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street Manchester England")));
+	}
+
+	@Test
+	void test_search_recordsRequestServiceAndRepositoryMeters() throws Exception {
+		long requests = timerCount("http.server.requests", "uri", "/search-by-last-name");
+		long serviceCalls = timerCount(EmployeeMetrics.SERVICE_TIMER, "method", "findByLastName");
+		long repositoryCalls = timerCount(EmployeeMetrics.REPOSITORY_TIMER, "method", "findByLastNameContainsIgnoreCase");
+		double rows = registry.find(EmployeeMetrics.REPOSITORY_RESULTS).tag("method", "findByLastNameContainsIgnoreCase")
+				.summaries().stream().mapToDouble(summary -> summary.totalAmount()).sum();
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/search-by-last-name").param("lastName", "wehbe"))
+				.andExpect(MockMvcResultMatchers.view().name("showEmployees"));
+
+		assertEquals(requests + 1, timerCount("http.server.requests", "uri", "/search-by-last-name"));
+		assertEquals(serviceCalls + 1, timerCount(EmployeeMetrics.SERVICE_TIMER, "method", "findByLastName"));
+		assertEquals(repositoryCalls + 1,
+				timerCount(EmployeeMetrics.REPOSITORY_TIMER, "method", "findByLastNameContainsIgnoreCase"));
+		assertEquals(rows + 2, registry.get(EmployeeMetrics.REPOSITORY_RESULTS)
+				.tag("method", "findByLastNameContainsIgnoreCase").summary().totalAmount());
+	}
+
+	@Test
+	void test_cacheStatistics_arePublished() {
+		assertNotNull(registry.find("cache.gets").tag("cache", "employees").functionCounter());
+		assertNotNull(registry.find("cache.gets").tag("cache", "queries").functionCounter());
+	}
+
+	@Test
+	void test_prometheusEndpoint_exposesHistograms() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/search-employees").param("searchInput", "anya"));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content()
+						.string(Matchers.containsString("employee_service_seconds_bucket{class=\"EmployeeService\"")))
+				.andExpect(MockMvcResultMatchers.content()
+						.string(Matchers.containsString("http_server_requests_seconds_bucket")));
+	}
+
+	private long timerCount(String name, String tag, String value) {
+		return registry.find(name).tag(tag, value).timers().stream().mapToLong(timer -> timer.count()).sum();
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.fdmgroup.employee.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class AddressPartsTest {
+
+	@Test
+	void test_parse_splitsStreetCityAndCountry_atTheStreetTypeWord() {
+		assertEquals(new AddressParts("22 A Street", "London", "England"),
+				AddressParts.parse("22 A Street London England"));
+		assertEquals(new AddressParts("26 E Street", "Cluj-Napoca", "Romania"),
+				AddressParts.parse("26 E Street Cluj-Napoca Romania"));
+		assertEquals(new AddressParts("5 Oak Road", "Palo Alto", "United States"),
+				AddressParts.parse("5 Oak Road Palo Alto United States"));
+		assertEquals(new AddressParts("3 Rue Elysee", "Paris", "France"), AddressParts.parse("3 Rue Elysee Paris France"));
+	}
+
+	@Test
+	void test_parse_usesCommaSeparatedSections() {
+		assertEquals(new AddressParts("Flat 2, 10 High St", "New York", "USA"),
+				AddressParts.parse("Flat 2, 10 High St, New York ,USA"));
+	}
+
+	@Test
+	void test_parse_withoutStreetTypeWord_takesTheWordBeforeTheCountryAsCity() {
+		assertEquals(new AddressParts("1", "Straße", "Zürich"), AddressParts.parse("1 Straße Zürich"));
+		assertEquals(new AddressParts("12 Kings", "Brasov", "Romania"), AddressParts.parse("12 Kings Brasov Romania"));
+	}
+
+	@Test
+	void test_parse_leavesUnknownPartsNull() {
+		assertEquals(AddressParts.EMPTY, AddressParts.parse(null));
+		assertEquals(AddressParts.EMPTY, AddressParts.parse("  "));
+		assertEquals(new AddressParts("123 Main St", null, null), AddressParts.parse("123 Main St"));
+		assertEquals(new AddressParts(null, null, "London"), AddressParts.parse("London"));
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.fdmgroup.employee.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class EmployeeTest {
+
+	@Test
+	void test_equals_comparesSavedEmployeesById() {
+		Employee saved = employee(7, "Daliah");
+		Employee renamed = employee(7, "Anya");
+
+		assertEquals(saved, renamed);
+		assertEquals(saved.hashCode(), renamed.hashCode());
+		assertNotEquals(saved, employee(8, "Daliah"));
+	}
+
+	@Test
+	void test_equals_unsavedEmployeeIsOnlyEqualToItself() {
+		Employee unsaved = employee(0, "Daliah");
+
+		assertEquals(unsaved, unsaved);
+		assertNotEquals(unsaved, employee(0, "Daliah"));
+	}
+
+	@Test
+	void test_hashCode_staysTheSame_whenTheIdIsAssigned() {
+		Employee employee = employee(0, "Daliah");
+		Set<Employee> employees = new HashSet<>(Set.of(employee));
+
+		employee.setId(7);
+
+		assertTrue(employees.contains(employee));
+		assertTrue(employees.contains(employee(7, "Anya")));
+	}
+
+	@Test
+	void test_fieldsComparator_comparesEveryField() {
+		assertTrue(EmployeeFieldsComparator.sameFields(employee(0, "Daliah"), employee(0, "Daliah")));
+		assertFalse(EmployeeFieldsComparator.sameFields(employee(7, "Daliah"), employee(7, "Anya")));
+		assertFalse(EmployeeFieldsComparator.sameFields(employee(7, "Daliah"), new Employee()));
+		assertTrue(EmployeeFieldsComparator.INSTANCE.compare(new Employee(), employee(0, "Daliah")) < 0);
+	}
+
+	private static Employee employee(int id, String firstName) {
+		Employee employee = new Employee(firstName, "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England");
+		employee.setId(id);
+		return employee;
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.fdmgroup.employee.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fdmgroup.employee.model.Employee;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeRepositoryTest {
+	@Autowired
+	EmployeeRepository employeeRepository;
+
+	List<Employee> saved;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		saved = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			saved.add(employeeRepository
+					.save(new Employee("First" + i, "Last" + i, LocalDate.of(2020, 1, 1 + i), i + " Street")));
+		}
+	}
+
+	@Test
+	void test_findByIdGreaterThan_walksAllPagesInIdOrder() {
+		List<Integer> seen = new ArrayList<>();
+		int afterId = 0;
+		List<Employee> page;
+		do {
+			page = employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, 3));
+			page.forEach(employee -> seen.add(employee.getId()));
+			if (!page.isEmpty()) {
+				afterId = page.get(page.size() - 1).getId();
+			}
+		} while (page.size() == 3);
+
+		assertEquals(saved.stream().map(Employee::getId).sorted().toList(), seen);
+	}
+
+	@Test
+	void test_streamAll_visitsEveryEmployeeInIdOrder_outsideAnOuterTransaction() {
+		List<Integer> seen = new ArrayList<>();
+
+		employeeRepository.streamAll(employee -> seen.add(employee.getId()));
+
+		assertEquals(saved.stream().map(Employee::getId).sorted().toList(), seen);
+	}
+
+}
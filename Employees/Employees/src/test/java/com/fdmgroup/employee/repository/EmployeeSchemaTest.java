@@ -0,0 +1,218 @@
+package com.fdmgroup.employee.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fdmgroup.employee.migration.V3__Backfill_employee_search_keys;
+import com.fdmgroup.employee.migration.V6__Backfill_employee_address_parts;
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.LocationHeadcount;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.fdmgroup.employee.repository.EmployeeSchemaTest$SqlRecorder")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeSchemaTest {
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	DataSource dataSource;
+
+	/**
+	 * Records the SQL Hibernate sends, so that the plans of the real repository
+	 * queries can be checked.
+	 */
+	public static class SqlRecorder implements StatementInspector {
+		static final List<String> statements = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			statements.add(sql);
+			return sql;
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		SqlRecorder.statements.clear();
+	}
+
+	@Test
+	void test_prefixSearches_areIndexRangeScans() throws Exception {
+		employeeRepository.findByLastNameStartingWithIgnoreCase("Weh");
+		assertUsesIndex("idx_employee_last_name_key", lastSelect(), "weh%");
+
+		employeeRepository.findByFirstNameStartingWithIgnoreCase("Ány");
+		assertUsesIndex("idx_employee_full_name_key", lastSelect(), "any%");
+	}
+
+	@Test
+	void test_exactFullNameLookup_isAnIndexSeek() throws Exception {
+		employeeRepository.findByFirstNameAndLastNameIgnoreCase("Anya", "WEHBE");
+
+		String plan = explain(lastSelect(), "anya", "wehbe");
+		assertTrue(plan.contains("IDX_EMPLOYEE_FULL_NAME_KEY: FIRST_NAME_KEY = ?1"), plan);
+		assertTrue(plan.contains("LAST_NAME_KEY = ?2"), plan);
+	}
+
+	@Test
+	void test_containsSearches_applyNoFunctionToTheColumns() {
+		employeeRepository.findByFirstNameContainsIgnoreCase("an");
+		employeeRepository.findByLastNameContainsIgnoreCase("an");
+		employeeRepository.findByAddressContainsIgnoreCase("an");
+		employeeRepository.findByFullNameContainsIgnoreCase("an");
+		employeeRepository.searchByNames("%an%", "%an%", "%an%");
+
+		List<String> selects = SqlRecorder.statements.stream().filter(sql -> sql.startsWith("select")).toList();
+		assertEquals(5, selects.size());
+		for (String sql : selects) {
+			assertFalse(sql.contains("lower("), sql);
+		}
+	}
+
+	@Test
+	void test_finders_ignoreCaseAndAccents() {
+		employeeRepository.saveAll(List.of(new Employee("José", "Müller", LocalDate.of(2020, 1, 1), "1 Straße Zürich"),
+				new Employee("Jose", "Muller", LocalDate.of(2020, 1, 1), "2 Strasse Zurich")));
+
+		assertEquals(2, employeeRepository.findByFirstNameContainsIgnoreCase("JOSÉ").size());
+		assertEquals(2, employeeRepository.findByLastNameContainsIgnoreCase("mull").size());
+		assertEquals(2, employeeRepository.findByAddressContainsIgnoreCase("zurich").size());
+		assertEquals(2, employeeRepository.findByFirstNameAndLastNameIgnoreCase("jose", "MÜLLER").size());
+		assertEquals(0, employeeRepository.findByLastNameContainsIgnoreCase("m_ller").size());
+	}
+
+	@Test
+	void test_backfillMigration_foldsRowsWithoutKeys() throws Exception {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.executeUpdate("INSERT INTO employee (id, first_name, last_name, hire_date, address)"
+					+ " VALUES (-1, 'Ána', 'DE LA CRUZ', DATE '2020-01-01', '3 Rue Élysée')");
+
+			assertEquals(1, V3__Backfill_employee_search_keys.backfill(connection));
+
+			try (ResultSet row = statement.executeQuery(
+					"SELECT first_name_key, last_name_key, address_key FROM employee WHERE id = -1")) {
+				assertTrue(row.next());
+				assertEquals("ana", row.getString(1));
+				assertEquals("de la cruz", row.getString(2));
+				assertEquals("3 rue elysee", row.getString(3));
+			}
+		}
+		assertEquals(1, employeeRepository.findByFirstNameAndLastNameIgnoreCase("ana", "de la cruz").size());
+	}
+
+	@Test
+	void test_cityAndCountryLookups_areIndexSeeks() throws Exception {
+		employeeRepository.findByCity("LONDON");
+		assertUsesIndex("idx_employee_city_key", lastSelect(), "london");
+
+		employeeRepository.findByCountryStartingWith("Eng");
+		assertUsesIndex("idx_employee_country_key", lastSelect(), "eng%");
+	}
+
+	@Test
+	void test_hireDateRangesAndAnniversaries_areIndexRangeScans() throws Exception {
+		employeeRepository.findByHireDateBetweenOrderByHireDateAscIdAsc(LocalDate.of(2019, 1, 1),
+				LocalDate.of(2019, 12, 31));
+		String plan = explain(lastSelect().replace("?", "DATE '2019-01-01'"));
+		assertTrue(plan.contains("IDX_EMPLOYEE_HIRE_DATE"), plan);
+		assertFalse(plan.contains("tableScan"), plan);
+
+		employeeRepository.findByHireMonthDayBetweenOrderByHireMonthDayAscIdAsc(615, 621);
+		plan = explain(lastSelect().replace("?", "615"));
+		assertTrue(plan.contains("IDX_EMPLOYEE_HIRE_MONTH_DAY"), plan);
+		assertFalse(plan.contains("tableScan"), plan);
+	}
+
+	@Test
+	void test_locationCounts_followInsertsUpdatesAndDeletes() throws Exception {
+		try (Connection connection = dataSource.getConnection()) {
+			V6__Backfill_employee_address_parts.backfill(connection);
+		}
+		EmployeeLocationCounts locationCounts = new EmployeeLocationCounts(new JdbcTemplate(dataSource));
+		List<Employee> saved = employeeRepository.saveAll(List.of(
+				new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England"),
+				new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street london ENGLAND"),
+				new Employee("Robert", "Daniel", LocalDate.of(2019, 6, 17), "26 E Street Cluj-Napoca Romania")));
+
+		assertEquals(List.of(new LocationHeadcount("England", null, 2), new LocationHeadcount("Romania", null, 1)),
+				locationCounts.countries());
+		assertEquals(List.of(new LocationHeadcount("England", "London", 2)), locationCounts.cities("england"));
+
+		Employee moved = saved.get(1);
+		moved.setAddress("23 B Street Brasov Romania");
+		employeeRepository.save(moved);
+		employeeRepository.delete(saved.get(2));
+
+		assertEquals(List.of(new LocationHeadcount("England", null, 1), new LocationHeadcount("Romania", null, 1)),
+				locationCounts.countries());
+		assertEquals(List.of(new LocationHeadcount("Romania", "Brasov", 1)), locationCounts.cities("Romania"));
+		assertEquals(1, employeeRepository.findByCity("brasov").size());
+	}
+
+	@Test
+	void test_backfillMigration_parsesAddressesAndCountsLocations() throws Exception {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.executeUpdate("INSERT INTO employee (id, first_name, last_name, hire_date, address)"
+					+ " VALUES (-2, 'Ana', 'Cruz', DATE '2020-01-01', '9 Kings Road Bath England')");
+
+			assertEquals(1, V6__Backfill_employee_address_parts.backfill(connection));
+
+			try (ResultSet row = statement
+					.executeQuery("SELECT street, city, country, city_key, country_key FROM employee WHERE id = -2")) {
+				assertTrue(row.next());
+				assertEquals("9 Kings Road", row.getString(1));
+				assertEquals("Bath", row.getString(2));
+				assertEquals("England", row.getString(3));
+				assertEquals("bath", row.getString(4));
+				assertEquals("england", row.getString(5));
+			}
+		}
+		EmployeeLocationCounts locationCounts = new EmployeeLocationCounts(new JdbcTemplate(dataSource));
+		assertEquals(List.of(new LocationHeadcount("England", "Bath", 1)), locationCounts.cities("England"));
+		assertEquals(1, employeeRepository.findByCountry("england").size());
+	}
+
+	private String lastSelect() {
+		List<String> statements = SqlRecorder.statements;
+		return statements.get(statements.size() - 1);
+	}
+
+	private void assertUsesIndex(String index, String sql, String... parameters) throws Exception {
+		String plan = explain(sql, parameters);
+		assertTrue(plan.contains(index.toUpperCase()), plan);
+		assertFalse(plan.contains("tableScan"), plan);
+	}
+
+	private String explain(String sql, String... parameters) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+			for (int i = 0; i < parameters.length; i++) {
+				explain.setString(i + 1, parameters[i]);
+			}
+			try (ResultSet plan = explain.executeQuery()) {
+				assertTrue(plan.next());
+				return plan.getString(1);
+			}
+		}
+	}
+
+}
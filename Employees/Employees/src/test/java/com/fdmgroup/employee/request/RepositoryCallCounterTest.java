@@ -0,0 +1,71 @@
+package com.fdmgroup.employee.request;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RepositoryCallCounterTest {
+
+	@Autowired
+	MockMvc mockMvc;
+	@Autowired
+	EmployeeRepository employeeRepository;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		employeeRepository.saveAll(List.of(
+				new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England"),
+				new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street Manchester England")));
+	}
+
+	@Test
+	void test_searchHandlers_queryTheRepositoryOncePerRequest() throws Exception {
+		assertEquals(1, repositoryCalls(MockMvcRequestBuilders.post("/search-by-address").param("address", "street")));
+		assertEquals(1, repositoryCalls(MockMvcRequestBuilders.post("/search-by-name").param("firstName", "anya")));
+		assertEquals(1, repositoryCalls(MockMvcRequestBuilders.post("/search-by-last-name").param("lastName", "wehbe")));
+		assertEquals(1,
+				repositoryCalls(MockMvcRequestBuilders.post("/search-by-full-name").param("fullName", "Anya Wehbe")));
+		assertEquals(1,
+				repositoryCalls(MockMvcRequestBuilders.post("/search-employees").param("searchInput", "wehbe")));
+	}
+
+	@Test
+	void test_showEmployees_queriesTheRepositoryOnce() throws Exception {
+		assertEquals(1, repositoryCalls(MockMvcRequestBuilders.get("/show-employees")));
+		assertEquals(1, repositoryCalls(MockMvcRequestBuilders.get("/show-employees").param("size", "1")));
+	}
+
+	@Test
+	void test_callsOutsideRequest_areNotCounted() throws Exception {
+		employeeRepository.findAll();
+
+		assertEquals(1, repositoryCalls(MockMvcRequestBuilders.post("/search-by-name").param("firstName", "anya")));
+	}
+
+	private int repositoryCalls(RequestBuilder request) throws Exception {
+		MvcResult result = mockMvc.perform(request)
+				.andExpect(MockMvcResultMatchers.view().name("showEmployees")).andReturn();
+		return RepositoryCallCounter.callsOf(result.getRequest());
+	}
+
+}
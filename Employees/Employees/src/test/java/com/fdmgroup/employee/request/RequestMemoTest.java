@@ -0,0 +1,70 @@
+package com.fdmgroup.employee.request;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class RequestMemoTest {
+	RequestMemo requestMemo = new RequestMemo();
+	AtomicInteger computations = new AtomicInteger();
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void test_get_insideRequest_computesEachKeyOnce() {
+		// Arrange
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+		// Act
+		requestMemo.get("find", "anna", computations::incrementAndGet);
+		requestMemo.get("find", "anna", computations::incrementAndGet);
+		requestMemo.get("find", "bob", computations::incrementAndGet);
+		requestMemo.get("find", null, computations::incrementAndGet);
+		requestMemo.get("find", null, computations::incrementAndGet);
+
+		// Assert
+		assertEquals(3, computations.get());
+		assertEquals(1, (int) requestMemo.get("find", "anna", () -> -1));
+	}
+
+	@Test
+	void test_get_afterClear_computesAgain() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+		requestMemo.get("find", "anna", computations::incrementAndGet);
+		requestMemo.clear();
+		requestMemo.get("find", "anna", computations::incrementAndGet);
+
+		assertEquals(2, computations.get());
+	}
+
+	@Test
+	void test_get_inNextRequest_computesAgain() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		requestMemo.get("find", "anna", computations::incrementAndGet);
+
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		requestMemo.get("find", "anna", computations::incrementAndGet);
+
+		assertEquals(2, computations.get());
+	}
+
+	@Test
+	void test_get_outsideRequest_alwaysComputes() {
+		requestMemo.get("find", "anna", computations::incrementAndGet);
+		requestMemo.get("find", "anna", computations::incrementAndGet);
+		requestMemo.clear();
+
+		assertEquals(2, computations.get());
+	}
+
+}
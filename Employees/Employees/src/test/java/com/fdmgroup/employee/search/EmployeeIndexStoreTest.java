@@ -0,0 +1,154 @@
+package com.fdmgroup.employee.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeIndexStoreTest {
+
+	@Autowired
+	EmployeeRepository employeeRepository;
+
+	@TempDir
+	Path directory;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		employeeRepository.saveAll(List.of(
+				new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England"),
+				new Employee("Anya", "Wehbe", null, "23 B Street Manchester England"),
+				new Employee("Anastasia", "Alexandrovna", LocalDate.of(2019, 6, 17), "24 C Street Moscow Russia"),
+				new Employee("Mădălina", null, LocalDate.of(2019, 6, 17), "25 D Street Brașov Romania"),
+				new Employee("Robert", "Daniel", LocalDate.of(2019, 6, 17), null)));
+	}
+
+	@Test
+	void test_reopen_restoresSnapshotAndLog_withoutLoadingTheRepository() {
+		EmployeeSearchIndex written = persistedIndex(employeeRepository);
+		assertEquals(5, written.size());
+		Employee saved = employeeRepository
+				.save(new Employee("Zoltan", "Kovács", LocalDate.of(2023, 2, 1), "1 F Street Budapest Hungary"));
+		written.add(saved);
+
+		// The first index is never closed, so the new employee is only in the log
+		EmployeeRepository repository = mock(EmployeeRepository.class);
+		when(repository.count()).thenReturn(6L);
+		when(repository.findMaxId()).thenReturn(saved.getId());
+		EmployeeSearchIndex reopened = persistedIndex(repository);
+
+		assertEquals(6, reopened.size());
+		assertEquals(ids(written.listAll()), ids(reopened.listAll()));
+		for (String term : List.of("", "a", "ana", "wehbe", "kovacs", "brasov", "street", "xyz")) {
+			assertEquals(ids(written.findByFirstName(term)), ids(reopened.findByFirstName(term)));
+			assertEquals(ids(written.findByLastName(term)), ids(reopened.findByLastName(term)));
+			assertEquals(ids(written.findByAddress(term)), ids(reopened.findByAddress(term)));
+		}
+		Employee restored = reopened.findById(saved.getId());
+		assertEquals("Kovács", restored.getLastName());
+		assertEquals(LocalDate.of(2023, 2, 1), restored.getHireDate());
+		assertEquals("kovacs", restored.getLastNameKey());
+		assertEquals(ids(written.fuzzySearch("Anja Wehbe")), ids(reopened.fuzzySearch("Anja Wehbe")));
+		verify(repository, never()).findAll();
+		written.close();
+		reopened.close();
+	}
+
+	@Test
+	void test_reopen_readsEmployeesMissingFromTheLog() {
+		persistedIndex(employeeRepository).size();
+		Employee saved = employeeRepository
+				.save(new Employee("Zoltan", "Kovács", LocalDate.of(2023, 2, 1), "1 F Street Budapest Hungary"));
+
+		EmployeeSearchIndex reopened = persistedIndex(employeeRepository);
+
+		assertEquals(6, reopened.size());
+		assertEquals(List.of(saved.getId()), ids(reopened.findByLastName("kovacs")));
+		assertEquals(1, reopened.fuzzyFindByLastName("Kovacz").size());
+		reopened.close();
+	}
+
+	@Test
+	void test_reopen_rebuilds_whenTheSnapshotIsCorrupt() throws Exception {
+		persistedIndex(employeeRepository).size();
+		Path snapshot = directory.resolve(EmployeeIndexStore.SNAPSHOT_FILE);
+		try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 42 }), 40);
+		}
+		assertNull(new EmployeeIndexStore(directory).open());
+
+		EmployeeSearchIndex reopened = persistedIndex(employeeRepository);
+
+		assertEquals(5, reopened.size());
+		assertEquals(2, reopened.findByLastName("wehbe").size());
+		assertEquals(5, new EmployeeIndexStore(directory).open().size());
+	}
+
+	@Test
+	void test_reopen_rebuilds_whenTheRepositoryChanged() {
+		persistedIndex(employeeRepository).size();
+		employeeRepository.deleteAll();
+		employeeRepository.saveAll(List.of(new Employee("Ion", "Popescu", null, "1 Street Iasi Romania"),
+				new Employee("Ana", "Ionescu", null, "2 Street Iasi Romania")));
+
+		EmployeeSearchIndex reopened = persistedIndex(employeeRepository);
+
+		assertEquals(ids(employeeRepository.findAll()), ids(reopened.listAll()));
+		assertTrue(reopened.findByLastName("wehbe").isEmpty());
+	}
+
+	@Test
+	void test_replayLog_cutsATornRecord_andDiscardsAnotherGeneration() throws Exception {
+		EmployeeIndexStore store = new EmployeeIndexStore(directory);
+		store.checkpoint(7, slot -> null, 0, new TrigramIndex(), new TrigramIndex(), new TrigramIndex());
+		List<Employee> employees = employeeRepository.findAll();
+		store.append(employees.get(0));
+		store.append(employees.get(3));
+		store.close();
+		Path log = directory.resolve(EmployeeIndexStore.LOG_FILE);
+		long logged = Files.size(log);
+		Files.write(log, new byte[] { 0, 0, 0, 20, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+		List<Employee> replayed = store.replayLog(7);
+
+		assertEquals(ids(List.of(employees.get(0), employees.get(3))), ids(replayed));
+		assertEquals("Mădălina", replayed.get(1).getFirstName());
+		assertNull(replayed.get(1).getLastName());
+		assertEquals(logged, Files.size(log));
+		assertEquals(2, store.loggedRecords());
+		assertTrue(store.replayLog(8).isEmpty());
+		assertEquals(0, store.loggedRecords());
+		store.close();
+	}
+
+	private EmployeeSearchIndex persistedIndex(EmployeeRepository repository) {
+		return new EmployeeSearchIndex(repository, 2, directory.toString(), 10000);
+	}
+
+	private static List<Integer> ids(List<Employee> employees) {
+		return employees.stream().map(Employee::getId).sorted().toList();
+	}
+
+}
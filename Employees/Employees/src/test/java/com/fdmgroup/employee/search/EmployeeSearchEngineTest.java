@@ -0,0 +1,97 @@
+package com.fdmgroup.employee.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeSearchEngineTest {
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	EmployeeSearchIndex searchIndex;
+	@Autowired
+	EmployeeSearchEngine searchEngine;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		employeeRepository.saveAll(List.of(
+				new Employee("Annabel", "Wehbe", LocalDate.of(2019, 6, 17), "1 A Street London England"),
+				new Employee("Joanna", "Smith", LocalDate.of(2019, 6, 17), "2 B Street London England"),
+				new Employee("Anna", "Wehbe", LocalDate.of(2019, 6, 17), "3 C Street London England"),
+				new Employee("Anna", "Karenina", LocalDate.of(2019, 6, 17), "4 D Street Moscow Russia"),
+				new Employee("Ann_a", "Percent%", LocalDate.of(2019, 6, 17), "5 E Street Brasov Romania")));
+		searchIndex.rebuild();
+	}
+
+	@Test
+	void test_search_ranksExactThenPrefixThenSubstring() {
+		for (boolean useIndex : new boolean[] { false, true }) {
+			assertEquals(List.of("Anna Wehbe", "Anna Karenina", "Annabel Wehbe", "Joanna Smith"),
+					names(searchEngine.search("anna", useIndex)));
+			assertEquals(List.of("Anna Wehbe", "Annabel Wehbe", "Anna Karenina", "Joanna Smith"),
+					names(searchEngine.search(" Anna   WEHBE ", useIndex)));
+		}
+	}
+
+	@Test
+	void test_search_matchesWildcardsLiterally() {
+		for (boolean useIndex : new boolean[] { false, true }) {
+			assertEquals(List.of("Ann_a Percent%"), names(searchEngine.search("n_a", useIndex)));
+			assertEquals(List.of("Ann_a Percent%"), names(searchEngine.search("t%", useIndex)));
+		}
+	}
+
+	@Test
+	void test_search_returnsEveryone_forBlankInput() {
+		assertEquals(5, searchEngine.search("   ", false).size());
+		assertEquals(5, searchEngine.search("", true).size());
+	}
+
+	@Test
+	void test_rank_dropsRepeatedIds() {
+		Employee employee = new Employee("Anna", "Wehbe", LocalDate.of(2019, 6, 17), "3 C Street London England");
+		employee.setId(7);
+
+		List<Employee> ranked = EmployeeSearchEngine.rank("anna", new String[] { "anna" },
+				List.of(employee, employee, employee));
+
+		assertEquals(List.of(employee), ranked);
+	}
+
+	@Test
+	void test_rank_ordersByRankThenId_forIdsAboveThirtyBits() {
+		Employee substring = employee("Joanna", "Smith", Integer.MAX_VALUE);
+		Employee exact = employee("Anna", "Karenina", (1 << 30) + 5);
+		Employee prefix = employee("Annabel", "Wehbe", 3);
+		Employee otherExact = employee("Anna", "Wehbe", (1 << 30) + 1);
+
+		List<Employee> ranked = EmployeeSearchEngine.rank("anna", new String[] { "anna" },
+				List.of(substring, exact, prefix, otherExact));
+
+		assertEquals(List.of(otherExact, exact, prefix, substring), ranked);
+	}
+
+	private static Employee employee(String firstName, String lastName, int id) {
+		Employee employee = new Employee(firstName, lastName, LocalDate.of(2019, 6, 17), "3 C Street London England");
+		employee.setId(id);
+		return employee;
+	}
+
+	private static List<String> names(List<Employee> employees) {
+		return employees.stream().map(Employee::getFullname).toList();
+	}
+
+}
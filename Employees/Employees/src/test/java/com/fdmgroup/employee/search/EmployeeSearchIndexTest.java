@@ -0,0 +1,199 @@
+package com.fdmgroup.employee.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fdmgroup.employee.cache.EmployeeCache;
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.request.RequestMemo;
+import com.fdmgroup.employee.service.EmployeeService;
+import com.fdmgroup.employee.service.EmployeeVersion;
+import com.fdmgroup.employee.service.HireHistogram;
+import com.fdmgroup.employee.snapshot.EmployeeSnapshot;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeSearchIndexTest {
+	private static final List<String> TERMS = List.of("", "a", "an", "ANA", "wehbe", "Wehbe", "street", "london",
+			"Cluj-Napoca", "romania", "xyz", "ya w", "e");
+	private static final List<String> SEARCH_INPUTS = List.of("", "anya", "Wehbe", "Anya Wehbe", "dan Alex",
+			"robert x", "Madalina", "nobody here", "a  b");
+
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	EmployeeSearchIndex searchIndex;
+	@Autowired
+	EmployeeSearchEngine searchEngine;
+	@Autowired
+	EmployeeCache employeeCache;
+	@Autowired
+	RequestMemo requestMemo;
+	@Autowired
+	EmployeeVersion employeeVersion;
+	@Autowired
+	HireHistogram hireHistogram;
+	@Autowired
+	EmployeeSnapshot snapshot;
+	@Autowired
+	EmployeeTypeahead typeahead;
+
+	EmployeeService repositoryService;
+	EmployeeService indexService;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		employeeRepository.saveAll(List.of(
+				new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England"),
+				new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street Manchester England"),
+				new Employee("Anastasia", "Alexandrovna", LocalDate.of(2019, 6, 17), "24 C Street Moscow Russia"),
+				new Employee("Madalina", "Acasandrei", LocalDate.of(2019, 6, 17), "25 D Street Brasov Romania"),
+				new Employee("Robert", "Daniel", LocalDate.of(2019, 6, 17), "26 E Street Cluj-Napoca Romania")));
+		searchIndex.rebuild();
+
+		repositoryService = new EmployeeService(employeeRepository, searchIndex, searchEngine, employeeCache, requestMemo,
+				employeeVersion, hireHistogram, snapshot, typeahead, false, false, false);
+		indexService = new EmployeeService(employeeRepository, searchIndex, searchEngine, employeeCache, requestMemo,
+				employeeVersion, hireHistogram, snapshot, typeahead, true, false, false);
+	}
+
+	@Test
+	void test_indexAndRepository_returnSameResults_forEveryFinder() {
+		for (String term : TERMS) {
+			assertSameEmployees(employeeRepository.findByFirstNameContainsIgnoreCase(term),
+					searchIndex.findByFirstName(term));
+			assertSameEmployees(employeeRepository.findByLastNameContainsIgnoreCase(term),
+					searchIndex.findByLastName(term));
+			assertSameEmployees(employeeRepository.findByAddressContainsIgnoreCase(term),
+					searchIndex.findByAddress(term));
+			assertSameEmployees(employeeRepository.findByFullNameContainsIgnoreCase(term),
+					searchIndex.findByFullName(term));
+		}
+	}
+
+	@Test
+	void test_serviceWithIndex_returnsSameResults_asServiceWithRepository() {
+		for (String term : TERMS) {
+			assertSameEmployees(repositoryService.findByFirstName(term), indexService.findByFirstName(term));
+			assertSameEmployees(repositoryService.findByLastName(term), indexService.findByLastName(term));
+			assertSameEmployees(repositoryService.listByAddress(term), indexService.listByAddress(term));
+		}
+		for (String searchInput : SEARCH_INPUTS) {
+			assertSameEmployees(repositoryService.searchEmployees(searchInput),
+					indexService.searchEmployees(searchInput));
+		}
+	}
+
+	@Test
+	void test_nullTerms_matchNothing() {
+		assertTrue(searchIndex.findByAddress(null).isEmpty());
+		assertTrue(searchIndex.findByAnyName(null, null, null).isEmpty());
+		assertTrue(indexService.listByAddress(null).isEmpty());
+		assertEquals(0, new TrigramIndex().contains(null).length);
+	}
+
+	@Test
+	void test_createEmployee_withIndexEnabled_makesEmployeeSearchable() {
+		// Arrange
+		Employee employee = new Employee("Zoltan", "Kovacs", LocalDate.of(2023, 2, 1), "1 F Street Budapest Hungary");
+
+		// Act
+		indexService.createEmployee(employee);
+
+		// Assert
+		assertSameEmployees(employeeRepository.findByFirstNameContainsIgnoreCase("zolt"),
+				indexService.findByFirstName("zolt"));
+		assertEquals(1, indexService.listByAddress("budapest").size());
+		assertEquals(6, searchIndex.size());
+	}
+
+	@Test
+	void test_findById_findsIndexedEmployee_andIgnoresRepeatedAdds() {
+		// Arrange
+		Employee anya = employeeRepository.findByFirstNameContainsIgnoreCase("anya").get(0);
+
+		// Act
+		searchIndex.add(anya);
+
+		// Assert
+		assertEquals(anya, indexService.getEmployee(anya.getId()));
+		assertEquals("Anya", searchIndex.findById(anya.getId()).getFirstName());
+		assertNull(searchIndex.findById(-1));
+		assertEquals(5, searchIndex.size());
+		assertEquals(1, searchIndex.findByFirstName("anya").size());
+	}
+
+	@Test
+	void test_fuzzySearch_ranksMisspelledNamesByEditDistance() {
+		assertEquals(List.of("Anastasia"), firstNames(indexService.searchEmployees("Alexandrvna", true)));
+		assertEquals(List.of("Anastasia"), firstNames(repositoryService.findByLastName("Alexadnrovna", true)));
+		assertEquals(List.of("Daliah", "Anya"), firstNames(indexService.findByLastName("Wehbe", true)));
+		assertEquals(List.of("Anya"), firstNames(indexService.findByFullName("Ania", "Wehbee", true)));
+		assertEquals(List.of("Robert"), firstNames(indexService.searchEmployees("Danial Robrt", true)));
+		assertEquals(List.of("Robert"), firstNames(indexService.listByAddress("Cluj Napocca", true)));
+		assertEquals(List.of("Madalina"), firstNames(indexService.findByFirstName("Madalnia", true)));
+		// Three letters allow a single edit
+		assertTrue(indexService.findByFirstName("Amy", true).isEmpty());
+	}
+
+	@Test
+	void test_fuzzySearch_withIndexDisabled_findsEmployeesCreatedAfterItLoaded() {
+		// Arrange: the first fuzzy search has loaded the index
+		assertTrue(repositoryService.findByFirstName("Zoltn", true).isEmpty());
+
+		// Act
+		repositoryService.createEmployee(
+				new Employee("Zoltan", "Kovacs", LocalDate.of(2023, 2, 1), "1 F Street Budapest Hungary"));
+
+		// Assert
+		assertEquals(List.of("Zoltan"), firstNames(repositoryService.findByFirstName("Zoltn", true)));
+		assertEquals(List.of("Zoltan"), firstNames(repositoryService.searchEmployees("Kovac", true)));
+	}
+
+	@Test
+	void test_fuzzyFallback_onlyAppliesWhenNothingMatches() {
+		EmployeeService fallbackService = new EmployeeService(employeeRepository, searchIndex, searchEngine,
+				employeeCache, requestMemo, employeeVersion, hireHistogram, snapshot, typeahead, false, true, false);
+
+		assertEquals(List.of("Anastasia"), firstNames(fallbackService.searchEmployees("Alexandrvna")));
+		assertEquals(List.of("Anya"), firstNames(fallbackService.findByFirstName("Anya")));
+		assertEquals(2, fallbackService.findByFirstName("an").size());
+		assertTrue(repositoryService.searchEmployees("Alexandrvna").isEmpty());
+	}
+
+	@Test
+	void test_locationLookup_matchesWholeCountriesAndCities_beforeSubstrings() {
+		EmployeeService locationService = new EmployeeService(employeeRepository, searchIndex, searchEngine,
+				employeeCache, requestMemo, employeeVersion, hireHistogram, snapshot, typeahead, false, false, true);
+
+		assertEquals(List.of("Daliah", "Anya"), firstNames(locationService.listByAddress("ENGLAND")));
+		assertEquals(List.of("Robert"), firstNames(locationService.listByAddress("cluj-napoca")));
+		// Not a whole city or country: searched in the whole address
+		assertEquals(5, locationService.listByAddress("street").size());
+		assertEquals(List.of("Madalina"), firstNames(locationService.listByAddress("brasov romania")));
+	}
+
+	private static List<String> firstNames(List<Employee> employees) {
+		return employees.stream().map(Employee::getFirstName).toList();
+	}
+
+	private static void assertSameEmployees(List<Employee> expected, List<Employee> actual) {
+		assertEquals(ids(expected), ids(actual));
+	}
+
+	private static List<Integer> ids(List<Employee> employees) {
+		return employees.stream().map(Employee::getId).sorted(Comparator.naturalOrder()).toList();
+	}
+
+}
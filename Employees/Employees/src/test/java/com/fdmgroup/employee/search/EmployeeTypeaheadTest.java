@@ -0,0 +1,41 @@
+package com.fdmgroup.employee.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+class EmployeeTypeaheadTest {
+
+	@Test
+	void test_add_whileTheTriesLoad_waitsAndCountsTheEmployee() throws Exception {
+		// Arrange: the first GROUP BY is slow and has already run when the employee is saved
+		EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+		CountDownLatch loading = new CountDownLatch(1);
+		when(employeeRepository.countByFirstName()).thenAnswer(invocation -> {
+			loading.countDown();
+			Thread.sleep(200);
+			return new ArrayList<Object[]>();
+		});
+		EmployeeTypeahead typeahead = new EmployeeTypeahead(employeeRepository, 10);
+		Thread loader = new Thread(typeahead::rebuild);
+		loader.start();
+		loading.await();
+
+		// Act
+		typeahead.add(new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England"));
+		loader.join();
+
+		// Assert
+		assertEquals(List.of(new Suggestion("Daliah", 1)), typeahead.suggest(TypeaheadField.FIRST_NAME, "dal", 10));
+	}
+
+}
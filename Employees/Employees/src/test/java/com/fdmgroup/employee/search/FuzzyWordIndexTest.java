@@ -0,0 +1,64 @@
+package com.fdmgroup.employee.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class FuzzyWordIndexTest {
+
+	@Test
+	void test_distance_countsInsertionsDeletionsAndSubstitutions() {
+		assertEquals(0, FuzzyWordIndex.distance("wehbe", "wehbe"));
+		assertEquals(1, FuzzyWordIndex.distance("alexandrovna", "alexandrvna"));
+		assertEquals(2, FuzzyWordIndex.distance("alexandrovna", "alexadnrovna"));
+		assertEquals(3, FuzzyWordIndex.distance("kitten", "sitting"));
+		assertEquals(5, FuzzyWordIndex.distance("", "anyaa"));
+	}
+
+	@Test
+	void test_search_findsSameSlotsAsBruteForce() {
+		Random random = new Random(7);
+		String[] values = new String[2000];
+		FuzzyWordIndex index = new FuzzyWordIndex();
+		for (int slot = 0; slot < values.length; slot++) {
+			values[slot] = randomWord(random) + " " + randomWord(random);
+			index.add(slot, values[slot]);
+		}
+		for (int query = 0; query < 50; query++) {
+			String word = randomWord(random);
+			IntObjectHashMap<Integer> matches = index.search(word, 2);
+			int expected = 0;
+			for (int slot = 0; slot < values.length; slot++) {
+				int best = Integer.MAX_VALUE;
+				for (String valueWord : FuzzyWordIndex.words(values[slot])) {
+					best = Math.min(best, FuzzyWordIndex.distance(word, valueWord));
+				}
+				if (best <= 2) {
+					expected++;
+					assertEquals(best, matches.get(slot));
+				}
+			}
+			assertEquals(expected, matches.size());
+		}
+	}
+
+	@Test
+	void test_words_foldsAndSplitsOnPunctuation() {
+		assertArrayEquals(new String[] { "26", "e", "street", "cluj", "napoca", "romania" },
+				FuzzyWordIndex.words("26 E Street, Cluj-Napoca  Romania"));
+		assertArrayEquals(new String[] { "jose" }, FuzzyWordIndex.words(" José "));
+		assertEquals(0, FuzzyWordIndex.words(null).length);
+	}
+
+	// Short words over a small alphabet, so that many are within two edits of each other
+	private static String randomWord(Random random) {
+		char[] word = new char[3 + random.nextInt(5)];
+		for (int i = 0; i < word.length; i++) {
+			word[i] = (char) ('a' + random.nextInt(4));
+		}
+		return new String(word);
+	}
+
+}
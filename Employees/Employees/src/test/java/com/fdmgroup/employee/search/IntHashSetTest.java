@@ -0,0 +1,36 @@
+package com.fdmgroup.employee.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class IntHashSetTest {
+
+	@Test
+	void test_add_reportsNewValuesOnly_andGrowsPastInitialSize() {
+		IntHashSet set = new IntHashSet(2);
+		for (int i = -100; i < 1000; i++) {
+			assertTrue(set.add(i));
+		}
+		for (int i = -100; i < 1000; i++) {
+			assertFalse(set.add(i));
+			assertTrue(set.contains(i));
+		}
+		assertFalse(set.contains(1000));
+		assertEquals(1100, set.size());
+	}
+
+	@Test
+	void test_clear_emptiesTheSet() {
+		IntHashSet set = new IntHashSet();
+		set.add(0);
+		set.add(42);
+
+		set.clear();
+
+		assertFalse(set.contains(0));
+		assertFalse(set.contains(42));
+		assertEquals(0, set.size());
+	}
+
+}
@@ -0,0 +1,38 @@
+package com.fdmgroup.employee.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class IntObjectHashMapTest {
+
+	@Test
+	void test_put_mapsKeys_andGrowsPastInitialSize() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<>(2);
+		for (int i = -100; i < 1000; i++) {
+			assertNull(map.put(i, "v" + i));
+		}
+		for (int i = -100; i < 1000; i++) {
+			assertEquals("v" + i, map.get(i));
+		}
+		assertEquals("v0", map.put(0, "zero"));
+		assertEquals("zero", map.get(0));
+		assertNull(map.get(1000));
+		assertFalse(map.containsKey(1000));
+		assertEquals(1100, map.size());
+	}
+
+	@Test
+	void test_clear_emptiesTheMap() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<>();
+		map.put(0, "zero");
+		map.put(42, "answer");
+
+		map.clear();
+
+		assertNull(map.get(0));
+		assertNull(map.get(42));
+		assertEquals(0, map.size());
+	}
+
+}
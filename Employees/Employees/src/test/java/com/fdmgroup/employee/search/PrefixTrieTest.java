@@ -0,0 +1,73 @@
+package com.fdmgroup.employee.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixTrieTest {
+
+	@Test
+	void test_complete_ranksByCountThenValue_andKeepsTheFirstSpelling() {
+		PrefixTrie trie = new PrefixTrie(3);
+		trie.add("anya", "Anya", 2);
+		trie.add("ana", "Ana", 2);
+		trie.add("anastasia", "Anastasia", 1);
+		trie.add("andrei", "Andrei", 1);
+		trie.add("ana", "ANA", 1);
+
+		assertEquals(List.of(new Suggestion("Ana", 3), new Suggestion("Anya", 2), new Suggestion("Anastasia", 1)),
+				trie.complete("an", 10));
+		assertEquals(List.of(new Suggestion("Ana", 3)), trie.complete("an", 1));
+		assertEquals(List.of(new Suggestion("Andrei", 1)), trie.complete("and", 3));
+		assertEquals(List.of(), trie.complete("b", 3));
+		assertEquals(4, trie.size());
+
+		// Andrei overtakes Anastasia and Anya, and pushes Anastasia out of the top three of "an"
+		trie.add("andrei", "Andrei", 2);
+		assertEquals(List.of("Ana", "Andrei", "Anya"), values(trie.complete("", 3)));
+	}
+
+	@Test
+	void test_complete_matchesBruteForce_afterRandomAdds() {
+		Random random = new Random(11);
+		PrefixTrie trie = new PrefixTrie(5);
+		Map<String, Long> counts = new HashMap<>();
+		for (int i = 0; i < 5000; i++) {
+			String value = randomWord(random);
+			long count = 1 + random.nextInt(3);
+			trie.add(value, value, count);
+			counts.merge(value, count, Long::sum);
+		}
+		for (int query = 0; query < 200; query++) {
+			String prefix = randomWord(random).substring(0, 1 + random.nextInt(2));
+			List<Suggestion> expected = new ArrayList<>();
+			counts.forEach((value, count) -> {
+				if (value.startsWith(prefix)) {
+					expected.add(new Suggestion(value, count));
+				}
+			});
+			expected.sort(Comparator.comparingLong(Suggestion::count).reversed().thenComparing(Suggestion::value));
+			assertEquals(expected.subList(0, Math.min(5, expected.size())), trie.complete(prefix, 5));
+		}
+	}
+
+	private static List<String> values(List<Suggestion> suggestions) {
+		return suggestions.stream().map(Suggestion::value).toList();
+	}
+
+	private static String randomWord(Random random) {
+		char[] word = new char[3 + random.nextInt(4)];
+		for (int i = 0; i < word.length; i++) {
+			word[i] = (char) ('a' + random.nextInt(5));
+		}
+		return new String(word);
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.fdmgroup.employee.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Exports a million employees and checks that the heap retained during the
+ * export stays within a fixed budget. The database is a file so that the table
+ * itself does not live on the heap. Tagged heavy, as it takes minutes, so it
+ * only runs with the heavy-tests profile.
+ */
+@Tag("heavy")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:./target/export-heap-test/${random.uuid};LAZY_QUERY_EXECUTION=TRUE")
+@ActiveProfiles("test")
+class EmployeeExportHeapTest {
+	private static final int EMPLOYEES = 1_000_000;
+	private static final int SAMPLE_EVERY = 100_000;
+	private static final long HEAP_BUDGET = 64L * 1024 * 1024;
+
+	@Autowired
+	EmployeeExportService employeeExportService;
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void test_exportOfAMillionRows_staysWithinHeapBudget() throws Exception {
+		// Arrange
+		jdbcTemplate.update("INSERT INTO employee (id, first_name, last_name, hire_date, address,"
+				+ " first_name_key, last_name_key, address_key)"
+				+ " SELECT X, 'First' || X, 'Last' || X, DATEADD('DAY', MOD(X, 1000), DATE '2020-01-01'),"
+				+ " X || ' Street London England', 'first' || X, 'last' || X, X || ' street london england'"
+				+ " FROM SYSTEM_RANGE(1, " + EMPLOYEES + ")");
+		HeapSamplingOutput output = new HeapSamplingOutput();
+
+		// Act
+		long rows = employeeExportService.export(ExportFormat.CSV, output);
+
+		// Assert
+		assertEquals(EMPLOYEES, rows);
+		assertEquals(EMPLOYEES + 1, output.lines);
+		assertTrue(output.samples >= EMPLOYEES / SAMPLE_EVERY - 1, "samples: " + output.samples);
+		assertTrue(output.maxRetained - output.baseline < HEAP_BUDGET,
+				"retained " + (output.maxRetained - output.baseline) / 1024 / 1024 + " MB during the export");
+	}
+
+	// Counts the exported lines and measures the live heap every SAMPLE_EVERY lines
+	private static final class HeapSamplingOutput extends OutputStream {
+		private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		private final long baseline = liveHeap();
+		private long maxRetained = baseline;
+		private long lines;
+		private int samples;
+
+		@Override
+		public void write(int b) {
+			if (b == '\n' && ++lines % SAMPLE_EVERY == 0) {
+				samples++;
+				maxRetained = Math.max(maxRetained, liveHeap());
+			}
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) {
+			for (int i = offset; i < offset + length; i++) {
+				write(bytes[i]);
+			}
+		}
+
+		private long liveHeap() {
+			System.gc();
+			return memory.getHeapMemoryUsage().getUsed();
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.fdmgroup.employee.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeExportServiceTest {
+	@Autowired
+	EmployeeExportService employeeExportService;
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	ObjectMapper objectMapper;
+
+	List<Employee> saved;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		saved = employeeRepository.saveAll(List.of(
+				new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street, London England"),
+				new Employee("Anya", "\"Ana\" Wehbe", LocalDate.of(2019, 6, 18), "23 B Street Manchester England")));
+	}
+
+	@Test
+	void test_exportCsv_writesHeaderAndEscapedRowsInIdOrder() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		long rows = employeeExportService.export(ExportFormat.CSV, output);
+
+		assertEquals(2, rows);
+		assertEquals("id,firstName,lastName,hireDate,address\n" //
+				+ saved.get(0).getId() + ",Daliah,Wehbe,2019-06-17,\"22 A Street, London England\"\n" //
+				+ saved.get(1).getId() + ",Anya,\"\"\"Ana\"\" Wehbe\",2019-06-18,23 B Street Manchester England\n",
+				output.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void test_exportCsv_canBeReadBackByTheImport() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		employeeExportService.export(ExportFormat.CSV, output);
+
+		String secondLine = output.toString(StandardCharsets.UTF_8).split("\n")[1];
+
+		assertEquals(List.of(String.valueOf(saved.get(0).getId()), "Daliah", "Wehbe", "2019-06-17",
+				"22 A Street, London England"), EmployeeImportService.parseCsvLine(secondLine));
+	}
+
+	@Test
+	void test_exportNdjson_writesOneObjectPerLine() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		employeeExportService.export(ExportFormat.NDJSON, output);
+
+		String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, lines.length);
+		JsonNode second = objectMapper.readTree(lines[1]);
+		assertEquals(saved.get(1).getId(), second.get("id").asInt());
+		assertEquals("\"Ana\" Wehbe", second.get("lastName").asText());
+		assertEquals("2019-06-18", second.get("hireDate").asText());
+	}
+
+}
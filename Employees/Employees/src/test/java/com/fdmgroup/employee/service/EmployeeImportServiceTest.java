@@ -0,0 +1,103 @@
+package com.fdmgroup.employee.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+@SpringBootTest(properties = "employee.import.chunk-size=2")
+@ActiveProfiles("test")
+class EmployeeImportServiceTest {
+	@Autowired
+	EmployeeImportService employeeImportService;
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	EmployeeService employeeService;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+	}
+
+	@Test
+	void test_importCsv_savesValidRows_andReportsRejectedOnes() throws Exception {
+		// Arrange
+		String csv = """
+				firstName,lastName,hireDate,address
+				Daliah,Wehbe,2019-06-17,22 A Street London England
+				Anya,,2019-06-17,23 B Street Manchester England
+				Anastasia,Alexandrovna,17/06/2019,24 C Street Moscow Russia
+				Madalina,Acasandrei,2019-06-17,"25 D Street, Brasov, Romania"
+				Robert,Daniel,2019-06-17
+				"O""Neil",Daniel,2020-01-02,26 E Street Cluj-Napoca Romania
+				""";
+
+		// Act
+		ImportReport report = employeeImportService
+				.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		// Assert
+		assertEquals(6, report.rowsRead());
+		assertEquals(3, report.rowsImported());
+		assertEquals(List.of(3, 4, 6), report.rejections().stream().map(ImportReport.Rejection::line).toList());
+		assertEquals("last name is required", report.rejections().get(0).reason());
+		assertEquals(3, employeeRepository.count());
+		assertEquals("25 D Street, Brasov, Romania",
+				employeeRepository.findByFirstNameContainsIgnoreCase("Madalina").get(0).getAddress());
+		assertEquals(1, employeeRepository.findByFirstNameContainsIgnoreCase("O\"Neil").size());
+	}
+
+	@Test
+	void test_importCsv_insideRequest_forgetsRememberedSearches() throws Exception {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		try {
+			assertEquals(0, employeeService.findByFirstName("dal").size());
+
+			employeeImportService.importCsv(new ByteArrayInputStream(
+					"firstName,lastName,hireDate,address\nDaliah,Wehbe,2019-06-17,22 A Street London England\n"
+							.getBytes(StandardCharsets.UTF_8)));
+
+			assertEquals(1, employeeService.findByFirstName("dal").size());
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	@Test
+	void test_importCsv_skipsUpperCaseHeader_underTurkishLocale() throws Exception {
+		Locale defaultLocale = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+		try {
+			ImportReport report = employeeImportService.importCsv(new ByteArrayInputStream(
+					"FIRSTNAME,LASTNAME,HIREDATE,ADDRESS\nDaliah,Wehbe,2019-06-17,22 A Street London England\n"
+							.getBytes(StandardCharsets.UTF_8)));
+
+			assertEquals(1, report.rowsRead());
+			assertEquals(1, report.rowsImported());
+			assertEquals(List.of(), report.rejections());
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	@Test
+	void test_parseCsvLine_handlesQuotedCommasAndQuotes() {
+		assertEquals(List.of("a", "b, c", "say \"hi\"", ""),
+				EmployeeImportService.parseCsvLine("a,\"b, c\",\"say \"\"hi\"\"\","));
+	}
+
+}
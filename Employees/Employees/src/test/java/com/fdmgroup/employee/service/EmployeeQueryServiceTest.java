@@ -0,0 +1,89 @@
+package com.fdmgroup.employee.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.EmployeeQuery;
+import com.fdmgroup.employee.model.EmployeeView;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeQueryServiceTest {
+
+	@Autowired
+	EmployeeRepository employeeRepository;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		employeeRepository.saveAll(List.of(
+				new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England"),
+				new Employee("Anya", "Wehbe", LocalDate.of(2018, 3, 1), "23 B Street Manchester England"),
+				new Employee("Mădălina", "Acasandrei", null, "25 D Street Brașov Romania"),
+				new Employee("Robert", "Daniel", LocalDate.of(2020, 1, 5), "26 E Street Cluj-Napoca Romania"),
+				new Employee("Ana", "100%_Wehbe!", LocalDate.of(2019, 6, 17), null)));
+	}
+
+	@Test
+	void test_query_matchesTheRepositoryFinders_forEveryCriterion() {
+		EmployeeQueryService queryService = new EmployeeQueryService(employeeRepository, 50, 10000);
+
+		assertEquals(views(employeeRepository.findByFullNameContainsIgnoreCase("an")),
+				queryService.query(query("an", null, null, null, null, null, null)).employees());
+		assertEquals(views(employeeRepository.findByLastNameContainsIgnoreCase("%_wehbe!")),
+				queryService.query(query(null, "%_wehbe!", null, null, null, null, null)).employees());
+		assertEquals(views(employeeRepository.findByAddressContainsIgnoreCase("brasov")),
+				queryService.query(query(null, null, "brasov", null, null, null, null)).employees());
+		assertEquals(views(employeeRepository.findByCountry("ROMANIA")),
+				queryService.query(query(null, null, null, null, "ROMANIA", null, null)).employees());
+		assertEquals(employeeRepository.findByHireDateBetweenOrderByHireDateAscIdAsc(LocalDate.of(2019, 1, 1),
+				LocalDate.of(2020, 12, 31)).stream().map(EmployeeView::of).toList(),
+				queryService.query(new EmployeeQuery(null, null, null, null, null, null, LocalDate.of(2019, 1, 1),
+						LocalDate.of(2020, 12, 31), "hireDate", null)).employees());
+		assertEquals(5, queryService.query(query(null, null, null, null, null, null, null)).total());
+	}
+
+	@Test
+	void test_query_stopsCountingAtTheCountLimit() {
+		EmployeeQueryService queryService = new EmployeeQueryService(employeeRepository, 2, 3);
+
+		EmployeeQueryResult result = queryService.query(query(null, null, null, null, null, null, null));
+		assertEquals(2, result.employees().size());
+		assertEquals(3, result.total());
+		assertFalse(result.totalExact());
+
+		result = queryService.query(query("wehbe", null, null, null, null, null, 2));
+		assertEquals(2, result.employees().size());
+		assertEquals(3, result.total());
+		assertTrue(result.totalExact());
+	}
+
+	@Test
+	void test_sort_addsTheIdAsTieBreaker() {
+		assertEquals(Sort.by("id"), EmployeeQueryService.sort(null));
+		assertEquals(Sort.by(Sort.Direction.DESC, "hireDate").and(Sort.by("id")),
+				EmployeeQueryService.sort("hireDate, DESC"));
+		assertThrows(IllegalArgumentException.class, () -> EmployeeQueryService.sort("address"));
+	}
+
+	private static EmployeeQuery query(String name, String lastName, String address, String city, String country,
+			String sort, Integer limit) {
+		return new EmployeeQuery(name, null, lastName, address, city, country, null, null, sort, limit);
+	}
+
+	private static List<EmployeeView> views(List<Employee> employees) {
+		return employees.stream().map(EmployeeView::of).sorted((a, b) -> Integer.compare(a.id(), b.id())).toList();
+	}
+
+}
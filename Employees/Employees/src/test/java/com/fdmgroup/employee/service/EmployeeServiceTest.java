@@ -18,6 +18,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import com.fdmgroup.employee.model.Employee;
 import com.fdmgroup.employee.repository.EmployeeRepository;
@@ -101,6 +103,35 @@ public class EmployeeServiceTest {
 		assertNull(savedEmployee);
 	}
 
+	@Test
+	void testListPage_returnsCursorOfLastEmployee_whenPageIsFull() {
+		// Mock data
+		Employee employee1 = new Employee("John", "Doe", LocalDate.of(2022, 1, 15), "123 Main St");
+		employee1.setId(4);
+		Employee employee2 = new Employee("Jane", "Doe", LocalDate.of(2022, 1, 15), "123 Main St");
+		employee2.setId(9);
+		when(mockEmployeeRepository.findByIdGreaterThanOrderByIdAsc(eq(3), any(Pageable.class)))
+				.thenReturn(List.of(employee1, employee2));
+
+		// Call the method under test
+		EmployeePage page = employeeService.listPage(3, 2);
+
+		// Verify the result
+		assertEquals(List.of(employee1, employee2), page.employees());
+		assertEquals(9, page.nextCursor());
+		verify(mockEmployeeRepository).findByIdGreaterThanOrderByIdAsc(3, PageRequest.of(0, 2));
+	}
+
+	@Test
+	void testListPage_returnsNoCursor_whenPageIsNotFull() {
+		when(mockEmployeeRepository.findByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class)))
+				.thenReturn(List.of(new Employee("John", "Doe", LocalDate.of(2022, 1, 15), "123 Main St")));
+
+		EmployeePage page = employeeService.listPage(0, 10);
+
+		assertNull(page.nextCursor());
+	}
+
 	@Test
 	void testListByAddress() {
 		// Mock data
@@ -196,28 +227,37 @@ public class EmployeeServiceTest {
 	}
 	
 
-	  @Test
-	    public void testSearchEmployees() {
-	        // Arrange
-	        String searchInput = "John Doe";
-	        List<Employee> expectedEmployees = new ArrayList<>();
-	        expectedEmployees.add(new Employee("John", "Doe", LocalDate.of(2022, 1, 15), "123 Main St"));
-	        expectedEmployees.add(new Employee("Jane", "Doe", LocalDate.of(2022, 1, 15), "123 Main St"));
-	        when(mockEmployeeRepository.findByFullNameContainsIgnoreCase(searchInput)).thenReturn(expectedEmployees);
-	        when(mockEmployeeRepository.findByFirstNameContainsIgnoreCase("John")).thenReturn(List.of(expectedEmployees.get(0)));
-	        when(mockEmployeeRepository.findByLastNameContainsIgnoreCase("Doe")).thenReturn(expectedEmployees);
-
-	        // Act
-	        List<Employee> actualEmployees = employeeService.searchEmployees(searchInput);
-
-	        // Assert
-	        Assertions.assertEquals(expectedEmployees.size(), actualEmployees.size());
-	        Assertions.assertTrue(actualEmployees.containsAll(expectedEmployees));
-	        Assertions.assertTrue(expectedEmployees.containsAll(actualEmployees));
-	        verify(mockEmployeeRepository, times(1)).findByFullNameContainsIgnoreCase(searchInput);
-	        verify(mockEmployeeRepository, times(1)).findByFirstNameContainsIgnoreCase("John");
-	        verify(mockEmployeeRepository, times(1)).findByLastNameContainsIgnoreCase("Doe");
-	        verifyNoMoreInteractions(mockEmployeeRepository);
-	    }
+	@Test
+	public void testSearchEmployees() {
+		// Arrange
+		String searchInput = "John Doe";
+		Employee john = new Employee("John", "Doe", LocalDate.of(2022, 1, 15), "123 Main St");
+		john.setId(2);
+		Employee jane = new Employee("Jane", "Doe", LocalDate.of(2022, 1, 15), "123 Main St");
+		jane.setId(1);
+		Employee johnny = new Employee("Johnny", "Smith", LocalDate.of(2022, 1, 15), "123 Main St");
+		johnny.setId(3);
+		when(mockEmployeeRepository.searchByNames("%john doe%", "%john%", "%doe%"))
+				.thenReturn(new ArrayList<>(List.of(johnny, jane, john)));
+
+		// Act
+		List<Employee> actualEmployees = employeeService.searchEmployees(searchInput);
+
+		// Assert: exact full name first, then prefix matches in id order, from a single query
+		Assertions.assertEquals(List.of(john, jane, johnny), actualEmployees);
+		verify(mockEmployeeRepository, times(1)).searchByNames("%john doe%", "%john%", "%doe%");
+		verifyNoMoreInteractions(mockEmployeeRepository);
+	}
+
+	@Test
+	public void testSearchEmployees_singleWord_usesInputForEveryPattern() {
+		Employee anya = new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street Manchester England");
+		anya.setId(5);
+		when(mockEmployeeRepository.searchByNames("%wehbe%", "%wehbe%", "%wehbe%")).thenReturn(List.of(anya));
+
+		List<Employee> actualEmployees = employeeService.searchEmployees("  Wehbe ");
+
+		Assertions.assertEquals(List.of(anya), actualEmployees);
+	}
 
 }
@@ -0,0 +1,125 @@
+package com.fdmgroup.employee.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeTenureServiceTest {
+	@Autowired
+	EmployeeTenureService tenureService;
+	@Autowired
+	EmployeeService employeeService;
+	@Autowired
+	EmployeeBatchWriter batchWriter;
+	@Autowired
+	HireHistogram hireHistogram;
+	@Autowired
+	EmployeeRepository employeeRepository;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		employeeRepository.saveAll(List.of(employee("Daliah", LocalDate.of(2019, 6, 17)),
+				employee("Anya", LocalDate.of(2019, 12, 30)), employee("Anastasia", LocalDate.of(2020, 1, 2)),
+				employee("Madalina", LocalDate.of(2020, 2, 29)), employee("Robert", LocalDate.of(2021, 6, 18))));
+		hireHistogram.rebuild();
+	}
+
+	@Test
+	void test_listHiredBetween_returnsEmployeesInTheRange_earliestFirst() {
+		assertEquals(List.of("Anya", "Anastasia", "Madalina"),
+				firstNames(tenureService.listHiredBetween(LocalDate.of(2019, 12, 30), LocalDate.of(2020, 2, 29))));
+		assertTrue(tenureService.listHiredBetween(LocalDate.of(2021, 1, 1), LocalDate.of(2020, 1, 1)).isEmpty());
+	}
+
+	@Test
+	void test_listAnniversaries_ignoresTheYear_andWrapsAroundNewYear() {
+		assertEquals(List.of("Daliah", "Robert"),
+				firstNames(tenureService.listAnniversaries(LocalDate.of(2023, 6, 15), LocalDate.of(2023, 6, 21))));
+		assertEquals(List.of("Anya", "Anastasia"),
+				firstNames(tenureService.listAnniversaries(LocalDate.of(2023, 12, 28), LocalDate.of(2024, 1, 3))));
+		// Hired in the window itself: no anniversary yet
+		assertEquals(List.of("Daliah"),
+				firstNames(tenureService.listAnniversaries(LocalDate.of(2021, 6, 15), LocalDate.of(2021, 6, 21))));
+	}
+
+	@Test
+	void test_listAnniversaries_celebratesLeapDayHiresOnTheLastDayOfFebruary() {
+		assertEquals(List.of("Madalina"),
+				firstNames(tenureService.listAnniversaries(LocalDate.of(2023, 2, 28), LocalDate.of(2023, 2, 28))));
+		assertTrue(tenureService.listAnniversaries(LocalDate.of(2024, 2, 28), LocalDate.of(2024, 2, 28)).isEmpty());
+		assertEquals(5, tenureService.listAnniversaries(LocalDate.of(2030, 1, 1), LocalDate.of(2031, 1, 1)).size());
+	}
+
+	@Test
+	void test_listAnniversaries_overMoreThanAYear_includesLaterAnniversaries_inTheirOrder() {
+		// Daliah's anniversaries in 2020 and 2021 count though she was hired inside the window;
+		// Robert's first one is in 2022
+		assertEquals(List.of("Daliah", "Anya", "Anastasia", "Madalina"),
+				firstNames(tenureService.listAnniversaries(LocalDate.of(2019, 1, 1), LocalDate.of(2021, 12, 31))));
+		assertEquals(List.of("Anastasia", "Madalina", "Daliah", "Robert", "Anya"),
+				firstNames(tenureService.listAnniversaries(LocalDate.of(2021, 12, 31), LocalDate.of(2023, 6, 30))));
+	}
+
+	@Test
+	void test_hireHistogram_countsHiresPerMonthAndYear_andFollowsNewEmployees() {
+		assertEquals(List.of(new HireCount("2019", 2), new HireCount("2020", 2), new HireCount("2021", 1)),
+				tenureService.hiresByYear(null, null));
+
+		employeeService.createEmployee(employee("Zoltan", LocalDate.of(2020, 2, 1)));
+		batchWriter.saveAll(List.of(employee("Ilona", LocalDate.of(2020, 3, 5))));
+
+		assertEquals(List.of(new HireCount("2020-01", 1), new HireCount("2020-02", 2), new HireCount("2020-03", 1)),
+				tenureService.hiresByMonth(YearMonth.of(2020, 1), YearMonth.of(2020, 3)));
+		assertEquals(new HireCount("2020", 4), tenureService.hiresByYear(2020, 2020).get(0));
+		assertEquals(List.of(new HireCount("2022", 0)), tenureService.hiresByYear(2022, 2022));
+	}
+
+	@Test
+	void test_hireHistogram_add_whileCounting_waitsAndCountsTheEmployee() throws Exception {
+		// Arrange: the GROUP BY is slow and has already read the table when the employee is saved
+		EmployeeRepository slowRepository = mock(EmployeeRepository.class);
+		CountDownLatch counting = new CountDownLatch(1);
+		when(slowRepository.countHiresByMonth()).thenAnswer(invocation -> {
+			counting.countDown();
+			Thread.sleep(200);
+			return new ArrayList<Object[]>();
+		});
+		HireHistogram histogram = new HireHistogram(slowRepository);
+		Thread counter = new Thread(histogram::rebuild);
+		counter.start();
+		counting.await();
+
+		// Act
+		histogram.add(employee("Zoltan", LocalDate.of(2020, 2, 1)));
+		counter.join();
+
+		// Assert
+		assertEquals(List.of(new HireCount("2020", 1)), histogram.byYear(2020, 2020));
+	}
+
+	private static Employee employee(String firstName, LocalDate hireDate) {
+		return new Employee(firstName, "Wehbe", hireDate, "22 A Street London England");
+	}
+
+	private static List<String> firstNames(List<Employee> employees) {
+		return employees.stream().map(Employee::getFirstName).toList();
+	}
+
+}
@@ -0,0 +1,268 @@
+package com.fdmgroup.employee.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fdmgroup.employee.cache.EmployeeCache;
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.request.RequestMemo;
+import com.fdmgroup.employee.search.EmployeeSearchIndex;
+import com.fdmgroup.employee.search.EmployeeTypeahead;
+import com.fdmgroup.employee.service.EmployeeTicket.Status;
+import com.fdmgroup.employee.snapshot.EmployeeSnapshot;
+
+@SpringBootTest(properties = { "employee.write-behind.enabled=true", "employee.write-behind.batch-size=50" })
+@ActiveProfiles("test")
+class EmployeeWriteBehindServiceTest {
+	@Autowired
+	EmployeeWriteBehindService writeBehindService;
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	EmployeeSearchIndex searchIndex;
+	@Autowired
+	EmployeeCache employeeCache;
+	@Autowired
+	EmployeeVersion employeeVersion;
+	@Autowired
+	HireHistogram hireHistogram;
+	@Autowired
+	EmployeeTypeahead typeahead;
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+	}
+
+	@Test
+	void test_submit_queuesEmployees_andWriterSavesThemAll() throws Exception {
+		// Arrange
+		List<EmployeeTicket> tickets = new ArrayList<>();
+
+		// Act
+		for (int i = 0; i < 300; i++) {
+			tickets.add(writeBehindService.submit(employee("Burst" + i)));
+		}
+
+		// Assert
+		for (EmployeeTicket ticket : tickets) {
+			assertEquals(Status.SAVED, awaitTicket(writeBehindService, ticket.id()).status());
+		}
+		assertEquals(300, employeeRepository.count());
+		EmployeeTicket last = writeBehindService.getTicket(tickets.get(299).id());
+		assertEquals("Burst299", employeeRepository.findById(last.employeeId()).orElseThrow().getFirstName());
+	}
+
+	@Test
+	void test_submit_withMissingField_returnsNull() {
+		assertNull(writeBehindService.submit(new Employee("Anya", null, LocalDate.of(2019, 6, 17), "Manchester")));
+		assertNull(writeBehindService.getTicket("unknown"));
+	}
+
+	@Test
+	void test_submit_whenQueueIsFull_throwsAfterEnqueueTimeout() throws Exception {
+		// Arrange: the writer is blocked on the first batch, so the queue of one fills up
+		CountDownLatch release = new CountDownLatch(1);
+		EmployeeBatchWriter batchWriter = mock(EmployeeBatchWriter.class);
+		when(batchWriter.saveAll(anyList())).thenAnswer(invocation -> {
+			release.await();
+			return invocation.getArgument(0);
+		});
+		EmployeeWriteBehindService service = new EmployeeWriteBehindService(batchWriter, true, 1, 10,
+				Duration.ofMillis(10), Duration.ofSeconds(5), Duration.ofHours(1));
+		service.start();
+		service.submit(employee("First"));
+		while (service.queueSize() > 0) {
+			Thread.sleep(5);
+		}
+		service.submit(employee("Second"));
+
+		// Act and Assert
+		assertThrows(WriteBehindQueueFullException.class, () -> service.submit(employee("Third")));
+		release.countDown();
+		service.stop();
+	}
+
+	@Test
+	void test_stop_drainsQueue_andFailsWhatIsLeftAfterTimeout() throws Exception {
+		// Arrange: every batch takes 50ms and the shutdown only waits 120ms
+		EmployeeBatchWriter batchWriter = mock(EmployeeBatchWriter.class);
+		when(batchWriter.saveAll(anyList())).thenAnswer(invocation -> {
+			Thread.sleep(50);
+			return invocation.getArgument(0);
+		});
+		EmployeeWriteBehindService service = new EmployeeWriteBehindService(batchWriter, true, 100, 1,
+				Duration.ofSeconds(1), Duration.ofMillis(120), Duration.ofHours(1));
+		service.start();
+		List<EmployeeTicket> tickets = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			tickets.add(service.submit(employee("Shutdown" + i)));
+		}
+
+		// Act
+		service.stop();
+
+		// Assert
+		assertThrows(WriteBehindQueueFullException.class, () -> service.submit(employee("Late")));
+		List<Status> statuses = tickets.stream().map(ticket -> service.getTicket(ticket.id()).status()).toList();
+		assertEquals(Status.SAVED, statuses.get(0));
+		assertEquals(Status.FAILED, statuses.get(9));
+		assertEquals("Not saved before shutdown", service.getTicket(tickets.get(9).id()).reason());
+	}
+
+	@Test
+	void test_stop_interruptsWriterStuckInABatch_andFailsItsTickets() throws Exception {
+		// Arrange: the batch only ends when the writer is interrupted, as a JDBC call would
+		EmployeeBatchWriter batchWriter = mock(EmployeeBatchWriter.class);
+		CountDownLatch saving = new CountDownLatch(1);
+		when(batchWriter.saveAll(anyList())).thenAnswer(invocation -> {
+			saving.countDown();
+			try {
+				new CountDownLatch(1).await();
+			} catch (InterruptedException e) {
+				throw new IllegalStateException("interrupted");
+			}
+			return invocation.getArgument(0);
+		});
+		EmployeeWriteBehindService service = new EmployeeWriteBehindService(batchWriter, true, 10, 10,
+				Duration.ofSeconds(1), Duration.ofMillis(100), Duration.ofHours(1));
+		service.start();
+		EmployeeTicket first = service.submit(employee("Stuck"));
+		EmployeeTicket second = service.submit(employee("StuckToo"));
+		saving.await();
+
+		// Act
+		service.stop();
+
+		// Assert: the interrupted batch is neither retried nor left queued
+		verify(batchWriter, times(1)).saveAll(anyList());
+		for (EmployeeTicket ticket : List.of(first, second)) {
+			assertEquals(Status.FAILED, service.getTicket(ticket.id()).status());
+		}
+	}
+
+	@Test
+	void test_stop_leavesNoTicketQueued_whileSubmitsRace() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			// Arrange: submitters keep queueing while the service stops
+			EmployeeBatchWriter batchWriter = mock(EmployeeBatchWriter.class);
+			when(batchWriter.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+			EmployeeWriteBehindService service = new EmployeeWriteBehindService(batchWriter, true, 1000, 10,
+					Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofHours(1));
+			service.start();
+			List<EmployeeTicket> tickets = Collections.synchronizedList(new ArrayList<>());
+			List<Thread> submitters = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				Thread submitter = new Thread(() -> {
+					try {
+						while (true) {
+							tickets.add(service.submit(employee("Racing")));
+						}
+					} catch (WriteBehindQueueFullException e) {
+						// Stopped
+					}
+				});
+				submitter.start();
+				submitters.add(submitter);
+			}
+			Thread.sleep(5);
+
+			// Act
+			service.stop();
+			for (Thread submitter : submitters) {
+				submitter.join();
+			}
+
+			// Assert
+			for (EmployeeTicket ticket : tickets) {
+				assertNotEquals(Status.QUEUED, service.getTicket(ticket.id()).status());
+			}
+		}
+	}
+
+	@Test
+	void test_writer_whenBatchFails_retriesEmployeesOneByOne() {
+		// Arrange: the batch fails, then the retry of the employee named "Bad" fails too
+		EmployeeBatchWriter batchWriter = mock(EmployeeBatchWriter.class);
+		when(batchWriter.saveAll(anyList())).thenAnswer(invocation -> {
+			List<Employee> employees = invocation.getArgument(0);
+			if (employees.size() > 1 || employees.get(0).getFirstName().equals("Bad")) {
+				throw new IllegalStateException("constraint violated");
+			}
+			return employees;
+		});
+		EmployeeWriteBehindService service = new EmployeeWriteBehindService(batchWriter, true, 10, 10,
+				Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofHours(1));
+		service.start();
+
+		// Act
+		EmployeeTicket good = service.submit(employee("Good"));
+		EmployeeTicket bad = service.submit(employee("Bad"));
+		service.stop();
+
+		// Assert
+		assertEquals(Status.SAVED, service.getTicket(good.id()).status());
+		assertEquals(Status.FAILED, service.getTicket(bad.id()).status());
+		assertEquals("constraint violated", service.getTicket(bad.id()).reason());
+	}
+
+	@Test
+	void test_writer_whenReadModelFailsAfterCommit_doesNotSaveAgain() throws Exception {
+		// Arrange: the snapshot throws once the batch is committed
+		EmployeeSnapshot snapshot = mock(EmployeeSnapshot.class);
+		doThrow(new IllegalStateException("snapshot full")).when(snapshot).add(any(Employee.class));
+		EmployeeBatchWriter batchWriter = new EmployeeBatchWriter(employeeRepository, searchIndex, employeeCache,
+				employeeVersion, hireHistogram, snapshot, typeahead, new RequestMemo(), transactionTemplate);
+		EmployeeWriteBehindService service = new EmployeeWriteBehindService(batchWriter, true, 10, 10,
+				Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofHours(1));
+		service.start();
+
+		// Act
+		List<EmployeeTicket> tickets = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			tickets.add(service.submit(employee("Committed" + i)));
+		}
+		service.stop();
+
+		// Assert
+		for (EmployeeTicket ticket : tickets) {
+			assertEquals(Status.SAVED, service.getTicket(ticket.id()).status());
+		}
+		assertEquals(3, employeeRepository.count());
+	}
+
+	private static Employee employee(String firstName) {
+		return new Employee(firstName, "Queued", LocalDate.of(2023, 1, 1), "1 Queue Street London England");
+	}
+
+	private static EmployeeTicket awaitTicket(EmployeeWriteBehindService service, String id) throws InterruptedException {
+		for (int i = 0; i < 500; i++) {
+			EmployeeTicket ticket = service.getTicket(id);
+			if (ticket.status() != Status.QUEUED) {
+				return ticket;
+			}
+			Thread.sleep(10);
+		}
+		return service.getTicket(id);
+	}
+
+}
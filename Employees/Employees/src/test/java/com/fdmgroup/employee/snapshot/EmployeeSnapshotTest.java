@@ -0,0 +1,213 @@
+package com.fdmgroup.employee.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fdmgroup.employee.model.Employee;
+import com.fdmgroup.employee.model.EmployeeView;
+import com.fdmgroup.employee.repository.EmployeeRepository;
+import com.fdmgroup.employee.service.EmployeeService;
+
+@SpringBootTest(properties = "employee.snapshot.enabled=true")
+@ActiveProfiles("test")
+class EmployeeSnapshotTest {
+	private static final List<String> TERMS = List.of("", "a", "an", "ANA", "wehbe", "street", "london",
+			"Cluj-Napoca", "brasov", "xyz", "ya w", "e");
+	private static final List<String> SEARCH_INPUTS = List.of("", "anya", "Wehbe", "Anya Wehbe", "dan Alex",
+			"robert x", "Madalina", "nobody here", "a  b", "Brașov");
+
+	@Autowired
+	EmployeeRepository employeeRepository;
+	@Autowired
+	EmployeeSnapshot snapshot;
+	@Autowired
+	EmployeeService employeeService;
+
+	@TempDir
+	Path directory;
+
+	@BeforeEach
+	void setUp() {
+		employeeRepository.deleteAll();
+		employeeRepository.saveAll(List.of(
+				new Employee("Daliah", "Wehbe", LocalDate.of(2019, 6, 17), "22 A Street London England"),
+				new Employee("Anya", "Wehbe", LocalDate.of(2019, 6, 17), "23 B Street Manchester England"),
+				new Employee("Anastasia", "Alexandrovna", LocalDate.of(2019, 6, 17), "24 C Street Moscow Russia"),
+				new Employee("Mădălina", "Acasandrei", LocalDate.of(2019, 6, 17), "25 D Street Brașov Romania"),
+				new Employee("Robert", "Daniel", LocalDate.of(2019, 6, 17), "26 E Street Cluj-Napoca Romania")));
+		snapshot.rebuild();
+	}
+
+	@Test
+	void test_snapshotAndRepository_returnSameResults() {
+		for (String term : TERMS) {
+			assertEquals(sortedViews(employeeRepository.findByFirstNameContainsIgnoreCase(term)),
+					snapshot.findByFirstName(term));
+			assertEquals(sortedViews(employeeRepository.findByLastNameContainsIgnoreCase(term)),
+					snapshot.findByLastName(term));
+			assertEquals(sortedViews(employeeRepository.findByAddressContainsIgnoreCase(term)),
+					snapshot.findByAddress(term));
+		}
+		for (String searchInput : SEARCH_INPUTS) {
+			assertEquals(employeeService.searchEmployees(searchInput).stream().map(EmployeeView::of).toList(),
+					employeeService.searchViews(searchInput));
+		}
+		List<EmployeeView> all = sortedViews(employeeRepository.findAll());
+		assertEquals(all.subList(0, 2), employeeService.listViewPage(0, 2).employees());
+		assertEquals(all.subList(2, 5), employeeService.listViewPage(all.get(1).id(), 10).employees());
+		assertEquals(all.get(3), employeeService.getView(all.get(3).id()));
+		assertNull(employeeService.getView(-1));
+		List<EmployeeView> streamed = new ArrayList<>();
+		employeeService.streamAllViews(streamed::add);
+		assertEquals(all, streamed);
+	}
+
+	@Test
+	void test_createEmployee_isAppendedToTheSnapshot() {
+		Employee saved = employeeService
+				.createEmployee(new Employee("Zoltan", "Kovács", LocalDate.of(2023, 2, 1), "1 F Street Budapest Hungary"));
+
+		assertEquals(6, snapshot.size());
+		assertEquals(List.of(EmployeeView.of(saved)), snapshot.findByLastName("kovacs"));
+		assertEquals(EmployeeView.of(saved), employeeService.getView(saved.getId()));
+	}
+
+	@Test
+	void test_mappedSnapshot_growsAndKeepsIdOrder_whenRowsArriveOutOfOrder() throws Exception {
+		employeeRepository.deleteAll();
+		EmployeeSnapshot mapped = new EmployeeSnapshot(employeeRepository, true, directory.toString(), 1, 50000);
+		mapped.rebuild();
+
+		// More rows than the initial capacity, every tenth one late and with a lower id
+		List<Employee> added = new ArrayList<>();
+		for (int i = 1; i <= 3000; i++) {
+			int id = i % 10 == 0 ? i - 5 : i + 5000;
+			Employee employee = new Employee("First" + i, i % 7 == 0 ? null : "Last" + i,
+					i % 11 == 0 ? null : LocalDate.of(2000, 1, 1).plusDays(i), "Street " + "x".repeat(i % 50));
+			employee.setId(id);
+			added.add(employee);
+			mapped.add(employee);
+		}
+		// Added again, as an employee saved while the snapshot was loading is
+		mapped.add(added.get(0));
+
+		List<EmployeeView> expected = added.stream().map(EmployeeView::of)
+				.sorted((a, b) -> Integer.compare(a.id(), b.id())).toList();
+		assertEquals(3000, mapped.size());
+		assertEquals(expected.subList(0, 100), mapped.page(0, 100));
+		assertEquals(expected.subList(1000, 1010), mapped.page(expected.get(999).id(), 10));
+		assertEquals(EmployeeView.of(added.get(6)), mapped.findById(added.get(6).getId()));
+		assertEquals(EmployeeView.of(added.get(9)), mapped.findById(5));
+		assertNull(mapped.findById(4));
+		assertEquals(List.of(EmployeeView.of(added.get(2999))), mapped.findByFirstName("first3000"));
+		assertTrue(Files.size(directory.resolve("address.col")) > 0);
+
+		SnapshotFootprint footprint = mapped.footprint();
+		assertEquals("mapped", footprint.storage());
+		assertEquals(3000, footprint.rows());
+		assertTrue(footprint.usedBytes() <= footprint.allocatedBytes());
+		assertTrue(footprint.usedBytes() < footprint.entityBytes());
+		// The id order, started at the first late row and grown by doubling
+		assertEquals(4096L * Integer.BYTES, footprint.heapBytes());
+	}
+
+	@Test
+	void test_reads_seeTheIdOrder_betweenOutOfOrderAppends() {
+		employeeRepository.deleteAll();
+		EmployeeSnapshot interleaved = new EmployeeSnapshot(employeeRepository, true, "", 1, 50000);
+		interleaved.rebuild();
+
+		Random random = new Random(21);
+		TreeMap<Integer, EmployeeView> expected = new TreeMap<>();
+		for (int i = 0; i < 2000; i++) {
+			int id = 1 + random.nextInt(5000);
+			Employee employee = employee("First" + id, "Last" + id, id);
+			interleaved.add(employee);
+			expected.putIfAbsent(id, EmployeeView.of(employee));
+
+			assertEquals(expected.get(id), interleaved.findById(id));
+			if (i % 50 == 0) {
+				assertEquals(List.copyOf(expected.values()), interleaved.page(0, expected.size()));
+				int afterId = random.nextInt(5000);
+				assertEquals(expected.tailMap(afterId, false).values().stream().limit(10).toList(),
+						interleaved.page(afterId, 10));
+			}
+		}
+		assertEquals(expected.size(), interleaved.size());
+	}
+
+	@Test
+	void test_search_ordersByRankThenId_forIdsAboveThirtyBits() {
+		employeeRepository.deleteAll();
+		EmployeeSnapshot large = new EmployeeSnapshot(employeeRepository, true, "", 1, 50000);
+		large.rebuild();
+		Employee substring = employee("Joanna", "Smith", Integer.MAX_VALUE);
+		Employee exact = employee("Anna", "Karenina", (1 << 30) + 5);
+		Employee prefix = employee("Annabel", "Wehbe", 3);
+		Employee otherExact = employee("Anna", "Wehbe", (1 << 30) + 1);
+		List.of(substring, exact, prefix, otherExact).forEach(large::add);
+
+		assertEquals(List.of(otherExact, exact, prefix, substring).stream().map(EmployeeView::of).toList(),
+				large.search("anna"));
+	}
+
+	@Test
+	void test_parallelScans_returnTheResultsOfTheRepository_inIdOrder() {
+		EmployeeSnapshot parallel = new EmployeeSnapshot(employeeRepository, true, "", 4, 1);
+		parallel.rebuild();
+
+		for (String term : TERMS) {
+			assertEquals(snapshot.findByFirstName(term), parallel.findByFirstName(term));
+			assertEquals(sortedViews(employeeRepository.findByAddressContainsIgnoreCase(term)),
+					parallel.findByAddress(term));
+			assertEquals(sortedViews(employeeRepository.findByCityStartingWith(term)), parallel.findByCity(term, true));
+			assertEquals(sortedViews(employeeRepository.findByCountryStartingWith(term)),
+					parallel.findByCountry(term, true));
+		}
+		for (String location : List.of("London", "brasov", "cluj-napoca", "Romania", "ENGLAND", "Nowhere")) {
+			assertEquals(sortedViews(employeeRepository.findByCity(location)), parallel.findByCity(location, false));
+			assertEquals(sortedViews(employeeRepository.findByCountry(location)),
+					parallel.findByCountry(location, false));
+		}
+		for (String searchInput : SEARCH_INPUTS) {
+			assertEquals(snapshot.search(searchInput), parallel.search(searchInput));
+		}
+		assertEquals(sortedViews(employeeRepository.findAll()),
+				parallel.findByHireDateBetween(LocalDate.of(2019, 6, 17), LocalDate.of(2019, 6, 17)));
+		assertTrue(parallel.findByHireDateBetween(LocalDate.of(2019, 6, 18), LocalDate.of(2030, 1, 1)).isEmpty());
+		assertTrue(parallel.findByHireDateBetween(LocalDate.of(2020, 1, 1), LocalDate.of(2019, 1, 1)).isEmpty());
+		parallel.close();
+	}
+
+	@Test
+	void test_stringBytes_estimatesCompactStrings() {
+		assertEquals(0, EmployeeSnapshot.stringBytes(null));
+		assertEquals(24 + 24, EmployeeSnapshot.stringBytes("Daliah"));
+		assertEquals(24 + 32, EmployeeSnapshot.stringBytes("Mădălina"));
+	}
+
+	private static List<EmployeeView> sortedViews(List<Employee> employees) {
+		return employees.stream().map(EmployeeView::of).sorted((a, b) -> Integer.compare(a.id(), b.id())).toList();
+	}
+
+	private static Employee employee(String firstName, String lastName, int id) {
+		Employee employee = new Employee(firstName, lastName, LocalDate.of(2019, 6, 17), "3 C Street London England");
+		employee.setId(id);
+		return employee;
+	}
+
+}
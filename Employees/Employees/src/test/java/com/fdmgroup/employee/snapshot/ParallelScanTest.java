@@ -0,0 +1,48 @@
+package com.fdmgroup.employee.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class ParallelScanTest {
+
+	@Test
+	void test_map_keepsPositionOrder_acrossRanges() {
+		ParallelScan scan = new ParallelScan(4, 10);
+		try {
+			List<Integer> expected = IntStream.range(0, 100_000).filter(i -> i % 7 == 0).boxed().toList();
+
+			assertEquals(expected, scan.map(100_000, i -> i % 7 == 0 ? i : null));
+			assertArrayEquals(expected.stream().mapToLong(i -> i).toArray(),
+					scan.mapToLong(100_000, i -> i % 7 == 0 ? i : -1));
+		} finally {
+			scan.shutdown();
+		}
+	}
+
+	@Test
+	void test_map_staysOnTheCallingThread_belowTheThreshold() {
+		ParallelScan scan = new ParallelScan(4, 1000);
+		try {
+			Thread caller = Thread.currentThread();
+
+			assertEquals(List.of(true, true, true), scan.map(3, i -> Thread.currentThread() == caller));
+			assertEquals(4, scan.threads());
+		} finally {
+			scan.shutdown();
+		}
+	}
+
+	@Test
+	void test_singleThread_scansSequentially() {
+		ParallelScan scan = new ParallelScan(1, 1);
+		Thread caller = Thread.currentThread();
+
+		assertTrue(scan.map(50_000, i -> Thread.currentThread() == caller ? null : i).isEmpty());
+		assertEquals(0, scan.mapToLong(0, i -> i).length);
+	}
+
+}